@@ -0,0 +1,160 @@
+package com.jaronho.sdk.library;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   AttributeStore, open addressing string keyed attributes, numbers are kept unboxed in a long slot,
+ *          arrays are allocated on first set and the object array only when a non numeric value is set
+ */
+
+final class AttributeStore {
+    static final byte TYPE_NONE = 0;
+    static final byte TYPE_INT = 1;
+    static final byte TYPE_LONG = 2;
+    static final byte TYPE_FLOAT = 3;
+    static final byte TYPE_DOUBLE = 4;
+    static final byte TYPE_OBJECT = 5;
+    static final byte TYPE_SHORT = 6;
+    static final byte TYPE_BYTE = 7;
+
+    private static final int MIN_CAPACITY = 4;      // must be a power of 2
+
+    private String[] mKeys = null;
+    private byte[] mTypes = null;
+    private long[] mBits = null;                    // integral types as is, float and double as raw double bits
+    private Object[] mObjects = null;
+    private int mSize = 0;
+
+    public int size() {
+        return mSize;
+    }
+
+    // slot index of key, -1 if absent
+    public int find(String key) {
+        if (null == mKeys || null == key) {
+            return -1;
+        }
+        int mask = mKeys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            String k = mKeys[i];
+            if (null == k) {
+                return -1;
+            }
+            if (k == key || k.equals(key)) {
+                return i;
+            }
+        }
+    }
+
+    public byte typeAt(int index) {
+        return mTypes[index];
+    }
+
+    public long longAt(int index) {
+        return mBits[index];
+    }
+
+    public double doubleAt(int index) {
+        return Double.longBitsToDouble(mBits[index]);
+    }
+
+    public Object objectAt(int index) {
+        return mObjects[index];
+    }
+
+    // boxed value at index, for callers that want an Object
+    public Object valueAt(int index) {
+        switch (mTypes[index]) {
+            case TYPE_INT: return (int)mBits[index];
+            case TYPE_LONG: return mBits[index];
+            case TYPE_FLOAT: return (float)doubleAt(index);
+            case TYPE_DOUBLE: return doubleAt(index);
+            case TYPE_SHORT: return (short)mBits[index];
+            case TYPE_BYTE: return (byte)mBits[index];
+            default: return mObjects[index];
+        }
+    }
+
+    public void putLong(String key, byte type, long bits) {
+        int index = slot(key);
+        mTypes[index] = type;
+        mBits[index] = bits;
+        if (null != mObjects) {
+            mObjects[index] = null;
+        }
+    }
+
+    public void putDouble(String key, byte type, double value) {
+        putLong(key, type, Double.doubleToRawLongBits(value));
+    }
+
+    public void putObject(String key, Object value) {
+        int index = slot(key);
+        if (null == mObjects) {
+            mObjects = new Object[mKeys.length];
+        }
+        mTypes[index] = TYPE_OBJECT;
+        mBits[index] = 0;
+        mObjects[index] = value;
+    }
+
+    // slot of key, inserted if absent
+    private int slot(String key) {
+        if (null == key) {
+            throw new NullPointerException("key is null");
+        }
+        if (null == mKeys) {
+            allocate(MIN_CAPACITY);
+        }
+        int mask = mKeys.length - 1;
+        int i = hash(key) & mask;
+        for (; null != mKeys[i]; i = (i + 1) & mask) {
+            if (mKeys[i] == key || mKeys[i].equals(key)) {
+                return i;
+            }
+        }
+        if ((mSize + 1) * 4 > mKeys.length * 3) {
+            rehash(mKeys.length * 2);
+            return slot(key);
+        }
+        mKeys[i] = key;
+        ++mSize;
+        return i;
+    }
+
+    private void allocate(int capacity) {
+        mKeys = new String[capacity];
+        mTypes = new byte[capacity];
+        mBits = new long[capacity];
+    }
+
+    private void rehash(int capacity) {
+        String[] keys = mKeys;
+        byte[] types = mTypes;
+        long[] bits = mBits;
+        Object[] objects = mObjects;
+        allocate(capacity);
+        mObjects = null == objects ? null : new Object[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < keys.length; ++j) {
+            if (null == keys[j]) {
+                continue;
+            }
+            int i = hash(keys[j]) & mask;
+            while (null != mKeys[i]) {
+                i = (i + 1) & mask;
+            }
+            mKeys[i] = keys[j];
+            mTypes[i] = types[j];
+            mBits[i] = bits[j];
+            if (null != objects) {
+                mObjects[i] = objects[j];
+            }
+        }
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,150 @@
+package com.jaronho.sdk.library;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   DynamicProbability, 基于树状数组(Fenwick tree)的加权随机,
+ *          设置权重和获取随机值都是O(log n),适合权重频繁变化的场景,权重不变时使用Probability(O(1)获取)
+ */
+
+public class DynamicProbability {
+    private final HashMap<Integer, Integer> mIndexMap = new HashMap<>();    // 值 -> 下标
+    private final Probability.RandomHandler mRandomHandler;
+    private int[] mValues = new int[16];
+    private int[] mWeights = new int[16];
+    private long[] mTree = new long[17];        // 树状数组,下标从1开始
+    private int mCount = 0;
+    private long mTotalWeight = 0;
+
+    // weightList e.g.[[1,20],[2,60]],contains two random value: 1.value,20.weight;2.value,60.weight
+    public DynamicProbability(List<int[]> weightList, Probability.RandomHandler randomHandler) {
+        mRandomHandler = randomHandler;
+        if (null != weightList) {
+            for (int i = 0, len = weightList.size(); i < len; ++i) {
+                int[] factor = weightList.get(i);   // [0]=value,[1]weight
+                if (factor.length < 2) {
+                    throw new AssertionError("weight list at index [" + i + "] format is error, factor must contain two value");
+                }
+                setWeight(factor[0], factor[1]);
+            }
+        }
+    }
+
+    public DynamicProbability(List<int[]> weightList) {
+        this(weightList, null);
+    }
+
+    public DynamicProbability() {
+        this(null, null);
+    }
+
+    private double random() {
+        return null == mRandomHandler ? Math.random() : mRandomHandler.random();
+    }
+
+    /**
+     * 功  能: 根据权重获取随机值,O(log n)
+     * 参  数: 无
+     * 返回值: int,总权重为0时返回-1
+     */
+    public int getValue() {
+        if (0 == mTotalWeight) {
+            return -1;
+        }
+        long target = (long)(random() * mTotalWeight);
+        if (target >= mTotalWeight) {
+            target = mTotalWeight - 1;
+        }
+        // 找到前缀和>target的最小下标
+        int index = 0;
+        for (int step = Integer.highestOneBit(mTree.length - 1); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next < mTree.length && mTree[next] <= target) {
+                index = next;
+                target -= mTree[next];
+            }
+        }
+        return mValues[index];
+    }
+
+    /**
+     * 功  能: 根据权重批量获取随机值
+     * 参  数: n - 个数
+     *         out - 随机值,长度>=n
+     * 返回值: 无
+     */
+    public void getValues(int n, int[] out) {
+        for (int i = 0; i < n; ++i) {
+            out[i] = getValue();
+        }
+    }
+
+    /**
+     * 功  能: 获取值的权重
+     * 参  数: value - 值
+     * 返回值: int
+     */
+    public int getWeight(int value) {
+        Integer index = mIndexMap.get(value);
+        return null == index ? 0 : mWeights[index];
+    }
+
+    /**
+     * 功  能: 设置权重,O(log n)
+     * 参  数: value - 值
+     *         weight - 权重(必须>=0)
+     * 返回值: 无
+     */
+    public void setWeight(int value, int weight) {
+        if (weight < 0) {
+            throw new AssertionError("not support weight value " + weight + " < 0");
+        }
+        Integer index = mIndexMap.get(value);
+        if (null == index) {
+            if (mCount == mValues.length) {
+                grow();
+            }
+            index = mCount++;
+            mIndexMap.put(value, index);
+            mValues[index] = value;
+        }
+        long delta = weight - mWeights[index];
+        mWeights[index] = weight;
+        mTotalWeight += delta;
+        for (int i = index + 1; i < mTree.length; i += i & -i) {
+            mTree[i] += delta;
+        }
+    }
+
+    /**
+     * 功  能: 获取总权重
+     * 参  数: 无
+     * 返回值: long
+     */
+    public long getTotalWeight() {
+        return mTotalWeight;
+    }
+
+    // 容量翻倍,O(n)重建树状数组
+    private void grow() {
+        int capacity = mValues.length * 2;
+        int[] values = new int[capacity];
+        int[] weights = new int[capacity];
+        System.arraycopy(mValues, 0, values, 0, mCount);
+        System.arraycopy(mWeights, 0, weights, 0, mCount);
+        long[] tree = new long[capacity + 1];
+        for (int i = 1; i <= capacity; ++i) {
+            tree[i] += i <= mCount ? weights[i - 1] : 0;
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+        mValues = values;
+        mWeights = weights;
+        mTree = tree;
+    }
+}
@@ -0,0 +1,322 @@
+package com.jaronho.sdk.library;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   FileChecksum, 文件分块校验,每块chunkSize字节独立计算摘要(叶子 = H(0x00 || 块)),多块通过内存映射在线程池中并行计算,
+ *          叶子两两合并为Merkle根:节点 = H(0x01 || 左 || 右),奇数个时最后一个直接上移,只有一块时根即该块叶子,
+ *          叶子与节点前缀不同(同RFC 6962),无法用中间节点冒充数据块构造相同的根,
+ *          Stream支持边下载边计算,断点续传时只重新计算续传位置所在块及之后的块
+ */
+
+public class FileChecksum {
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+    private static ExecutorService mPool = null;
+
+    private final String mAlgorithm;
+    private final int mChunkSize;
+
+    /**
+     * 流式计算,按写入顺序喂入数据,每满一块生成一个叶子,可与期望叶子逐块比对
+     */
+    public class Stream {
+        private final List<byte[]> mLeaves = new ArrayList<>();
+        private final byte[][] mExpected;
+        private final MessageDigest mDigest = newDigest();
+        private long mChunkFill = 0;            // 当前块已喂入字节数
+        private int mMismatch = -1;             // 第一个不一致的块下标
+
+        private Stream(byte[][] leaves, int leafCount, byte[][] expected) {
+            mDigest.update(LEAF_PREFIX);
+            for (int i = 0; i < leafCount; ++i) {
+                mLeaves.add(leaves[i]);
+            }
+            mExpected = expected;
+            for (int i = 0; i < leafCount; ++i) {
+                check(i);
+            }
+        }
+
+        public void update(byte[] data, int offset, int len) {
+            while (len > 0) {
+                int n = (int)Math.min(len, mChunkSize - mChunkFill);
+                mDigest.update(data, offset, n);
+                mChunkFill += n;
+                offset += n;
+                len -= n;
+                if (mChunkFill == mChunkSize) {
+                    completeChunk();
+                }
+            }
+        }
+
+        // 已完成的块数
+        public int getChunkCount() {
+            return mLeaves.size();
+        }
+
+        // 已完成块的叶子,暂停时保存,续传时传给newStream以免重新计算
+        public byte[][] getLeaves() {
+            return mLeaves.toArray(new byte[mLeaves.size()][]);
+        }
+
+        // 第一个与期望摘要不一致的块下标,-1表示目前一致
+        public int getFirstMismatch() {
+            return mMismatch;
+        }
+
+        // 结束计算,未满的最后一块也生成叶子,返回全部叶子
+        public byte[][] finish() {
+            if (mChunkFill > 0 || mLeaves.isEmpty()) {
+                completeChunk();
+            }
+            if (null != mExpected && mLeaves.size() != mExpected.length && -1 == mMismatch) {
+                mMismatch = Math.min(mLeaves.size(), mExpected.length);
+            }
+            return mLeaves.toArray(new byte[mLeaves.size()][]);
+        }
+
+        private void completeChunk() {
+            mLeaves.add(mDigest.digest());
+            mDigest.update(LEAF_PREFIX);
+            mChunkFill = 0;
+            check(mLeaves.size() - 1);
+        }
+
+        private void check(int index) {
+            if (null == mExpected || -1 != mMismatch) {
+                return;
+            }
+            if (index >= mExpected.length || !MessageDigest.isEqual(mLeaves.get(index), mExpected[index])) {
+                mMismatch = index;
+            }
+        }
+    }
+
+    /**
+     * 功  能: 构造函数
+     * 参  数: algorithm - 摘要算法,如:Hash.SHA256
+     *         chunkSize - 块大小(字节)
+     * 返回值: 无
+     */
+    public FileChecksum(String algorithm, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new AssertionError("chunkSize must > 0, now is " + chunkSize);
+        }
+        mAlgorithm = algorithm;
+        mChunkSize = chunkSize;
+        newDigest();
+    }
+
+    public FileChecksum(String algorithm) {
+        this(algorithm, DEFAULT_CHUNK_SIZE);
+    }
+
+    public String getAlgorithm() {
+        return mAlgorithm;
+    }
+
+    public int getChunkSize() {
+        return mChunkSize;
+    }
+
+    /**
+     * 功  能: 获取计算线程池,线程数为cpu核数
+     * 参  数: 无
+     * 返回值: ExecutorService
+     */
+    public static ExecutorService getPool() {
+        if (null == mPool) {
+            synchronized(FileChecksum.class) {
+                if (null == mPool) {
+                    int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+                    mPool = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+                        private int mCount = 0;
+                        @Override
+                        public synchronized Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "FileChecksum-" + (++mCount));
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                }
+            }
+        }
+        return mPool;
+    }
+
+    /**
+     * 功  能: 并行计算文件所有块的摘要
+     * 参  数: file - 文件
+     * 返回值: byte[][],叶子,空文件为一个空块的叶子
+     */
+    public byte[][] hashChunks(File file) throws IOException {
+        return hashChunks(file, null, 0);
+    }
+
+    /**
+     * 功  能: 并行计算文件块摘要,from所在块之前的块复用leaves
+     * 参  数: file - 文件
+     *         leaves - 之前计算的叶子,可为null
+     *         from - 从该位置起的数据有变化(如断点续传的起点)
+     * 返回值: byte[][],叶子
+     */
+    public byte[][] hashChunks(File file, byte[][] leaves, long from) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return hashChunks(raf.getChannel(), raf.length(), leaves, from);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * 功  能: 计算文件的Merkle根
+     * 参  数: file - 文件
+     * 返回值: byte[]
+     */
+    public byte[] hashFile(File file) throws IOException {
+        return merkleRoot(hashChunks(file));
+    }
+
+    /**
+     * 功  能: 由叶子计算Merkle根
+     * 参  数: leaves - 叶子
+     * 返回值: byte[]
+     */
+    public byte[] merkleRoot(byte[][] leaves) {
+        if (0 == leaves.length) {
+            return emptyLeaf();
+        }
+        MessageDigest md = newDigest();
+        byte[][] level = leaves;
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parent.length; ++i) {
+                if (2 * i + 1 < level.length) {
+                    md.update(NODE_PREFIX);
+                    md.update(level[2 * i]);
+                    md.update(level[2 * i + 1]);
+                    parent[i] = md.digest();
+                } else {
+                    parent[i] = level[2 * i];
+                }
+            }
+            level = parent;
+        }
+        return level[0];
+    }
+
+    /**
+     * 功  能: 开始流式计算,适用于边下载边校验
+     * 参  数: file - 已写入部分数据的文件,from为0时可为null
+     *         from - 续传起点,之后的数据通过Stream.update喂入
+     *         leaves - 之前计算的叶子,from所在块之前的块直接复用,不足时从文件计算,可为null
+     *         expected - 期望的叶子,用于逐块比对,可为null
+     * 返回值: Stream
+     */
+    public Stream newStream(File file, long from, byte[][] leaves, byte[][] expected) throws IOException {
+        if (from <= 0) {
+            return new Stream(new byte[0][], 0, expected);
+        }
+        int startChunk = (int)(from / mChunkSize);
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            byte[][] before = hashChunks(channel, (long)startChunk * mChunkSize, leaves, Long.MAX_VALUE);
+            Stream stream = new Stream(before, startChunk, expected);
+            // 续传起点所在块已写入的部分从文件读取
+            long partStart = (long)startChunk * mChunkSize;
+            if (from > partStart) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, partStart, from - partStart);
+                byte[] part = new byte[(int)(from - partStart)];
+                buffer.get(part);
+                stream.update(part, 0, part.length);
+            }
+            return stream;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private byte[][] hashChunks(final FileChannel channel, final long length, byte[][] leaves, long from) throws IOException {
+        int count = (int)((length + mChunkSize - 1) / mChunkSize);
+        byte[][] result = new byte[Math.max(count, 1)][];
+        if (0 == length) {
+            result[0] = emptyLeaf();
+            return result;
+        }
+        // 只有完整且在from之前的块可以复用
+        int reuse = (int)Math.min(from / mChunkSize, null == leaves ? 0 : leaves.length);
+        reuse = Math.min(reuse, (int)(length / mChunkSize));
+        List<Callable<byte[]>> taskList = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            if (i < reuse) {
+                result[i] = leaves[i];
+                continue;
+            }
+            final long position = (long)i * mChunkSize;
+            final long size = Math.min(mChunkSize, length - position);
+            taskList.add(new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws IOException {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                    MessageDigest md = Hash.digest(mAlgorithm);
+                    md.update(LEAF_PREFIX);
+                    md.update(buffer);
+                    return md.digest();
+                }
+            });
+        }
+        if (1 == taskList.size()) {
+            try {
+                result[reuse] = taskList.get(0).call();
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+            return result;
+        }
+        try {
+            List<Future<byte[]>> futureList = getPool().invokeAll(taskList);
+            for (int i = 0, len = futureList.size(); i < len; ++i) {
+                result[reuse + i] = futureList.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException)cause : new IOException(cause);
+        }
+        return result;
+    }
+
+    private MessageDigest newDigest() {
+        return Hash.newDigest(mAlgorithm);
+    }
+
+    private byte[] emptyLeaf() {
+        MessageDigest md = newDigest();
+        md.update(LEAF_PREFIX);
+        return md.digest();
+    }
+}
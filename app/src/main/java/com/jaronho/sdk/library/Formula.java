@@ -490,4 +490,167 @@ public class Formula {
         it[1] = t;
         return it;
     }
+
+    /**
+     * 功  能: 批量计算点到多个点的距离,结果写入out,不分配内存
+     * 参  数: x - 点x坐标
+     *         y - 点y坐标
+     *         xs - 多个点的x坐标
+     *         ys - 多个点的y坐标
+     *         offset - 起始下标,输入和输出使用相同下标
+     *         count - 点个数
+     *         out - 距离
+     * 返回值: 无
+     */
+    public static void calcDistances(float x, float y, float[] xs, float[] ys, int offset, int count, float[] out) {
+        for (int i = offset, end = offset + count; i < end; ++i) {
+            float dx = xs[i] - x;
+            float dy = ys[i] - y;
+            out[i] = (float)Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    /**
+     * 功  能: 批量判断点是否在矩形区域,结果写入out,不分配内存
+     * 参  数: rectX - 矩形的x坐标
+     *         rectY - 矩形的y坐标
+     *         rectW - 矩形的宽
+     *         rectH - 矩形的高
+     *         xs - 多个点的x坐标
+     *         ys - 多个点的y坐标
+     *         offset - 起始下标,输入和输出使用相同下标
+     *         count - 点个数
+     *         out - 是否在矩形区域
+     * 返回值: int,在矩形区域的点个数
+     */
+    public static int isPointsInRect(float rectX, float rectY, float rectW, float rectH, float[] xs, float[] ys, int offset, int count, boolean[] out) {
+        float xMax = rectX + rectW;
+        float yMax = rectY + rectH;
+        int hits = 0;
+        for (int i = offset, end = offset + count; i < end; ++i) {
+            float x = xs[i];
+            float y = ys[i];
+            boolean in = (x >= rectX) && (x <= xMax) && (y >= rectY) && (y <= yMax);
+            out[i] = in;
+            hits += in ? 1 : 0;
+        }
+        return hits;
+    }
+
+    /**
+     * 功  能: 批量判断点是否在圆内,结果写入out,不分配内存,比较距离平方,不开方
+     * 参  数: cX - 圆心x坐标
+     *         cY - 圆心y坐标
+     *         r - 半径
+     *         xs - 多个点的x坐标
+     *         ys - 多个点的y坐标
+     *         offset - 起始下标,输入和输出使用相同下标
+     *         count - 点个数
+     *         out - 是否在圆内
+     * 返回值: int,在圆内的点个数
+     */
+    public static int isPointsInCircle(float cX, float cY, float r, float[] xs, float[] ys, int offset, int count, boolean[] out) {
+        float r2 = r >= 0 ? r * r : -1;
+        int hits = 0;
+        for (int i = offset, end = offset + count; i < end; ++i) {
+            float dx = xs[i] - cX;
+            float dy = ys[i] - cY;
+            boolean in = dx * dx + dy * dy <= r2;
+            out[i] = in;
+            hits += in ? 1 : 0;
+        }
+        return hits;
+    }
+
+    /**
+     * 功  能: 批量判断点是否在三角形区域,结果写入out,不分配内存,三条边的截距在循环外计算一次
+     * 参  数: aX - 三角形点A的x坐标
+     *         aY - 三角形点A的y坐标
+     *         bX - 三角形点B的x坐标
+     *         bY - 三角形点B的y坐标
+     *         cX - 三角形点C的x坐标
+     *         cY - 三角形点C的y坐标
+     *         xs - 多个点的x坐标
+     *         ys - 多个点的y坐标
+     *         offset - 起始下标,输入和输出使用相同下标
+     *         count - 点个数
+     *         out - 是否在三角形区域
+     * 返回值: int,在三角形区域的点个数
+     */
+    public static int isPointsInTriangle(float aX, float aY, float bX, float bY, float cX, float cY, float[] xs, float[] ys, int offset, int count, boolean[] out) {
+        // 每条边的截距表示为 p = kx * x + ky * y,与isPointInIntercept一致
+        float kx1 = interceptKx(aX, aY, bX, bY), ky1 = interceptKy(aX, aY, bX, bY);
+        float kx2 = interceptKx(aX, aY, cX, cY), ky2 = interceptKy(aX, aY, cX, cY);
+        float kx3 = interceptKx(bX, bY, cX, cY), ky3 = interceptKy(bX, bY, cX, cY);
+        float p1A = kx1 * aX + ky1 * aY, p1C = kx1 * cX + ky1 * cY;
+        float p2A = kx2 * aX + ky2 * aY, p2B = kx2 * bX + ky2 * bY;
+        float p3B = kx3 * bX + ky3 * bY, p3A = kx3 * aX + ky3 * aY;
+        float min1 = Math.min(p1A, p1C), max1 = Math.max(p1A, p1C);
+        float min2 = Math.min(p2A, p2B), max2 = Math.max(p2A, p2B);
+        float min3 = Math.min(p3B, p3A), max3 = Math.max(p3B, p3A);
+        int hits = 0;
+        for (int i = offset, end = offset + count; i < end; ++i) {
+            float x = xs[i];
+            float y = ys[i];
+            float p1 = kx1 * x + ky1 * y;
+            float p2 = kx2 * x + ky2 * y;
+            float p3 = kx3 * x + ky3 * y;
+            boolean in = p1 >= min1 && p1 <= max1 && p2 >= min2 && p2 <= max2 && p3 >= min3 && p3 <= max3;
+            out[i] = in;
+            hits += in ? 1 : 0;
+        }
+        return hits;
+    }
+
+    private static float interceptKx(float aX, float aY, float bX, float bY) {
+        if (aX == bX) {
+            return 1;
+        }
+        return aY == bY ? 0 : -((aY - bY) / (aX - bX));
+    }
+
+    private static float interceptKy(float aX, float aY, float bX, float bY) {
+        return aX == bX ? 0 : 1;
+    }
+
+    /**
+     * 功  能: 批量计算线段AB与多条线段CD的交点,结果写入outXs,outYs,不相交时为NaN,不分配内存
+     * 参  数: aX - 线段1起点x坐标
+     *         aY - 线段1起点y坐标
+     *         bX - 线段1终点x坐标
+     *         bY - 线段1终点y坐标
+     *         cXs - 多条线段2起点x坐标
+     *         cYs - 多条线段2起点y坐标
+     *         dXs - 多条线段2终点x坐标
+     *         dYs - 多条线段2终点y坐标
+     *         offset - 起始下标,输入和输出使用相同下标
+     *         count - 线段个数
+     *         limit - 分母限制值,0.1f
+     *         mustIn - 交点是否必须在两个线段之上
+     *         outXs - 交点x坐标
+     *         outYs - 交点y坐标
+     * 返回值: int,有交点的线段个数
+     */
+    public static int calcSegmentIntersections(float aX, float aY, float bX, float bY, float[] cXs, float[] cYs, float[] dXs, float[] dYs, int offset, int count, float limit, boolean mustIn, float[] outXs, float[] outYs) {
+        float absLimit = Math.abs(limit);
+        int hits = 0;
+        for (int i = offset, end = offset + count; i < end; ++i) {
+            float cX = cXs[i], cY = cYs[i], dX = dXs[i], dY = dYs[i];
+            float x = Float.NaN;
+            float y = Float.NaN;
+            float denominator = (bY - aY) * (dX - cX) - (aX - bX) * (cY - dY);
+            if (0 != denominator && Math.abs(denominator) > absLimit) {
+                float ix = ((bX - aX) * (dX - cX) * (cY - aY) + (bY - aY) * (dX - cX) * aX - (dY - cY) * (bX - aX) * cX) / denominator;
+                float iy = -((bY - aY) * ( dY - cY) * (cX - aX) + (bX - aX) * (dY - cY) * aY - (dX - cX) * (bY - aY) * cY) / denominator;
+                if (!mustIn || ((ix - aX) * (ix - bX) <= 0 && (iy - aY) * (iy - bY) <= 0 && (ix - cX) * (ix - dX) <= 0 && (iy - cY) * (iy - dY) <= 0)) {
+                    x = ix;
+                    y = iy;
+                    ++hits;
+                }
+            }
+            outXs[i] = x;
+            outYs[i] = y;
+        }
+        return hits;
+    }
 }
@@ -0,0 +1,284 @@
+package com.jaronho.sdk.library;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   Hash, 摘要工具,每个线程缓存MessageDigest实例和读缓冲区,避免每次调用getInstance,
+ *          支持从InputStream,FileChannel,ByteBuffer流式计算,查表转十六进制
+ */
+
+public class Hash {
+    public static final String MD5 = "MD5";
+    public static final String SHA1 = "SHA-1";
+    public static final String SHA256 = "SHA-256";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final char[] HEX_UPPER = "0123456789ABCDEF".toCharArray();
+    private static final char[] HEX_LOWER = "0123456789abcdef".toCharArray();
+
+    private static class Cache {
+        public final HashMap<String, MessageDigest> digestMap = new HashMap<>();
+        public final byte[] buffer = new byte[BUFFER_SIZE];
+        public final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        public final char[] hexBuffer = new char[128];
+    }
+
+    private static final ThreadLocal<Cache> mCache = new ThreadLocal<Cache>() {
+        @Override
+        protected Cache initialValue() {
+            return new Cache();
+        }
+    };
+
+    /**
+     * 流式计算,每个实例持有独立的MessageDigest,可跨多次调用累积数据
+     */
+    public static class Hasher {
+        private final MessageDigest mDigest;
+
+        private Hasher(MessageDigest digest) {
+            mDigest = digest;
+        }
+
+        public Hasher update(byte[] data, int offset, int len) {
+            mDigest.update(data, offset, len);
+            return this;
+        }
+
+        public Hasher update(byte[] data) {
+            mDigest.update(data);
+            return this;
+        }
+
+        public Hasher update(String s) {
+            mDigest.update(s.getBytes(UTF8));
+            return this;
+        }
+
+        // 读取buffer剩余的全部数据
+        public Hasher update(ByteBuffer buffer) {
+            mDigest.update(buffer);
+            return this;
+        }
+
+        // 读取到流结束,不关闭流
+        public Hasher update(InputStream in) throws IOException {
+            Hash.update(mDigest, in, mCache.get().buffer);
+            return this;
+        }
+
+        // 从channel当前位置读取到结束,不关闭channel
+        public Hasher update(FileChannel channel) throws IOException {
+            Hash.update(mDigest, channel, mCache.get().byteBuffer);
+            return this;
+        }
+
+        // 计算结果并重置,实例可继续使用
+        public byte[] digest() {
+            return mDigest.digest();
+        }
+
+        public String digestHex(boolean upperCase) {
+            return toHex(mDigest.digest(), upperCase);
+        }
+    }
+
+    /**
+     * 功  能: 获取当前线程缓存的摘要实例(已重置),不可跨线程或嵌套使用
+     * 参  数: algorithm - 算法,如:MD5,SHA1,SHA256
+     * 返回值: MessageDigest
+     */
+    public static MessageDigest digest(String algorithm) {
+        HashMap<String, MessageDigest> digestMap = mCache.get().digestMap;
+        MessageDigest md = digestMap.get(algorithm);
+        if (null == md) {
+            md = newDigest(algorithm);
+            digestMap.put(algorithm, md);
+        } else {
+            md.reset();
+        }
+        return md;
+    }
+
+    /**
+     * 功  能: 创建流式计算实例
+     * 参  数: algorithm - 算法,如:MD5,SHA1,SHA256
+     * 返回值: Hasher
+     */
+    public static Hasher newHasher(String algorithm) {
+        return new Hasher(newDigest(algorithm));
+    }
+
+    /**
+     * 功  能: 计算字节数组摘要
+     * 参  数: algorithm - 算法
+     *         data - 数据
+     *         offset - 起始位置
+     *         len - 长度
+     * 返回值: byte[]
+     */
+    public static byte[] hash(String algorithm, byte[] data, int offset, int len) {
+        MessageDigest md = digest(algorithm);
+        md.update(data, offset, len);
+        return md.digest();
+    }
+
+    public static byte[] hash(String algorithm, byte[] data) {
+        return hash(algorithm, data, 0, data.length);
+    }
+
+    /**
+     * 功  能: 计算字符串摘要,按UTF-8编码
+     * 参  数: algorithm - 算法
+     *         s - 字符串
+     * 返回值: byte[]
+     */
+    public static byte[] hash(String algorithm, String s) {
+        return hash(algorithm, s.getBytes(UTF8));
+    }
+
+    /**
+     * 功  能: 计算ByteBuffer剩余数据的摘要
+     * 参  数: algorithm - 算法
+     *         buffer - 数据,计算后position移到limit
+     * 返回值: byte[]
+     */
+    public static byte[] hash(String algorithm, ByteBuffer buffer) {
+        MessageDigest md = digest(algorithm);
+        md.update(buffer);
+        return md.digest();
+    }
+
+    /**
+     * 功  能: 计算流的摘要,读取到流结束,不关闭流
+     * 参  数: algorithm - 算法
+     *         in - 输入流
+     * 返回值: byte[]
+     */
+    public static byte[] hash(String algorithm, InputStream in) throws IOException {
+        Cache cache = mCache.get();
+        MessageDigest md = digest(algorithm);
+        update(md, in, cache.buffer);
+        return md.digest();
+    }
+
+    /**
+     * 功  能: 计算channel从当前位置到结束的摘要,不关闭channel
+     * 参  数: algorithm - 算法
+     *         channel - 文件通道
+     * 返回值: byte[]
+     */
+    public static byte[] hash(String algorithm, FileChannel channel) throws IOException {
+        Cache cache = mCache.get();
+        MessageDigest md = digest(algorithm);
+        update(md, channel, cache.byteBuffer);
+        return md.digest();
+    }
+
+    /**
+     * 功  能: 计算文件摘要
+     * 参  数: algorithm - 算法
+     *         file - 文件
+     * 返回值: byte[]
+     */
+    public static byte[] hash(String algorithm, File file) throws IOException {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            return hash(algorithm, fis.getChannel());
+        } finally {
+            fis.close();
+        }
+    }
+
+    /**
+     * 功  能: 计算字符串MD5,按UTF-8编码
+     * 参  数: s - 字符串
+     *         upperCase - 是否大写
+     * 返回值: String,32位十六进制
+     */
+    public static String md5Hex(String s, boolean upperCase) {
+        return toHex(hash(MD5, s), upperCase);
+    }
+
+    /**
+     * 功  能: 计算字符串SHA-256,按UTF-8编码
+     * 参  数: s - 字符串
+     *         upperCase - 是否大写
+     * 返回值: String,64位十六进制
+     */
+    public static String sha256Hex(String s, boolean upperCase) {
+        return toHex(hash(SHA256, s), upperCase);
+    }
+
+    /**
+     * 功  能: 字节转十六进制,写入调用者提供的字符数组,不分配内存
+     * 参  数: data - 数据
+     *         offset - 起始位置
+     *         len - 长度
+     *         out - 输出,长度>=outOffset+len*2
+     *         outOffset - 输出起始位置
+     *         upperCase - 是否大写
+     * 返回值: int,写入的字符个数
+     */
+    public static int toHex(byte[] data, int offset, int len, char[] out, int outOffset, boolean upperCase) {
+        char[] table = upperCase ? HEX_UPPER : HEX_LOWER;
+        int j = outOffset;
+        for (int i = offset, end = offset + len; i < end; ++i) {
+            int b = data[i] & 0xFF;
+            out[j++] = table[b >>> 4];
+            out[j++] = table[b & 0xF];
+        }
+        return j - outOffset;
+    }
+
+    /**
+     * 功  能: 字节转十六进制字符串,摘要长度的数据使用线程缓存的字符数组
+     * 参  数: data - 数据
+     *         upperCase - 是否大写
+     * 返回值: String
+     */
+    public static String toHex(byte[] data, boolean upperCase) {
+        char[] out = mCache.get().hexBuffer;
+        if (out.length < data.length * 2) {
+            out = new char[data.length * 2];
+        }
+        int count = toHex(data, 0, data.length, out, 0, upperCase);
+        return new String(out, 0, count);
+    }
+
+    static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void update(MessageDigest md, InputStream in, byte[] buffer) throws IOException {
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            md.update(buffer, 0, n);
+        }
+    }
+
+    private static void update(MessageDigest md, FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            md.update(buffer);
+            buffer.clear();
+        }
+    }
+}
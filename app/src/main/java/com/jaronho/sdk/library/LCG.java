@@ -16,8 +16,10 @@ package com.jaronho.sdk.library;
  *          一般而言,高LCG的m是2的指数次幂(一般2^32或者2^64),因为这样取模操作截断最右的32或64位就可以了
  *          其中参数m,a,c比较敏感,都是常数(一般会取质数),或者说直接影响了伪随机数产生的质量
  *          当c=0时,叫做乘同余法,引出一个概念叫seed,它会被作为X(0)被代入上式中
+ * 说  明:  默认模数233280周期过短,且基于double运算较慢,新代码使用random包中的SplitMix64/Xoshiro256/PCG32
  */
 
+@Deprecated
 public class LCG {
     private long mA = 9301;
     private long mC = 49297;
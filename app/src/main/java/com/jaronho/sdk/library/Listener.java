@@ -2,12 +2,11 @@ package com.jaronho.sdk.library;
 
 import org.json.JSONObject;
 
-import java.util.HashMap;
 import java.util.UUID;
 
 public abstract class Listener {
 	private String mId = "";
-	private HashMap<String, Object> mObjectMap = new HashMap<>();
+	private final AttributeStore mAttributes = new AttributeStore();
 	
 	public Listener() {
         mId = UUID.randomUUID().toString();
@@ -22,30 +21,80 @@ public abstract class Listener {
 	}
 	
 	public Object get(String key, Object def) {
-		if (mObjectMap.containsKey(key)) {
-			return mObjectMap.get(key);
-		}
-		return def;
+		int index = mAttributes.find(key);
+		return index < 0 ? def : mAttributes.valueAt(index);
+	}
+
+	public boolean has(String key) {
+		return mAttributes.find(key) >= 0;
 	}
 
 	public Object getObject(String key) {
 		return get(key, null);
 	}
 
+	public int getInt(String key, int def) {
+		return (int)getLong(key, def);
+	}
+
 	public int getInt(String key) {
-		return (int)get(key, 0);
+		return getInt(key, 0);
+	}
+
+	public long getLong(String key, long def) {
+		int index = mAttributes.find(key);
+		if (index < 0) {
+			return def;
+		}
+		switch (mAttributes.typeAt(index)) {
+			case AttributeStore.TYPE_INT:
+			case AttributeStore.TYPE_LONG:
+			case AttributeStore.TYPE_SHORT:
+			case AttributeStore.TYPE_BYTE:
+				return mAttributes.longAt(index);
+			case AttributeStore.TYPE_FLOAT:
+			case AttributeStore.TYPE_DOUBLE:
+				return (long)mAttributes.doubleAt(index);
+			default:
+				Object o = mAttributes.objectAt(index);
+				return null == o ? def : ((Number)o).longValue();
+		}
 	}
 
 	public long getLong(String key) {
-		return (long)get(key, 0);
+		return getLong(key, 0);
+	}
+
+	public float getFloat(String key, float def) {
+		return (float)getDouble(key, def);
 	}
 
 	public float getFloat(String key) {
-		return (float)get(key, 0.0f);
+		return getFloat(key, 0.0f);
+	}
+
+	public double getDouble(String key, double def) {
+		int index = mAttributes.find(key);
+		if (index < 0) {
+			return def;
+		}
+		switch (mAttributes.typeAt(index)) {
+			case AttributeStore.TYPE_INT:
+			case AttributeStore.TYPE_LONG:
+			case AttributeStore.TYPE_SHORT:
+			case AttributeStore.TYPE_BYTE:
+				return mAttributes.longAt(index);
+			case AttributeStore.TYPE_FLOAT:
+			case AttributeStore.TYPE_DOUBLE:
+				return mAttributes.doubleAt(index);
+			default:
+				Object o = mAttributes.objectAt(index);
+				return null == o ? def : ((Number)o).doubleValue();
+		}
 	}
 
 	public double getDouble(String key) {
-		return (double)get(key, 0.0f);
+		return getDouble(key, 0.0);
 	}
 
 	public String getString(String key) {
@@ -56,8 +105,39 @@ public abstract class Listener {
         return (JSONObject)get(key, JSONObject.NULL);
     }
 
+	public void setInt(String key, int value) {
+		mAttributes.putLong(key, AttributeStore.TYPE_INT, value);
+	}
+
+	public void setLong(String key, long value) {
+		mAttributes.putLong(key, AttributeStore.TYPE_LONG, value);
+	}
+
+	public void setFloat(String key, float value) {
+		mAttributes.putDouble(key, AttributeStore.TYPE_FLOAT, value);
+	}
+
+	public void setDouble(String key, double value) {
+		mAttributes.putDouble(key, AttributeStore.TYPE_DOUBLE, value);
+	}
+
+	// boxed numbers are unboxed into the primitive slots, get and getObject box them back to the type that was set
 	public void set(String key, Object o) {
-		mObjectMap.put(key, o);
+		if (o instanceof Integer) {
+			setInt(key, (Integer)o);
+		} else if (o instanceof Short) {
+			mAttributes.putLong(key, AttributeStore.TYPE_SHORT, (Short)o);
+		} else if (o instanceof Byte) {
+			mAttributes.putLong(key, AttributeStore.TYPE_BYTE, (Byte)o);
+		} else if (o instanceof Long) {
+			setLong(key, (Long)o);
+		} else if (o instanceof Float) {
+			setFloat(key, (Float)o);
+		} else if (o instanceof Double) {
+			setDouble(key, (Double)o);
+		} else {
+			mAttributes.putObject(key, o);
+		}
 	}
 	
 	public abstract void onCallback(int what, Object param);
@@ -1,25 +1,10 @@
 package com.jaronho.sdk.library;
 
-import java.security.MessageDigest;
-
 public class MD5 {
 	public static String get(final String s) {
-		char hexDigits[] = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
-		try {
-			byte[] buffer = s.getBytes();
-			MessageDigest mdTemp = MessageDigest.getInstance("MD5");
-			mdTemp.update(buffer);
-			byte[] md = mdTemp.digest();
-			int j = md.length;
-			char str[] = new char[j * 2];
-			int k = 0;
-			for (byte byte0 : md) {
-				str[k++] = hexDigits[byte0 >>> 4 & 0xf];
-				str[k++] = hexDigits[byte0 & 0xf];
-			}
-			return new String(str);
-		} catch (Exception e) {
+		if (null == s) {
 			return null;
 		}
+		return Hash.toHex(Hash.hash(Hash.MD5, s.getBytes()), true);
 	}
 }
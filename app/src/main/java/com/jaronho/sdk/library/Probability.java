@@ -12,8 +12,10 @@ import java.util.List;
 public class Probability {
     private List<int[]> mWeightListInit = new ArrayList<>();
     private List<int[]> mWeightList = null;
-    private int mThreshold = 1;
-    private List<int[]> mWeightRange = null;
+    // alias table (Vose), column i yields mValues[i] with probability mProbs[i], else mValues[mAlias[i]]
+    private int[] mValues = new int[0];
+    private double[] mProbs = new double[0];
+    private int[] mAlias = new int[0];
     private RandomHandler mRandomHandler = null;
 
     public abstract static class RandomHandler {
@@ -45,50 +47,104 @@ public class Probability {
         this(new ArrayList<int[]>(), null);
     }
 
-    // 获取随机值
-    private int random(int min, int max) {
-        double randomValue = null == mRandomHandler ? Math.random() : mRandomHandler.random();
-        return (int)(randomValue * (max - min) + min + 0.5f);
+    private double random() {
+        return null == mRandomHandler ? Math.random() : mRandomHandler.random();
     }
 
-    // 解析权重列表
+    // 解析权重列表,构建别名表,O(n)
     private void parseWeightList() {
-        for (int index = 0, count = mWeightList.size(); index < count; ++index) {
-            int randIndex = random(0, index);
-            if (randIndex != index) {
-                int[] temp = mWeightList.get(randIndex);
-                mWeightList.set(randIndex, mWeightList.get(index));
-                mWeightList.set(index, temp);
+        int count = 0;
+        long totalWeight = 0;
+        for (int i = 0, len = mWeightList.size(); i < len; ++i) {
+            int weight = mWeightList.get(i)[1];
+            if (weight > 0) {
+                ++count;
+                totalWeight += weight;
             }
         }
-        mThreshold = 1;
-        mWeightRange = new ArrayList<>();
-        for (int i = 0, len = mWeightList.size(); i < len; ++i) {
+        int[] values = new int[count];
+        double[] probs = new double[count];
+        int[] alias = new int[count];
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0, j = 0, len = mWeightList.size(); i < len; ++i) {
             int[] factor = mWeightList.get(i);
-            int value = factor[0];
-            int weight = factor[1];
-            mWeightRange.add(new int[]{value, mThreshold, mThreshold + weight - 1});    // [0].value,[1].begin,[2].end
-            mThreshold += weight;
+            if (factor[1] > 0) {
+                values[j] = factor[0];
+                probs[j] = (double)factor[1] * count / totalWeight;
+                if (probs[j] < 1) {
+                    small[smallCount++] = j;
+                } else {
+                    large[largeCount++] = j;
+                }
+                ++j;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            alias[s] = l;
+            probs[l] = (probs[l] + probs[s]) - 1;
+            if (probs[l] < 1) {
+                small[smallCount++] = l;
+            } else {
+                large[largeCount++] = l;
+            }
+        }
+        // 剩余列的概率只因浮点误差偏离1
+        while (largeCount > 0) {
+            probs[large[--largeCount]] = 1;
         }
+        while (smallCount > 0) {
+            probs[small[--smallCount]] = 1;
+        }
+        mValues = values;
+        mProbs = probs;
+        mAlias = alias;
     }
 
     /**
-     * 功  能: 根据权重获取随机值
+     * 功  能: 根据权重获取随机值,O(1)
      * 参  数: 无
-     * 返回值: int
+     * 返回值: int,没有权重>0的值时返回-1
      */
     public int getValue() {
-        if (1 == mThreshold) {
+        int count = mValues.length;
+        if (0 == count) {
             return -1;
         }
-        int index = random(1, mThreshold - 1);
-        for (int i = 0, len = mWeightRange.size(); i < len; ++i) {
-            int[] range = mWeightRange.get(i);
-            if (index >= range[1] && index <= range[2]) {
-                return range[0];
+        double u = random() * count;
+        int column = (int)u;
+        if (column >= count) {
+            column = count - 1;
+        }
+        return u - column < mProbs[column] ? mValues[column] : mValues[mAlias[column]];
+    }
+
+    /**
+     * 功  能: 根据权重批量获取随机值
+     * 参  数: n - 个数
+     *         out - 随机值,长度>=n
+     * 返回值: 无
+     */
+    public void getValues(int n, int[] out) {
+        int[] values = mValues;
+        double[] probs = mProbs;
+        int[] alias = mAlias;
+        int count = values.length;
+        for (int i = 0; i < n; ++i) {
+            if (0 == count) {
+                out[i] = -1;
+                continue;
+            }
+            double u = random() * count;
+            int column = (int)u;
+            if (column >= count) {
+                column = count - 1;
             }
+            out[i] = u - column < probs[column] ? values[column] : values[alias[column]];
         }
-        return -1;
     }
 
     /**
@@ -107,7 +163,7 @@ public class Probability {
     }
 
     /**
-     * 功  能: 设置权重
+     * 功  能: 设置权重,重建别名表,O(n),权重频繁变化时使用DynamicProbability
      * 参  数: value - 值
      *         weight - 权重(必须>=0)
      * 返回值: 无
@@ -0,0 +1,378 @@
+package com.jaronho.sdk.library;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   SpatialGrid, 均匀网格空间索引,存储矩形,圆,三角形,点查询和范围查询只访问相关格子,
+ *          格子按需创建,坐标须为有限值(NaN和无穷大抛出AssertionError),非线程安全
+ */
+
+public class SpatialGrid<T> {
+    private static final int TYPE_RECT = 1;
+    private static final int TYPE_CIRCLE = 2;
+    private static final int TYPE_TRIANGLE = 3;
+
+    private static class Shape<T> {
+        public final T key;
+        public int type = 0;
+        public final float[] args = new float[6];
+        public float minX, minY, maxX, maxY;            // 包围盒
+        public int cellX0, cellY0, cellX1, cellY1;      // 占用的格子范围
+        public int stamp = 0;                           // 范围查询去重
+
+        public Shape(T key) {
+            this.key = key;
+        }
+    }
+
+    private final float mCellSize;
+    private final HashMap<Long, ArrayList<Shape<T>>> mCellMap = new HashMap<>();
+    private final HashMap<T, Shape<T>> mShapeMap = new HashMap<>();
+    private int mStamp = 0;
+
+    /**
+     * 功  能: 构造函数
+     * 参  数: cellSize - 格子边长,一般取形状平均尺寸的1到2倍
+     * 返回值: 无
+     */
+    public SpatialGrid(float cellSize) {
+        if (!(cellSize > 0)) {
+            throw new AssertionError("cellSize <= 0");
+        }
+        mCellSize = cellSize;
+    }
+
+    /**
+     * 功  能: 形状个数
+     * 参  数: 无
+     * 返回值: int
+     */
+    public int size() {
+        return mShapeMap.size();
+    }
+
+    /**
+     * 功  能: 是否包含形状
+     * 参  数: key - 形状标识
+     * 返回值: boolean
+     */
+    public boolean contains(T key) {
+        return mShapeMap.containsKey(key);
+    }
+
+    /**
+     * 功  能: 插入矩形,key已存在时更新为新形状
+     * 参  数: key - 形状标识
+     *         rectX - 矩形的x坐标
+     *         rectY - 矩形的y坐标
+     *         rectW - 矩形的宽
+     *         rectH - 矩形的高
+     * 返回值: 无
+     */
+    public void putRect(T key, float rectX, float rectY, float rectW, float rectH) {
+        float maxX = rectX + rectW, maxY = rectY + rectH;
+        checkFinite(rectX, rectY, maxX, maxY);
+        Shape<T> shape = obtain(key);
+        shape.type = TYPE_RECT;
+        setArgs(shape, rectX, rectY, rectW, rectH, 0, 0);
+        place(shape, rectX, rectY, maxX, maxY);
+    }
+
+    /**
+     * 功  能: 插入圆,key已存在时更新为新形状
+     * 参  数: key - 形状标识
+     *         cX - 圆心x坐标
+     *         cY - 圆心y坐标
+     *         r - 半径
+     * 返回值: 无
+     */
+    public void putCircle(T key, float cX, float cY, float r) {
+        float absR = Math.abs(r);
+        checkFinite(cX - absR, cY - absR, cX + absR, cY + absR);
+        Shape<T> shape = obtain(key);
+        shape.type = TYPE_CIRCLE;
+        setArgs(shape, cX, cY, r, 0, 0, 0);
+        place(shape, cX - absR, cY - absR, cX + absR, cY + absR);
+    }
+
+    /**
+     * 功  能: 插入三角形,key已存在时更新为新形状
+     * 参  数: key - 形状标识
+     *         aX - 三角形点A的x坐标
+     *         aY - 三角形点A的y坐标
+     *         bX - 三角形点B的x坐标
+     *         bY - 三角形点B的y坐标
+     *         cX - 三角形点C的x坐标
+     *         cY - 三角形点C的y坐标
+     * 返回值: 无
+     */
+    public void putTriangle(T key, float aX, float aY, float bX, float bY, float cX, float cY) {
+        float minX = Math.min(aX, Math.min(bX, cX)), minY = Math.min(aY, Math.min(bY, cY));
+        float maxX = Math.max(aX, Math.max(bX, cX)), maxY = Math.max(aY, Math.max(bY, cY));
+        checkFinite(minX, minY, maxX, maxY);
+        Shape<T> shape = obtain(key);
+        shape.type = TYPE_TRIANGLE;
+        setArgs(shape, aX, aY, bX, bY, cX, cY);
+        place(shape, minX, minY, maxX, maxY);
+    }
+
+    /**
+     * 功  能: 平移形状,未跨越格子时只更新坐标
+     * 参  数: key - 形状标识
+     *         dx - x方向偏移
+     *         dy - y方向偏移
+     * 返回值: boolean,形状是否存在
+     */
+    public boolean move(T key, float dx, float dy) {
+        Shape<T> shape = mShapeMap.get(key);
+        if (null == shape) {
+            return false;
+        }
+        checkFinite(shape.minX + dx, shape.minY + dy, shape.maxX + dx, shape.maxY + dy);
+        float[] args = shape.args;
+        args[0] += dx;
+        args[1] += dy;
+        if (TYPE_TRIANGLE == shape.type) {
+            args[2] += dx;
+            args[3] += dy;
+            args[4] += dx;
+            args[5] += dy;
+        }
+        place(shape, shape.minX + dx, shape.minY + dy, shape.maxX + dx, shape.maxY + dy);
+        return true;
+    }
+
+    /**
+     * 功  能: 移除形状
+     * 参  数: key - 形状标识
+     * 返回值: boolean,形状是否存在
+     */
+    public boolean remove(T key) {
+        Shape<T> shape = mShapeMap.remove(key);
+        if (null == shape) {
+            return false;
+        }
+        unlink(shape);
+        return true;
+    }
+
+    /**
+     * 功  能: 清空
+     * 参  数: 无
+     * 返回值: 无
+     */
+    public void clear() {
+        mCellMap.clear();
+        mShapeMap.clear();
+    }
+
+    /**
+     * 功  能: 点查询,只检查点所在格子里的形状
+     * 参  数: x - 点x坐标
+     *         y - 点y坐标
+     *         out - 包含该点的形状标识
+     * 返回值: int,命中个数
+     */
+    public int query(float x, float y, List<T> out) {
+        checkFinite(x, y, x, y);
+        ArrayList<Shape<T>> cell = mCellMap.get(cellKey(cellOf(x), cellOf(y)));
+        if (null == cell) {
+            return 0;
+        }
+        int hits = 0;
+        for (int i = 0, len = cell.size(); i < len; ++i) {
+            Shape<T> shape = cell.get(i);
+            if (hitTest(shape, x, y)) {
+                out.add(shape.key);
+                ++hits;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 功  能: 点查询,返回最后插入的命中形状
+     * 参  数: x - 点x坐标
+     *         y - 点y坐标
+     * 返回值: T,未命中返回null
+     */
+    public T queryFirst(float x, float y) {
+        checkFinite(x, y, x, y);
+        ArrayList<Shape<T>> cell = mCellMap.get(cellKey(cellOf(x), cellOf(y)));
+        if (null != cell) {
+            for (int i = cell.size() - 1; i >= 0; --i) {
+                Shape<T> shape = cell.get(i);
+                if (hitTest(shape, x, y)) {
+                    return shape.key;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 功  能: 范围查询,返回包围盒与矩形区域相交的形状,区域覆盖的格子多于已占用的格子时改为遍历已占用的格子
+     * 参  数: rectX - 矩形的x坐标
+     *         rectY - 矩形的y坐标
+     *         rectW - 矩形的宽
+     *         rectH - 矩形的高
+     *         out - 形状标识
+     * 返回值: int,命中个数
+     */
+    public int queryRange(float rectX, float rectY, float rectW, float rectH, List<T> out) {
+        float maxX = rectX + rectW;
+        float maxY = rectY + rectH;
+        checkFinite(rectX, rectY, maxX, maxY);
+        int cellX0 = cellOf(rectX), cellY0 = cellOf(rectY), cellX1 = cellOf(maxX), cellY1 = cellOf(maxY);
+        if (cellX0 > cellX1 || cellY0 > cellY1) {
+            return 0;
+        }
+        int stamp = ++mStamp;
+        int hits = 0;
+        double cellCount = ((double)cellX1 - cellX0 + 1) * ((double)cellY1 - cellY0 + 1);     // long may overflow
+        if (cellCount > mCellMap.size()) {
+            for (Map.Entry<Long, ArrayList<Shape<T>>> entry : mCellMap.entrySet()) {
+                long key = entry.getKey();
+                int cx = (int)(key >> 32), cy = (int)key;
+                if (cx >= cellX0 && cx <= cellX1 && cy >= cellY0 && cy <= cellY1) {
+                    hits += collect(entry.getValue(), stamp, rectX, rectY, maxX, maxY, out);
+                }
+            }
+            return hits;
+        }
+        for (int cx = cellX0; cx <= cellX1; ++cx) {
+            for (int cy = cellY0; cy <= cellY1; ++cy) {
+                ArrayList<Shape<T>> cell = mCellMap.get(cellKey(cx, cy));
+                if (null != cell) {
+                    hits += collect(cell, stamp, rectX, rectY, maxX, maxY, out);
+                }
+            }
+        }
+        return hits;
+    }
+
+    // 格子中包围盒与区域相交且本次查询未访问过的形状
+    private int collect(ArrayList<Shape<T>> cell, int stamp, float minX, float minY, float maxX, float maxY, List<T> out) {
+        int hits = 0;
+        for (int i = 0, len = cell.size(); i < len; ++i) {
+            Shape<T> shape = cell.get(i);
+            if (stamp == shape.stamp) {
+                continue;
+            }
+            shape.stamp = stamp;
+            if (shape.minX <= maxX && shape.maxX >= minX && shape.minY <= maxY && shape.maxY >= minY) {
+                out.add(shape.key);
+                ++hits;
+            }
+        }
+        return hits;
+    }
+
+    private Shape<T> obtain(T key) {
+        Shape<T> shape = mShapeMap.get(key);
+        if (null == shape) {
+            shape = new Shape<>(key);
+            shape.cellX0 = 1;       // 空范围,尚未放入格子
+            shape.cellX1 = 0;
+            mShapeMap.put(key, shape);
+        }
+        return shape;
+    }
+
+    private static void setArgs(Shape<?> shape, float a0, float a1, float a2, float a3, float a4, float a5) {
+        float[] args = shape.args;
+        args[0] = a0;
+        args[1] = a1;
+        args[2] = a2;
+        args[3] = a3;
+        args[4] = a4;
+        args[5] = a5;
+    }
+
+    // 更新包围盒,格子范围不变时不改动格子
+    private void place(Shape<T> shape, float minX, float minY, float maxX, float maxY) {
+        shape.minX = minX;
+        shape.minY = minY;
+        shape.maxX = maxX;
+        shape.maxY = maxY;
+        int cellX0 = cellOf(minX), cellY0 = cellOf(minY), cellX1 = cellOf(maxX), cellY1 = cellOf(maxY);
+        if (cellX0 == shape.cellX0 && cellY0 == shape.cellY0 && cellX1 == shape.cellX1 && cellY1 == shape.cellY1) {
+            return;
+        }
+        unlink(shape);
+        shape.cellX0 = cellX0;
+        shape.cellY0 = cellY0;
+        shape.cellX1 = cellX1;
+        shape.cellY1 = cellY1;
+        for (int cx = cellX0; cx <= cellX1; ++cx) {
+            for (int cy = cellY0; cy <= cellY1; ++cy) {
+                Long key = cellKey(cx, cy);
+                ArrayList<Shape<T>> cell = mCellMap.get(key);
+                if (null == cell) {
+                    cell = new ArrayList<>(4);
+                    mCellMap.put(key, cell);
+                }
+                cell.add(shape);
+            }
+        }
+    }
+
+    private void unlink(Shape<T> shape) {
+        for (int cx = shape.cellX0; cx <= shape.cellX1; ++cx) {
+            for (int cy = shape.cellY0; cy <= shape.cellY1; ++cy) {
+                Long key = cellKey(cx, cy);
+                ArrayList<Shape<T>> cell = mCellMap.get(key);
+                if (null == cell) {
+                    continue;
+                }
+                cell.remove(shape);
+                if (cell.isEmpty()) {
+                    mCellMap.remove(key);
+                }
+            }
+        }
+    }
+
+    private static boolean hitTest(Shape<?> shape, float x, float y) {
+        if (x < shape.minX || x > shape.maxX || y < shape.minY || y > shape.maxY) {
+            return false;
+        }
+        float[] args = shape.args;
+        switch (shape.type) {
+            case TYPE_RECT:
+                return Formula.isPointInRect(args[0], args[1], args[2], args[3], x, y);
+            case TYPE_CIRCLE:
+                return Formula.isPointInCircle(args[0], args[1], args[2], x, y);
+            case TYPE_TRIANGLE:
+                return Formula.isPointInTriangle(args[0], args[1], args[2], args[3], args[4], args[5], x, y);
+            default:
+                return false;
+        }
+    }
+
+    // 限制在int范围内且不取到边界值,遍历格子的循环变量不会溢出
+    private int cellOf(float v) {
+        double cell = Math.floor(v / mCellSize);
+        return (int)Math.max(Integer.MIN_VALUE + 1, Math.min(Integer.MAX_VALUE - 1, cell));
+    }
+
+    // NaN或无穷大会使格子范围失效,修改形状前检查
+    private static void checkFinite(float minX, float minY, float maxX, float maxY) {
+        if (!isFinite(minX) || !isFinite(minY) || !isFinite(maxX) || !isFinite(maxY)) {
+            throw new AssertionError("coordinate is not finite: " + minX + ", " + minY + ", " + maxX + ", " + maxY);
+        }
+    }
+
+    private static boolean isFinite(float v) {
+        return !Float.isNaN(v) && !Float.isInfinite(v);
+    }
+
+    private static Long cellKey(int cellX, int cellY) {
+        return ((long)cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
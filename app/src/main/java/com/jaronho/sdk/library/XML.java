@@ -1,31 +1,213 @@
 package com.jaronho.sdk.library;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Text;
 import org.xml.sax.SAXException;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   XML, 基于XmlPullParser的流式读取,不构建DOM,一次解析读取多个标签,全部找到后提前结束,
+ *          解析器每个线程复用一个,内存占用与文档大小无关
+ */
 
 public class XML {
-	
+	private static final int MAX_CACHED_KEY_SETS = 64;
+	private static final ConcurrentHashMap<String, KeySet> mKeySetCache = new ConcurrentHashMap<>();
+	private static final ThreadLocal<XmlPullParser> mParser = new ThreadLocal<XmlPullParser>() {
+		@Override
+		protected XmlPullParser initialValue() {
+			return newParser();
+		}
+	};
+
+	// 不处理命名空间,标签名含前缀,与DOM(DocumentBuilderFactory默认配置)一致,未声明的前缀也不报错
+	private static XmlPullParser newParser() {
+		try {
+			XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
+			factory.setNamespaceAware(false);
+			XmlPullParser parser = factory.newPullParser();
+			try {
+				parser.setFeature(XmlPullParser.FEATURE_PROCESS_DOCDECL, true);
+			} catch (XmlPullParserException e) {
+				// 解析器不支持时,DOCTYPE中声明的实体不可用
+			}
+			return parser;
+		} catch (XmlPullParserException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * 编译后的标签集合,不可变,可跨线程共享
+	 */
+	public static final class KeySet {
+		private final String[] mKeys;
+		private final HashMap<String, Integer> mIndexMap = new HashMap<>();
+
+		private KeySet(String[] keys) {
+			mKeys = keys.clone();
+			for (int i = 0; i < mKeys.length; ++i) {
+				if (null != mIndexMap.put(mKeys[i], i)) {
+					throw new AssertionError("duplicate key " + mKeys[i]);
+				}
+			}
+		}
+
+		public int size() {
+			return mKeys.length;
+		}
+
+		public String getKey(int index) {
+			return mKeys[index];
+		}
+
+		private int indexOf(String key) {
+			Integer index = mIndexMap.get(key);
+			return null == index ? -1 : index;
+		}
+	}
+
+	/**
+	 * 功  能: 编译标签集合,相同标签列表返回缓存的实例
+	 * 参  数: keys - 标签名,不可重复
+	 * 返回值: KeySet
+	 */
+	public static KeySet compile(String... keys) {
+		StringBuilder sb = new StringBuilder();
+		for (String key : keys) {
+			sb.append(key).append('\u0000');
+		}
+		String cacheKey = sb.toString();
+		KeySet keySet = mKeySetCache.get(cacheKey);
+		if (null == keySet) {
+			keySet = new KeySet(keys);
+			if (mKeySetCache.size() < MAX_CACHED_KEY_SETS) {
+				mKeySetCache.putIfAbsent(cacheKey, keySet);
+			}
+		}
+		return keySet;
+	}
+
+	/**
+	 * 功  能: 读取根节点下唯一标签的文本,标签不存在或多于一个时返回null,根节点本身不匹配,与DOM的getElementsByTagName一致,
+	 *         实体和CDATA按DOM展开;以下情况与DOM不同:标签为空或以子标签开头时返回""(DOM抛出异常),
+	 *         文本中夹有CDATA或注释时返回子标签前的全部文本(DOM只返回第一个文本节点)
+	 * 参  数: content - xml内容
+	 *         key - 标签名
+	 * 返回值: String
+	 */
 	public static String read(String content, String key) throws SAXException, IOException, ParserConfigurationException {
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		DocumentBuilder db = dbf.newDocumentBuilder();
-		Document doc = db.parse(new ByteArrayInputStream(content.getBytes()));
-		Element root = doc.getDocumentElement();
-		NodeList nodes = root.getElementsByTagName(key);
-		if (1 == nodes.getLength()) {
-			Element e = (Element)nodes.item(0);
-			Text t = (Text)e.getFirstChild();
-			return t.getNodeValue();
-		}
-		return null;
+		XmlPullParser parser = mParser.get();
+		try {
+			parser.setInput(new StringReader(content));
+			return scan(parser, compile(key), true)[0];
+		} catch (XmlPullParserException e) {
+			throw new SAXException(e);
+		} finally {
+			release(parser);
+		}
+	}
+
+	/**
+	 * 功  能: 一次解析读取多个标签的文本,取每个标签第一次出现的值,全部找到后停止解析
+	 * 参  数: reader - xml内容
+	 *         keySet - 标签集合
+	 * 返回值: String[],与keySet下标对应,未找到为null
+	 */
+	public static String[] read(Reader reader, KeySet keySet) throws XmlPullParserException, IOException {
+		XmlPullParser parser = mParser.get();
+		try {
+			parser.setInput(reader);
+			return scan(parser, keySet, false);
+		} finally {
+			release(parser);
+		}
+	}
+
+	/**
+	 * 功  能: 一次解析读取多个标签的文本,取每个标签第一次出现的值,全部找到后停止解析
+	 * 参  数: in - xml内容
+	 *         encoding - 编码,为null时由解析器检测
+	 *         keySet - 标签集合
+	 * 返回值: String[],与keySet下标对应,未找到为null
+	 */
+	public static String[] read(InputStream in, String encoding, KeySet keySet) throws XmlPullParserException, IOException {
+		XmlPullParser parser = mParser.get();
+		try {
+			parser.setInput(in, encoding);
+			return scan(parser, keySet, false);
+		} finally {
+			release(parser);
+		}
+	}
+
+	public static String[] read(String content, KeySet keySet) throws XmlPullParserException, IOException {
+		return read(new StringReader(content), keySet);
+	}
+
+	public static String[] read(String content, String... keys) throws XmlPullParserException, IOException {
+		return read(new StringReader(content), compile(keys));
+	}
+
+	// unique: 与DOM的getElementsByTagName一致,解析整个文档,出现多次的标签返回null
+	private static String[] scan(XmlPullParser parser, KeySet keySet, boolean unique) throws XmlPullParserException, IOException {
+		String[] values = new String[keySet.size()];
+		int[] counts = unique ? new int[keySet.size()] : null;
+		int remain = keySet.size();
+		int index = -1;     // 正在读取文本的标签下标
+		StringBuilder text = new StringBuilder();
+		for (int eventType = parser.getEventType(); XmlPullParser.END_DOCUMENT != eventType; eventType = parser.next()) {
+			if (XmlPullParser.START_TAG == eventType) {
+				if (index >= 0) {
+					index = finish(values, index, text);
+					if (0 == --remain && !unique) {
+						break;
+					}
+				}
+				// 根节点本身不参与匹配
+				int i = parser.getDepth() > 1 ? keySet.indexOf(parser.getName()) : -1;
+				if (i >= 0) {
+					if (unique && ++counts[i] > 1) {
+						values[i] = null;
+					} else if (null == values[i]) {
+						index = i;
+						text.setLength(0);
+					}
+				}
+			} else if (index >= 0 && (XmlPullParser.TEXT == eventType || XmlPullParser.CDSECT == eventType)) {
+				text.append(parser.getText());
+			} else if (index >= 0 && XmlPullParser.END_TAG == eventType) {
+				index = finish(values, index, text);
+				if (0 == --remain && !unique) {
+					break;
+				}
+			}
+		}
+		return values;
+	}
+
+	// 线程复用的解析器不再引用输入,避免文档在解析后仍被持有
+	private static void release(XmlPullParser parser) {
+		try {
+			parser.setInput((Reader)null);
+		} catch (XmlPullParserException e) {
+			// 解除输入失败不影响已读取的结果
+		}
+	}
+
+	private static int finish(String[] values, int index, StringBuilder text) {
+		values[index] = text.toString();
+		return -1;
 	}
 }
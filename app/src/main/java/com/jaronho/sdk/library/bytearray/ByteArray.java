@@ -2,6 +2,7 @@ package com.jaronho.sdk.library.bytearray;
 
 import android.util.Log;
 
+import java.nio.charset.Charset;
 import java.util.Arrays;
 
 /**
@@ -12,16 +13,25 @@ import java.util.Arrays;
 
 public class ByteArray {
     private static final int MAX_MSG_SIZE = 1024 * 1024;    // 单个网络消息最大长度(超过极易导致物理服务器收发队列阻塞)
+    private static final int DEFAULT_SIZE = 256;            // 可增长字节流的初始大小
+    private static final Charset UTF8 = Charset.forName("UTF-8");
     private byte[] mContent;            // 字节流内容
+    private int mOffset;                // 内容起始位置(包装已有字节数组时可能不为0)
     private int mTotalSize;             // 字节流允许大小
     private int mReadIndex;             // 读取位置
     private int mWriteIndex;            // 写入位置
+    private boolean mGrowable;          // 是否按需增长(最大不超过MAX_MSG_SIZE)
+    private boolean mView;              // 是否为wrap包装的视图(内容属于外部数组,只读,不清零)
+    private ByteArrayPool mPool;        // 缓冲区所属缓存池,为null时不回收
+    private boolean mReadOverflow;      // 读取越界(超出字节流,变长整型不完整或长度前缀超出剩余内容)
 
     /**
      * 功  能: 大小端转换(短整型数字转为短整型数字)
      * 参  数: x - 短整型数字
      * 返回值: short
+     * 说  明: 已废弃,需要其他字节序时请使用NioByteArray.setOrder()
      */
+    @Deprecated
     public static short swab16(short x) {
         return (short)(((x & 0x00FF) << 8) | ((x & 0xFF00) >> 8));
     }
@@ -30,7 +40,9 @@ public class ByteArray {
      * 功  能: 大小端转换(字节流转为短整型数字)
      * 参  数: buf - 字节流
      * 返回值: short
+     * 说  明: 已废弃,需要其他字节序时请使用NioByteArray.setOrder()
      */
+    @Deprecated
     public static short swab16_array(byte[] buf) {
         return (short)((buf[0] << 8) | buf[1]);
     }
@@ -39,7 +51,9 @@ public class ByteArray {
      * 功  能: 大小端转换(整型数字转为整型数字)
      * 参  数: x - 整型数字
      * 返回值: int
+     * 说  明: 已废弃,需要其他字节序时请使用NioByteArray.setOrder()
      */
+    @Deprecated
     public static int swab32(int x) {
         return (((x & 0x000000FF) << 24) | ((x & 0x0000FF00) << 8) | ((x & 0x00FF0000) >> 8) | ((x & 0xFF000000) >> 24));
     }
@@ -48,7 +62,9 @@ public class ByteArray {
      * 功  能: 大小端转换(字节流转为整型数字)
      * 参  数: buf - 字节流
      * 返回值: int
+     * 说  明: 已废弃,需要其他字节序时请使用NioByteArray.setOrder()
      */
+    @Deprecated
     public static int swab32_array(byte[] buf) {
         return ((buf[0] << 24) | (buf[1] << 16) | (buf[2] << 8) | buf[3]);
     }
@@ -62,17 +78,64 @@ public class ByteArray {
         return MAX_MSG_SIZE;
     };
 
-    public ByteArray(int size) {
+    /**
+     * 功  能: 从缓存池获取可增长的字节流,使用完毕后调用recycle()归还
+     * 参  数: size - 初始大小
+     *         pool - 缓存池
+     * 返回值: ByteArray
+     */
+    public static ByteArray obtain(int size, ByteArrayPool pool) {
         if (size <= 0 || size > MAX_MSG_SIZE) {
-            size = MAX_MSG_SIZE;
+            size = DEFAULT_SIZE;
         }
-        mContent = new byte[size];
-        for (int i = 0; i < size; ++i) {
-            mContent[i] = 0;
+        return new ByteArray(pool.acquire(size), true, pool);
+    }
+
+    /**
+     * 功  能: 从默认缓存池获取可增长的字节流,使用完毕后调用recycle()归还
+     * 参  数: size - 初始大小
+     * 返回值: ByteArray
+     */
+    public static ByteArray obtain(int size) {
+        return obtain(size, ByteArrayPool.getInstance());
+    }
+
+    /**
+     * 功  能: 包装已有字节数组的[offset, offset + len)部分为只读字节流(不拷贝,与content共享内容,写入抛出AssertionError)
+     * 参  数: content - 字节数组
+     *         offset - 起始位置
+     *         len - 长度
+     * 返回值: ByteArray
+     */
+    public static ByteArray wrap(byte[] content, int offset, int len) {
+        if (offset < 0 || len < 0 || offset + len > content.length) {
+            throw new AssertionError("offset " + offset + " and len " + len + " out of range " + content.length);
         }
-        mTotalSize = size;
+        ByteArray ba = new ByteArray(content, false, null);
+        ba.mView = true;
+        ba.mOffset = offset;
+        ba.mTotalSize = offset + len;
+        ba.mReadIndex = offset;
+        ba.mWriteIndex = offset + len;
+        return ba;
+    }
+
+    private ByteArray(byte[] content, boolean growable, ByteArrayPool pool) {
+        mContent = content;
+        mTotalSize = content.length;
         mReadIndex = 0;
         mWriteIndex = 0;
+        mGrowable = growable;
+        mPool = pool;
+    }
+
+    public ByteArray(int size) {
+        this(new byte[size <= 0 || size > MAX_MSG_SIZE ? MAX_MSG_SIZE : size], false, null);
+    }
+
+    // 可增长的字节流,初始大小为DEFAULT_SIZE
+    public ByteArray() {
+        this(new byte[DEFAULT_SIZE], true, null);
     }
 
     /**
@@ -88,16 +151,34 @@ public class ByteArray {
     }
 
     /**
-     * 功  能: 清空,重新使用当前字节流
+     * 功  能: 清空,重新使用当前字节流(wrap包装的视图只重置读写位置,不清零外部数组)
      * 参  数: 无
      * 返回值: 无
      */
     public void reuse() {
-        for (int i = 0; i < mTotalSize; ++i) {
-            mContent[i] = 0;
+        if (!mView) {
+            Arrays.fill(mContent, mOffset, mWriteIndex, (byte)0);
+        }
+        mReadIndex = mOffset;
+        mWriteIndex = mOffset;
+        mReadOverflow = false;
+    }
+
+    /**
+     * 功  能: 将缓冲区归还到缓存池,调用后不可再使用当前字节流
+     * 参  数: 无
+     * 返回值: 无
+     */
+    public void recycle() {
+        if (null != mPool && null != mContent) {
+            mPool.release(mContent, mWriteIndex);
         }
+        mContent = null;
+        mOffset = 0;
+        mTotalSize = 0;
         mReadIndex = 0;
         mWriteIndex = 0;
+        mReadOverflow = false;
     }
 
     /**
@@ -106,7 +187,7 @@ public class ByteArray {
      * 返回值: int
      */
     public int getTotalLength() {
-        return mTotalSize;
+        return mTotalSize - mOffset;
     }
 
     /**
@@ -127,6 +208,16 @@ public class ByteArray {
         return mTotalSize - mWriteIndex;
     }
 
+    /**
+     * 功  能: 是否读取越界(读取位置超出已写入的内容,变长整型不完整,或长度前缀超出剩余内容),
+     *         越界的读取返回0或空值,不抛出异常,标记保持到reuse或setContent,用于一次检查一组读取是否完整
+     * 参  数: 无
+     * 返回值: boolean
+     */
+    public boolean isReadOverflow() {
+        return mReadOverflow || mReadIndex > mWriteIndex;
+    }
+
     /**
      * 功  能: 获取字节流内容
      * 参  数: 无
@@ -143,17 +234,16 @@ public class ByteArray {
      * 返回值: boolean
      */
     public boolean setContent(final byte[] content, int len) {
-        if (len > mTotalSize) {
+        checkWritable();
+        if (mOffset + len > mTotalSize && !grow(len)) {
             return false;
         }
-        for (int i = 0; i < mTotalSize; ++i) {
-            if (i < len) {
-                mContent[i] = content[i];
-            } else {
-                mContent[i] = 0;
-            }
+        System.arraycopy(content, 0, mContent, mOffset, len);
+        if (mWriteIndex > mOffset + len) {
+            Arrays.fill(mContent, mOffset + len, mWriteIndex, (byte)0);
         }
-        mWriteIndex = len;
+        mWriteIndex = mOffset + len;
+        mReadOverflow = false;
         return true;
     }
 
@@ -163,8 +253,8 @@ public class ByteArray {
      * 返回值: boolean
      */
     public boolean read_bool() {
-        byte[] p = read(1);
-        return null != p && 0x01 == p[0];
+        int index = readIndex(1);
+        return -1 != index && 0x01 == mContent[index];
     }
 
     /**
@@ -187,11 +277,11 @@ public class ByteArray {
      * 返回值: byte
      */
     public byte read_byte() {
-        byte[] p = read(1);
-        if (null == p) {
+        int index = readIndex(1);
+        if (-1 == index) {
             return 0;
         }
-        return p[0];
+        return mContent[index];
     }
 
     /**
@@ -214,11 +304,11 @@ public class ByteArray {
      * 返回值: byte
      */
     public char read_char() {
-        byte[] p = read(2);
-        if (null == p) {
+        int index = readIndex(2);
+        if (-1 == index) {
             return 0;
         }
-        return (char)(p[0] | (p[1] << 8));
+        return (char)getInt16(index);
     }
 
     /**
@@ -242,11 +332,11 @@ public class ByteArray {
      * 返回值: short
      */
     public short read_int16() {
-        byte[] p = read(2);
-        if (null == p) {
+        int index = readIndex(2);
+        if (-1 == index) {
             return 0;
         }
-        return (short)(p[0] | (p[1] << 8));
+        return getInt16(index);
     }
 
     /**
@@ -270,11 +360,11 @@ public class ByteArray {
      * 返回值: int
      */
     public int read_int() {
-        byte[] p = read(4);
-        if (null == p) {
+        int index = readIndex(4);
+        if (-1 == index) {
             return 0;
         }
-        return p[0] | (p[1] << 8) | (p[2] << 16) | (p[3] << 24);
+        return getInt32(index);
     }
 
     /**
@@ -300,12 +390,11 @@ public class ByteArray {
      * 返回值: long
      */
     public long read_long() {
-        byte[] p = read(8);
-        if (null == p) {
+        int index = readIndex(8);
+        if (-1 == index) {
             return 0;
         }
-        return (long)p[0] | ((long)p[1] << 8) | ((long)p[2] << 16) | ((long)p[3] << 24)
-                | ((long)p[4] << 32) | ((long)p[5] << 40) | ((long)p[6] << 48) | ((long)p[7] << 56);
+        return getInt64(index);
     }
 
     /**
@@ -335,12 +424,11 @@ public class ByteArray {
      * 返回值: float
      */
     public float read_float() {
-        byte[] p = read(4);
-        if (null == p) {
+        int index = readIndex(4);
+        if (-1 == index) {
             return 0;
         }
-        int r = p[0] | (p[1] << 8) | (p[2] << 16) | (p[3] << 24);
-        return Float.intBitsToFloat(r);
+        return Float.intBitsToFloat(getInt32(index));
     }
 
     /**
@@ -354,10 +442,10 @@ public class ByteArray {
             return false;
         }
         int w = Float.floatToIntBits(value);
-        for (int i = 0; i < 4; ++i) {
-            mContent[index + i] = Float.valueOf(w).byteValue();
-            w = w >> 8;
-        }
+        mContent[index] = (byte)w;
+        mContent[index + 1] = (byte)(w >> 8);
+        mContent[index + 2] = (byte)(w >> 16);
+        mContent[index + 3] = (byte)(w >> 24);
         return true;
     }
 
@@ -367,13 +455,11 @@ public class ByteArray {
      * 返回值: double
      */
     public double read_double() {
-        byte[] p = read(4);
-        if (null == p) {
+        int index = readIndex(8);
+        if (-1 == index) {
             return 0;
         }
-        long r = (long)p[0] | ((long)p[1] << 8) | ((long)p[2] << 16) | ((long)p[3] << 24)
-                | ((long)p[4] << 32) | ((long)p[5] << 40) | ((long)p[6] << 48) | ((long)p[7] << 56);
-        return Double.longBitsToDouble(r);
+        return Double.longBitsToDouble(getInt64(index));
     }
 
     /**
@@ -387,10 +473,14 @@ public class ByteArray {
             return false;
         }
         long w = Double.doubleToLongBits(value);
-        for (int i = 0; i < 8; ++i) {
-            mContent[index + i] = Long.valueOf(w).byteValue();
-            w = w >> 8;
-        }
+        mContent[index] = (byte)w;
+        mContent[index + 1] = (byte)(w >> 8);
+        mContent[index + 2] = (byte)(w >> 16);
+        mContent[index + 3] = (byte)(w >> 24);
+        mContent[index + 4] = (byte)(w >> 32);
+        mContent[index + 5] = (byte)(w >> 40);
+        mContent[index + 6] = (byte)(w >> 48);
+        mContent[index + 7] = (byte)(w >> 56);
         return true;
     }
 
@@ -401,14 +491,15 @@ public class ByteArray {
      */
     public String read_string() {
         int len = read_int();
-        if (0 == len) {
+        if (len <= 0) {
+            mReadOverflow |= len < 0;
             return "";
         }
-        byte[] p = read(len);
-        if (null == p) {
+        int index = readIndex(len);
+        if (-1 == index) {
             return "";
         }
-        return Arrays.toString(p);
+        return new String(mContent, index, len);
     }
 
     /**
@@ -429,10 +520,624 @@ public class ByteArray {
         return true;
     }
 
-    private boolean copy(final byte[] buf, int n) {
-        if (getSpaceLength() < n) {
+    /**
+     * 功  能: 从字节流读取变长整型(无符号LEB128)
+     * 参  数: 无
+     * 返回值: int
+     */
+    public int read_varint() {
+        int value = 0;
+        for (int shift = 0, index = mReadIndex; shift < 35 && index < mTotalSize; shift += 7, ++index) {
+            byte b = mContent[index];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                mReadIndex = index + 1;
+                return value;
+            }
+        }
+        mReadOverflow = true;
+        return 0;
+    }
+
+    /**
+     * 功  能: 向字节流写入变长整型(无符号LEB128,每字节7位,1~5字节,负数固定5字节)
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_varint(int value) {
+        int index = writeIndex(varintSize(value));
+        if (-1 == index) {
+            return false;
+        }
+        putVarint(index, value);
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取变长长整型(无符号LEB128)
+     * 参  数: 无
+     * 返回值: long
+     */
+    public long read_varlong() {
+        long value = 0;
+        for (int shift = 0, index = mReadIndex; shift < 70 && index < mTotalSize; shift += 7, ++index) {
+            byte b = mContent[index];
+            value |= (long)(b & 0x7F) << shift;
+            if (b >= 0) {
+                mReadIndex = index + 1;
+                return value;
+            }
+        }
+        mReadOverflow = true;
+        return 0;
+    }
+
+    /**
+     * 功  能: 向字节流写入变长长整型(无符号LEB128,1~10字节)
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_varlong(long value) {
+        int index = writeIndex(varlongSize(value));
+        if (-1 == index) {
+            return false;
+        }
+        putVarlong(index, value);
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取UTF-8字符串(变长整型长度前缀)
+     * 参  数: 无
+     * 返回值: String
+     */
+    public String read_utf8() {
+        int len = read_varint();
+        if (len <= 0) {
+            mReadOverflow |= len < 0;
+            return "";
+        }
+        int index = readIndex(len);
+        if (-1 == index) {
+            return "";
+        }
+        return new String(mContent, index, len, UTF8);
+    }
+
+    /**
+     * 功  能: 向字节流写入UTF-8字符串(变长整型长度前缀,直接编码到字节流,不产生临时数组)
+     * 参  数: str - 值
+     * 返回值: boolean
+     */
+    public boolean write_utf8(String str) {
+        int len = utf8Size(str);
+        if (!write_varint(len)) {
+            return false;
+        }
+        int index = writeIndex(len);
+        if (-1 == index) {
+            return false;
+        }
+        for (int i = 0, n = str.length(); i < n; ++i) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                mContent[index++] = (byte)c;
+            } else if (c < 0x800) {
+                mContent[index++] = (byte)(0xC0 | (c >> 6));
+                mContent[index++] = (byte)(0x80 | (c & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, str.charAt(++i));
+                    mContent[index++] = (byte)(0xF0 | (cp >> 18));
+                    mContent[index++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+                    mContent[index++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+                    mContent[index++] = (byte)(0x80 | (cp & 0x3F));
+                } else {
+                    mContent[index++] = '?';    // 不成对的代理字符,与String.getBytes()一致
+                }
+            } else {
+                mContent[index++] = (byte)(0xE0 | (c >> 12));
+                mContent[index++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                mContent[index++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流批量读取32位整型到数组(不含长度前缀)
+     * 参  数: out - 输出数组
+     *         offset - 输出起始位置
+     *         len - 个数
+     * 返回值: boolean
+     */
+    public boolean read_int_array(int[] out, int offset, int len) {
+        if (null == out || len < 0 || len > (mTotalSize - mReadIndex) / 4 || offset < 0 || offset > out.length - len) {
+            return false;
+        }
+        int index = readIndex(len * 4);
+        if (-1 == index) {
+            return false;
+        }
+        for (int i = offset, end = offset + len; i < end; ++i, index += 4) {
+            out[i] = getInt32(index);
+        }
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取32位整型数组(32位整型长度前缀)
+     * 参  数: 无
+     * 返回值: int[]
+     */
+    public int[] read_int_array() {
+        int len = read_int();
+        if (len <= 0 || len > (mTotalSize - mReadIndex) / 4) {
+            mReadOverflow |= 0 != len;
+            return new int[0];
+        }
+        int[] values = new int[len];
+        read_int_array(values, 0, len);
+        return values;
+    }
+
+    /**
+     * 功  能: 向字节流批量写入32位整型数组(不含长度前缀)
+     * 参  数: values - 数组
+     *         offset - 起始位置
+     *         len - 个数
+     * 返回值: boolean
+     */
+    public boolean write_int_array(int[] values, int offset, int len) {
+        if (null == values || len < 0 || len > MAX_MSG_SIZE / 4 || offset < 0 || offset > values.length - len) {
+            return false;
+        }
+        int index = writeIndex(len * 4);
+        if (-1 == index) {
+            return false;
+        }
+        for (int i = offset, end = offset + len; i < end; ++i, index += 4) {
+            putInt32(index, values[i]);
+        }
+        return true;
+    }
+
+    /**
+     * 功  能: 向字节流写入32位整型数组(32位整型长度前缀)
+     * 参  数: values - 数组
+     * 返回值: boolean
+     */
+    public boolean write_int_array(int[] values) {
+        int len = null == values ? 0 : values.length;
+        if (len > (MAX_MSG_SIZE - 4) / 4) {
+            return false;
+        }
+        if (mWriteIndex + 4 + len * 4 > mTotalSize && !grow(mWriteIndex + 4 + len * 4)) {
+            return false;
+        }
+        return write_int(len) && (0 == len || write_int_array(values, 0, len));
+    }
+
+    /**
+     * 功  能: 从字节流批量读取长整型到数组(不含长度前缀)
+     * 参  数: out - 输出数组
+     *         offset - 输出起始位置
+     *         len - 个数
+     * 返回值: boolean
+     */
+    public boolean read_long_array(long[] out, int offset, int len) {
+        if (null == out || len < 0 || len > (mTotalSize - mReadIndex) / 8 || offset < 0 || offset > out.length - len) {
+            return false;
+        }
+        int index = readIndex(len * 8);
+        if (-1 == index) {
+            return false;
+        }
+        for (int i = offset, end = offset + len; i < end; ++i, index += 8) {
+            out[i] = getInt64(index);
+        }
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取长整型数组(32位整型长度前缀)
+     * 参  数: 无
+     * 返回值: long[]
+     */
+    public long[] read_long_array() {
+        int len = read_int();
+        if (len <= 0 || len > (mTotalSize - mReadIndex) / 8) {
+            mReadOverflow |= 0 != len;
+            return new long[0];
+        }
+        long[] values = new long[len];
+        read_long_array(values, 0, len);
+        return values;
+    }
+
+    /**
+     * 功  能: 向字节流批量写入长整型数组(不含长度前缀)
+     * 参  数: values - 数组
+     *         offset - 起始位置
+     *         len - 个数
+     * 返回值: boolean
+     */
+    public boolean write_long_array(long[] values, int offset, int len) {
+        if (null == values || len < 0 || len > MAX_MSG_SIZE / 8 || offset < 0 || offset > values.length - len) {
+            return false;
+        }
+        int index = writeIndex(len * 8);
+        if (-1 == index) {
+            return false;
+        }
+        for (int i = offset, end = offset + len; i < end; ++i, index += 8) {
+            putInt64(index, values[i]);
+        }
+        return true;
+    }
+
+    /**
+     * 功  能: 向字节流写入长整型数组(32位整型长度前缀)
+     * 参  数: values - 数组
+     * 返回值: boolean
+     */
+    public boolean write_long_array(long[] values) {
+        int len = null == values ? 0 : values.length;
+        if (len > (MAX_MSG_SIZE - 4) / 8) {
+            return false;
+        }
+        if (mWriteIndex + 4 + len * 8 > mTotalSize && !grow(mWriteIndex + 4 + len * 8)) {
+            return false;
+        }
+        return write_int(len) && (0 == len || write_long_array(values, 0, len));
+    }
+
+    /**
+     * 功  能: 从字节流批量读取浮点型到数组(不含长度前缀)
+     * 参  数: out - 输出数组
+     *         offset - 输出起始位置
+     *         len - 个数
+     * 返回值: boolean
+     */
+    public boolean read_float_array(float[] out, int offset, int len) {
+        if (null == out || len < 0 || len > (mTotalSize - mReadIndex) / 4 || offset < 0 || offset > out.length - len) {
+            return false;
+        }
+        int index = readIndex(len * 4);
+        if (-1 == index) {
             return false;
         }
+        for (int i = offset, end = offset + len; i < end; ++i, index += 4) {
+            out[i] = Float.intBitsToFloat(getInt32(index));
+        }
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取浮点型数组(32位整型长度前缀)
+     * 参  数: 无
+     * 返回值: float[]
+     */
+    public float[] read_float_array() {
+        int len = read_int();
+        if (len <= 0 || len > (mTotalSize - mReadIndex) / 4) {
+            mReadOverflow |= 0 != len;
+            return new float[0];
+        }
+        float[] values = new float[len];
+        read_float_array(values, 0, len);
+        return values;
+    }
+
+    /**
+     * 功  能: 向字节流批量写入浮点型数组(不含长度前缀)
+     * 参  数: values - 数组
+     *         offset - 起始位置
+     *         len - 个数
+     * 返回值: boolean
+     */
+    public boolean write_float_array(float[] values, int offset, int len) {
+        if (null == values || len < 0 || len > MAX_MSG_SIZE / 4 || offset < 0 || offset > values.length - len) {
+            return false;
+        }
+        int index = writeIndex(len * 4);
+        if (-1 == index) {
+            return false;
+        }
+        for (int i = offset, end = offset + len; i < end; ++i, index += 4) {
+            putInt32(index, Float.floatToRawIntBits(values[i]));
+        }
+        return true;
+    }
+
+    /**
+     * 功  能: 向字节流写入浮点型数组(32位整型长度前缀)
+     * 参  数: values - 数组
+     * 返回值: boolean
+     */
+    public boolean write_float_array(float[] values) {
+        int len = null == values ? 0 : values.length;
+        if (len > (MAX_MSG_SIZE - 4) / 4) {
+            return false;
+        }
+        if (mWriteIndex + 4 + len * 4 > mTotalSize && !grow(mWriteIndex + 4 + len * 4)) {
+            return false;
+        }
+        return write_int(len) && (0 == len || write_float_array(values, 0, len));
+    }
+
+    /**
+     * 功  能: 从字节流批量读取双精度浮点型到数组(不含长度前缀)
+     * 参  数: out - 输出数组
+     *         offset - 输出起始位置
+     *         len - 个数
+     * 返回值: boolean
+     */
+    public boolean read_double_array(double[] out, int offset, int len) {
+        if (null == out || len < 0 || len > (mTotalSize - mReadIndex) / 8 || offset < 0 || offset > out.length - len) {
+            return false;
+        }
+        int index = readIndex(len * 8);
+        if (-1 == index) {
+            return false;
+        }
+        for (int i = offset, end = offset + len; i < end; ++i, index += 8) {
+            out[i] = Double.longBitsToDouble(getInt64(index));
+        }
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取双精度浮点型数组(32位整型长度前缀)
+     * 参  数: 无
+     * 返回值: double[]
+     */
+    public double[] read_double_array() {
+        int len = read_int();
+        if (len <= 0 || len > (mTotalSize - mReadIndex) / 8) {
+            mReadOverflow |= 0 != len;
+            return new double[0];
+        }
+        double[] values = new double[len];
+        read_double_array(values, 0, len);
+        return values;
+    }
+
+    /**
+     * 功  能: 向字节流批量写入双精度浮点型数组(不含长度前缀)
+     * 参  数: values - 数组
+     *         offset - 起始位置
+     *         len - 个数
+     * 返回值: boolean
+     */
+    public boolean write_double_array(double[] values, int offset, int len) {
+        if (null == values || len < 0 || len > MAX_MSG_SIZE / 8 || offset < 0 || offset > values.length - len) {
+            return false;
+        }
+        int index = writeIndex(len * 8);
+        if (-1 == index) {
+            return false;
+        }
+        for (int i = offset, end = offset + len; i < end; ++i, index += 8) {
+            putInt64(index, Double.doubleToRawLongBits(values[i]));
+        }
+        return true;
+    }
+
+    /**
+     * 功  能: 向字节流写入双精度浮点型数组(32位整型长度前缀)
+     * 参  数: values - 数组
+     * 返回值: boolean
+     */
+    public boolean write_double_array(double[] values) {
+        int len = null == values ? 0 : values.length;
+        if (len > (MAX_MSG_SIZE - 4) / 8) {
+            return false;
+        }
+        if (mWriteIndex + 4 + len * 8 > mTotalSize && !grow(mWriteIndex + 4 + len * 8)) {
+            return false;
+        }
+        return write_int(len) && (0 == len || write_double_array(values, 0, len));
+    }
+
+    /**
+     * 功  能: 从字节流读取有符号变长整型(zig-zag + LEB128,绝对值小的负数也只占少量字节)
+     * 参  数: 无
+     * 返回值: int
+     */
+    public int read_svarint() {
+        int n = read_varint();
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    /**
+     * 功  能: 向字节流写入有符号变长整型(zig-zag + LEB128)
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_svarint(int value) {
+        return write_varint((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * 功  能: 从字节流读取有符号变长长整型(zig-zag + LEB128)
+     * 参  数: 无
+     * 返回值: long
+     */
+    public long read_svarlong() {
+        long n = read_varlong();
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    /**
+     * 功  能: 向字节流写入有符号变长长整型(zig-zag + LEB128)
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_svarlong(long value) {
+        return write_varlong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * 功  能: 从字节流读取变长整型数组(变长整型长度前缀)
+     * 参  数: zigzag - 是否zig-zag编码(数组含负数时使用)
+     * 返回值: int[]
+     */
+    public int[] read_varint_array(boolean zigzag) {
+        int len = read_varint();
+        if (len <= 0 || len > mTotalSize - mReadIndex) {
+            mReadOverflow |= 0 != len;
+            return new int[0];
+        }
+        int[] values = new int[len];
+        for (int i = 0; i < len; ++i) {
+            values[i] = zigzag ? read_svarint() : read_varint();
+        }
+        return values;
+    }
+
+    /**
+     * 功  能: 向字节流写入变长整型数组(变长整型长度前缀,一次检查容量)
+     * 参  数: values - 数组
+     *         zigzag - 是否zig-zag编码(数组含负数时使用)
+     * 返回值: boolean
+     */
+    public boolean write_varint_array(int[] values, boolean zigzag) {
+        int len = null == values ? 0 : values.length;
+        if (len > MAX_MSG_SIZE) {
+            return false;
+        }
+        checkWritable();
+        // 先按每个元素5字节的最坏情况检查,容量足够时省去逐个计算编码长度的一遍遍历
+        int size = varintSize(len) + len * 5;
+        if (mWriteIndex + size > mTotalSize) {
+            size = varintSize(len);
+            for (int i = 0; i < len; ++i) {
+                size += varintSize(zigzag ? (values[i] << 1) ^ (values[i] >> 31) : values[i]);
+            }
+            if (mWriteIndex + size > mTotalSize && !grow(mWriteIndex + size)) {
+                return false;
+            }
+        }
+        // 容量已检查,直接编码到字节流,不再逐个调用write_varint
+        int index = putVarint(mWriteIndex, len);
+        for (int i = 0; i < len; ++i) {
+            index = putVarint(index, zigzag ? (values[i] << 1) ^ (values[i] >> 31) : values[i]);
+        }
+        mWriteIndex = index;
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取变长长整型数组(变长整型长度前缀)
+     * 参  数: zigzag - 是否zig-zag编码(数组含负数时使用)
+     * 返回值: long[]
+     */
+    public long[] read_varlong_array(boolean zigzag) {
+        int len = read_varint();
+        if (len <= 0 || len > mTotalSize - mReadIndex) {
+            mReadOverflow |= 0 != len;
+            return new long[0];
+        }
+        long[] values = new long[len];
+        for (int i = 0; i < len; ++i) {
+            values[i] = zigzag ? read_svarlong() : read_varlong();
+        }
+        return values;
+    }
+
+    /**
+     * 功  能: 向字节流写入变长长整型数组(变长整型长度前缀,一次检查容量)
+     * 参  数: values - 数组
+     *         zigzag - 是否zig-zag编码(数组含负数时使用)
+     * 返回值: boolean
+     */
+    public boolean write_varlong_array(long[] values, boolean zigzag) {
+        int len = null == values ? 0 : values.length;
+        if (len > MAX_MSG_SIZE) {
+            return false;
+        }
+        checkWritable();
+        // 先按每个元素10字节的最坏情况检查,容量足够时省去逐个计算编码长度的一遍遍历
+        int size = varintSize(len) + len * 10;
+        if (mWriteIndex + size > mTotalSize) {
+            size = varintSize(len);
+            for (int i = 0; i < len; ++i) {
+                size += varlongSize(zigzag ? (values[i] << 1) ^ (values[i] >> 63) : values[i]);
+            }
+            if (mWriteIndex + size > mTotalSize && !grow(mWriteIndex + size)) {
+                return false;
+            }
+        }
+        // 容量已检查,直接编码到字节流,不再逐个调用write_varlong
+        int index = putVarint(mWriteIndex, len);
+        for (int i = 0; i < len; ++i) {
+            index = putVarlong(index, zigzag ? (values[i] << 1) ^ (values[i] >> 63) : values[i]);
+        }
+        mWriteIndex = index;
+        return true;
+    }
+
+    /**
+     * 功  能: 计算变长整型编码后的字节数
+     * 参  数: value - 值
+     * 返回值: int
+     */
+    public static int varintSize(int value) {
+        if ((value & (~0 << 7)) == 0) {
+            return 1;
+        } else if ((value & (~0 << 14)) == 0) {
+            return 2;
+        } else if ((value & (~0 << 21)) == 0) {
+            return 3;
+        } else if ((value & (~0 << 28)) == 0) {
+            return 4;
+        }
+        return 5;
+    }
+
+    /**
+     * 功  能: 计算变长长整型编码后的字节数
+     * 参  数: value - 值
+     * 返回值: int
+     */
+    public static int varlongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            ++size;
+        }
+        return size;
+    }
+
+    /**
+     * 功  能: 计算字符串UTF-8编码后的字节数
+     * 参  数: str - 字符串
+     * 返回值: int
+     */
+    public static int utf8Size(String str) {
+        int size = 0;
+        for (int i = 0, n = str.length(); i < n; ++i) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                size += 1;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    size += 4;
+                    ++i;
+                } else {
+                    size += 1;
+                }
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    private boolean copy(final byte[] buf, int n) {
         int index = writeIndex(n);
         if (-1 == index) {
             return false;
@@ -441,18 +1146,96 @@ public class ByteArray {
         return true;
     }
 
-    private byte[] read(int n) {
+    int getReadIndex() {
+        return mReadIndex;
+    }
+
+    int getWriteIndex() {
+        return mWriteIndex;
+    }
+
+    // 小端解码(直接索引字节流,不产生临时数组)
+    private short getInt16(int index) {
+        return (short)((mContent[index] & 0xFF) | ((mContent[index + 1] & 0xFF) << 8));
+    }
+
+    private int getInt32(int index) {
+        return (mContent[index] & 0xFF) | ((mContent[index + 1] & 0xFF) << 8)
+                | ((mContent[index + 2] & 0xFF) << 16) | ((mContent[index + 3] & 0xFF) << 24);
+    }
+
+    private long getInt64(int index) {
+        return (getInt32(index) & 0xFFFFFFFFL) | ((long)getInt32(index + 4) << 32);
+    }
+
+    // 小端编码
+    private void putInt32(int index, int value) {
+        mContent[index] = (byte)value;
+        mContent[index + 1] = (byte)(value >> 8);
+        mContent[index + 2] = (byte)(value >> 16);
+        mContent[index + 3] = (byte)(value >> 24);
+    }
+
+    private void putInt64(int index, long value) {
+        putInt32(index, (int)value);
+        putInt32(index + 4, (int)(value >> 32));
+    }
+
+    // LEB128编码到index处,返回编码结束位置,调用方已保证容量
+    private int putVarint(int index, int value) {
+        while ((value & ~0x7F) != 0) {
+            mContent[index++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        mContent[index++] = (byte)value;
+        return index;
+    }
+
+    private int putVarlong(int index, long value) {
+        while ((value & ~0x7FL) != 0) {
+            mContent[index++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        mContent[index++] = (byte)value;
+        return index;
+    }
+
+    private int readIndex(int n) {
         if (mReadIndex + n > mTotalSize) {
-            return null;
+            mReadOverflow = true;
+            return -1;
         }
-        byte[] p = new byte[n];
-        System.arraycopy(mContent, mReadIndex, p, 0, n);
+        int index = mReadIndex;
         mReadIndex += n;
-        return p;
+        return index;
+    }
+
+    // 扩容到至少size大小,已写入的内容保持不变
+    private boolean grow(int size) {
+        if (!mGrowable || size > MAX_MSG_SIZE) {
+            return false;
+        }
+        int newSize = Math.min(Math.max(size, mTotalSize * 2), MAX_MSG_SIZE);
+        byte[] content = null == mPool ? new byte[newSize] : mPool.acquire(newSize);
+        System.arraycopy(mContent, 0, content, 0, mWriteIndex);
+        if (null != mPool) {
+            mPool.release(mContent, mWriteIndex);
+        }
+        mContent = content;
+        mTotalSize = content.length;
+        return true;
+    }
+
+    // 视图与外部数组共享内容(如FrameDecoder的接收缓冲区),写入会覆盖其后的数据
+    private void checkWritable() {
+        if (mView) {
+            throw new AssertionError("write to a read-only view");
+        }
     }
 
     private int writeIndex(int n) {
-        if (mWriteIndex + n > mTotalSize) {
+        checkWritable();
+        if (mWriteIndex + n > mTotalSize && !grow(mWriteIndex + n)) {
             return -1;
         }
         int index = mWriteIndex;
@@ -0,0 +1,194 @@
+package com.jaronho.sdk.library.bytearray;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   字节数组缓存池(按2的幂次分级,回收复用字节流缓冲区)
+ */
+
+public class ByteArrayPool {
+    private static final int MIN_BUCKET_SHIFT = 6;                              // 最小分级64字节
+    private static final int MAX_BUCKET_SHIFT = 20;                             // 最大分级1M字节(与ByteArray.max_size()一致)
+    private static final int DEFAULT_MAX_RETAINED_BYTES = 4 * 1024 * 1024;      // 默认最多缓存4M字节
+
+    private static ByteArrayPool mInstance = null;
+    private final ConcurrentLinkedQueue<byte[]>[] mBuckets;     // 各分级的空闲缓冲区
+    private final int mMaxRetainedBytes;                        // 允许缓存的最大字节数
+    private final AtomicLong mRetainedBytes = new AtomicLong(0);   // 当前缓存的字节数
+    private final AtomicInteger mRetainedCount = new AtomicInteger(0); // 当前缓存的缓冲区个数
+    private final AtomicLong mHitCount = new AtomicLong(0);     // 命中次数
+    private final AtomicLong mMissCount = new AtomicLong(0);    // 未命中次数
+
+    @SuppressWarnings("unchecked")
+    public ByteArrayPool(int maxRetainedBytes) {
+        if (maxRetainedBytes < 0) {
+            throw new AssertionError("maxRetainedBytes < 0");
+        }
+        mMaxRetainedBytes = maxRetainedBytes;
+        mBuckets = (ConcurrentLinkedQueue<byte[]>[])new ConcurrentLinkedQueue<?>[MAX_BUCKET_SHIFT - MIN_BUCKET_SHIFT + 1];
+        for (int i = 0; i < mBuckets.length; ++i) {
+            mBuckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    public ByteArrayPool() {
+        this(DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    public static ByteArrayPool getInstance() {
+        if (null == mInstance) {
+            synchronized(ByteArrayPool.class) {
+                if (null == mInstance) {
+                    mInstance = new ByteArrayPool();
+                }
+            }
+        }
+        return mInstance;
+    }
+
+    // 计算长度所属分级,超出最大分级返回-1
+    private static int bucketIndex(int size) {
+        if (size > (1 << MAX_BUCKET_SHIFT)) {
+            return -1;
+        }
+        if (size <= (1 << MIN_BUCKET_SHIFT)) {
+            return 0;
+        }
+        return (32 - Integer.numberOfLeadingZeros(size - 1)) - MIN_BUCKET_SHIFT;
+    }
+
+    /**
+     * 功  能: 获取缓冲区(长度为不小于size的分级长度,内容已清零)
+     * 参  数: size - 需要的长度
+     * 返回值: byte[]
+     */
+    public byte[] acquire(int size) {
+        if (size < 0) {
+            throw new AssertionError("size < 0");
+        }
+        int index = bucketIndex(size);
+        if (-1 == index) {
+            mMissCount.incrementAndGet();
+            return new byte[size];
+        }
+        byte[] buf = mBuckets[index].poll();
+        if (null == buf) {
+            mMissCount.incrementAndGet();
+            return new byte[1 << (index + MIN_BUCKET_SHIFT)];
+        }
+        mRetainedCount.decrementAndGet();
+        mRetainedBytes.addAndGet(-buf.length);
+        mHitCount.incrementAndGet();
+        return buf;
+    }
+
+    /**
+     * 功  能: 归还缓冲区
+     * 参  数: buf - 缓冲区
+     *         usedLen - 已使用长度,只清零[0, usedLen)部分
+     * 返回值: boolean,false.未被缓存(长度不是分级长度或超过缓存上限)
+     */
+    public boolean release(byte[] buf, int usedLen) {
+        if (null == buf) {
+            return false;
+        }
+        int index = bucketIndex(buf.length);
+        if (-1 == index || buf.length != (1 << (index + MIN_BUCKET_SHIFT))) {
+            return false;
+        }
+        if (mRetainedBytes.addAndGet(buf.length) > mMaxRetainedBytes) {
+            mRetainedBytes.addAndGet(-buf.length);
+            return false;
+        }
+        Arrays.fill(buf, 0, Math.max(0, Math.min(usedLen, buf.length)), (byte)0);
+        mRetainedCount.incrementAndGet();
+        mBuckets[index].offer(buf);
+        return true;
+    }
+
+    /**
+     * 功  能: 归还缓冲区(整块清零)
+     * 参  数: buf - 缓冲区
+     * 返回值: boolean
+     */
+    public boolean release(byte[] buf) {
+        return null != buf && release(buf, buf.length);
+    }
+
+    /**
+     * 功  能: 释放所有缓存的缓冲区
+     * 参  数: 无
+     * 返回值: 无
+     */
+    public void clear() {
+        for (ConcurrentLinkedQueue<byte[]> bucket : mBuckets) {
+            byte[] buf;
+            while (null != (buf = bucket.poll())) {
+                mRetainedCount.decrementAndGet();
+                mRetainedBytes.addAndGet(-buf.length);
+            }
+        }
+    }
+
+    /**
+     * 功  能: 获取命中次数
+     * 参  数: 无
+     * 返回值: long
+     */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * 功  能: 获取未命中次数
+     * 参  数: 无
+     * 返回值: long
+     */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * 功  能: 获取命中率
+     * 参  数: 无
+     * 返回值: double,[0, 1]
+     */
+    public double getHitRate() {
+        long hit = mHitCount.get();
+        long total = hit + mMissCount.get();
+        return 0 == total ? 0 : (double)hit / total;
+    }
+
+    /**
+     * 功  能: 获取当前缓存的字节数
+     * 参  数: 无
+     * 返回值: long
+     */
+    public long getRetainedBytes() {
+        return mRetainedBytes.get();
+    }
+
+    /**
+     * 功  能: 获取当前缓存的缓冲区个数
+     * 参  数: 无
+     * 返回值: int
+     */
+    public int getRetainedCount() {
+        return mRetainedCount.get();
+    }
+
+    /**
+     * 功  能: 重置命中统计
+     * 参  数: 无
+     * 返回值: 无
+     */
+    public void resetStats() {
+        mHitCount.set(0);
+        mMissCount.set(0);
+    }
+}
@@ -0,0 +1,215 @@
+package com.jaronho.sdk.library.bytearray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   长度前缀帧解码器(累积分片数据,增量识别帧边界,输出不拷贝的ByteArray视图)
+ *          帧格式: [长度字段(1/2/4字节,不含自身)][消息体]
+ *          已输出的帧视图不会被后续读取覆盖,可安全保留;帧视图只读,写入抛出AssertionError
+ */
+
+public class FrameDecoder {
+    public static abstract class Handler {
+        public abstract void onFrame(ByteArray frame);
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;   // 默认接收缓冲区大小
+
+    private final int mLengthFieldSize;     // 长度字段字节数
+    private final ByteOrder mOrder;         // 长度字段字节序
+    private final int mMaxFrameLength;      // 消息体最大长度
+    private final int mBufferSize;          // 接收缓冲区大小
+    private byte[] mBuffer;                 // 接收缓冲区
+    private ByteBuffer mBufferWrap;         // 接收缓冲区的包装,用于通道读取
+    private int mStart = 0;                 // 未解析数据起始位置
+    private int mEnd = 0;                   // 未解析数据结束位置
+    private int mFrameEnd = -1;             // mStart处帧的结束位置,-1表示长度字段未解析(分片到达时不重复解析)
+    private long mFrameCount = 0;           // 已输出帧数
+    private long mByteCount = 0;            // 已接收字节数
+
+    /**
+     * 参  数: lengthFieldSize - 长度字段字节数(1,2,4)
+     *         order - 长度字段字节序
+     *         maxFrameLength - 消息体最大长度,超过视为数据错误
+     *         bufferSize - 接收缓冲区大小
+     */
+    public FrameDecoder(int lengthFieldSize, ByteOrder order, int maxFrameLength, int bufferSize) {
+        if (1 != lengthFieldSize && 2 != lengthFieldSize && 4 != lengthFieldSize) {
+            throw new AssertionError("lengthFieldSize must be 1, 2 or 4, now is " + lengthFieldSize);
+        }
+        if (maxFrameLength <= 0) {
+            throw new AssertionError("maxFrameLength <= 0");
+        }
+        mLengthFieldSize = lengthFieldSize;
+        mOrder = order;
+        mMaxFrameLength = maxFrameLength;
+        mBufferSize = bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE;
+        allocate(mBufferSize);
+    }
+
+    // 4字节小端长度字段,与ByteArray.write_int()一致
+    public FrameDecoder() {
+        this(4, ByteOrder.LITTLE_ENDIAN, ByteArray.max_size(), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 功  能: 从输入流读取一次数据,并输出其中所有完整的帧
+     * 参  数: in - 输入流
+     *         handler - 帧回调
+     * 返回值: int,本次读取的字节数,-1表示流已结束
+     */
+    public int read(InputStream in, Handler handler) throws IOException {
+        ensureSpace();
+        int n = in.read(mBuffer, mEnd, mBuffer.length - mEnd);
+        if (n > 0) {
+            mEnd += n;
+            mByteCount += n;
+            decode(handler);
+        }
+        return n;
+    }
+
+    /**
+     * 功  能: 从通道读取一次数据,并输出其中所有完整的帧
+     * 参  数: channel - 通道
+     *         handler - 帧回调
+     * 返回值: int,本次读取的字节数,-1表示通道已关闭
+     */
+    public int read(ReadableByteChannel channel, Handler handler) throws IOException {
+        ensureSpace();
+        mBufferWrap.limit(mBuffer.length);
+        mBufferWrap.position(mEnd);
+        int n = channel.read(mBufferWrap);
+        if (n > 0) {
+            mEnd += n;
+            mByteCount += n;
+            decode(handler);
+        }
+        return n;
+    }
+
+    /**
+     * 功  能: 输入已接收的数据,并输出其中所有完整的帧
+     * 参  数: data - 数据
+     *         offset - 起始位置
+     *         len - 长度
+     *         handler - 帧回调
+     * 返回值: 无
+     */
+    public void feed(byte[] data, int offset, int len, Handler handler) throws IOException {
+        while (len > 0) {
+            ensureSpace();
+            int n = Math.min(len, mBuffer.length - mEnd);
+            System.arraycopy(data, offset, mBuffer, mEnd, n);
+            mEnd += n;
+            mByteCount += n;
+            offset += n;
+            len -= n;
+            decode(handler);
+        }
+    }
+
+    /**
+     * 功  能: 获取已缓存但未组成完整帧的字节数
+     * 参  数: 无
+     * 返回值: int
+     */
+    public int getBufferedLength() {
+        return mEnd - mStart;
+    }
+
+    /**
+     * 功  能: 获取已输出帧数
+     * 参  数: 无
+     * 返回值: long
+     */
+    public long getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * 功  能: 获取已接收字节数
+     * 参  数: 无
+     * 返回值: long
+     */
+    public long getByteCount() {
+        return mByteCount;
+    }
+
+    /**
+     * 功  能: 丢弃未完成的数据(如连接重建时)
+     * 参  数: 无
+     * 返回值: 无
+     */
+    public void reset() {
+        allocate(mBufferSize);
+    }
+
+    private void allocate(int size) {
+        mBuffer = new byte[size];
+        mBufferWrap = ByteBuffer.wrap(mBuffer);
+        mStart = 0;
+        mEnd = 0;
+        mFrameEnd = -1;
+    }
+
+    // 缓冲区已满时换新缓冲区,只拷贝未完成的部分帧;已输出的帧视图仍引用旧缓冲区,不会被覆盖
+    private void ensureSpace() throws IOException {
+        if (mEnd < mBuffer.length) {
+            return;
+        }
+        int pending = mEnd - mStart;
+        int frameEnd = mFrameEnd;
+        int need = frameEnd < 0 ? pending : frameEnd - mStart;
+        byte[] old = mBuffer;
+        int oldStart = mStart;
+        allocate(Math.max(mBufferSize, need + 1));
+        System.arraycopy(old, oldStart, mBuffer, 0, pending);
+        mEnd = pending;
+        mFrameEnd = frameEnd < 0 ? -1 : frameEnd - oldStart;
+    }
+
+    private int frameLength(int index) throws IOException {
+        int len = 0;
+        if (ByteOrder.LITTLE_ENDIAN == mOrder) {
+            for (int i = mLengthFieldSize - 1; i >= 0; --i) {
+                len = (len << 8) | (mBuffer[index + i] & 0xFF);
+            }
+        } else {
+            for (int i = 0; i < mLengthFieldSize; ++i) {
+                len = (len << 8) | (mBuffer[index + i] & 0xFF);
+            }
+        }
+        if (len < 0 || len > mMaxFrameLength) {
+            throw new IOException("frame length " + len + " out of range [0, " + mMaxFrameLength + "]");
+        }
+        return len;
+    }
+
+    private void decode(Handler handler) throws IOException {
+        while (true) {
+            if (mFrameEnd < 0) {
+                if (mEnd - mStart < mLengthFieldSize) {
+                    break;
+                }
+                mFrameEnd = mStart + mLengthFieldSize + frameLength(mStart);
+            }
+            if (mFrameEnd > mEnd) {
+                break;
+            }
+            ByteArray frame = ByteArray.wrap(mBuffer, mStart + mLengthFieldSize, mFrameEnd - mStart - mLengthFieldSize);
+            mStart = mFrameEnd;
+            mFrameEnd = -1;
+            ++mFrameCount;
+            if (null != handler) {
+                handler.onFrame(frame);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.jaronho.sdk.library.bytearray;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   长度前缀帧编码器(与FrameDecoder对应,直接输出字节流未读部分,不拷贝消息体)
+ */
+
+public class FrameEncoder {
+    private final int mLengthFieldSize;     // 长度字段字节数
+    private final int mMaxFrameLength;      // 消息体最大长度
+    private final byte[] mHeader;           // 长度字段缓存
+    private final ByteBuffer mHeaderWrap;   // 长度字段缓存的包装,用于通道写入
+
+    /**
+     * 参  数: lengthFieldSize - 长度字段字节数(1,2,4)
+     *         order - 长度字段字节序
+     *         maxFrameLength - 消息体最大长度
+     */
+    public FrameEncoder(int lengthFieldSize, ByteOrder order, int maxFrameLength) {
+        if (1 != lengthFieldSize && 2 != lengthFieldSize && 4 != lengthFieldSize) {
+            throw new AssertionError("lengthFieldSize must be 1, 2 or 4, now is " + lengthFieldSize);
+        }
+        if (maxFrameLength <= 0) {
+            throw new AssertionError("maxFrameLength <= 0");
+        }
+        mLengthFieldSize = lengthFieldSize;
+        if (lengthFieldSize < 4) {
+            maxFrameLength = Math.min(maxFrameLength, (1 << (lengthFieldSize * 8)) - 1);
+        }
+        mMaxFrameLength = maxFrameLength;
+        mHeader = new byte[lengthFieldSize];
+        mHeaderWrap = ByteBuffer.wrap(mHeader);
+        mHeaderWrap.order(order);
+    }
+
+    // 4字节小端长度字段,与ByteArray.write_int()一致
+    public FrameEncoder() {
+        this(4, ByteOrder.LITTLE_ENDIAN, ByteArray.max_size());
+    }
+
+    /**
+     * 功  能: 将字节流未读部分作为一帧写入输出流
+     * 参  数: frame - 消息体
+     *         out - 输出流
+     * 返回值: 无
+     */
+    public void write(ByteArray frame, OutputStream out) throws IOException {
+        int len = frame.getWriteIndex() - frame.getReadIndex();
+        writeHeader(len);
+        out.write(mHeader, 0, mLengthFieldSize);
+        out.write(frame.getContent(), frame.getReadIndex(), len);
+    }
+
+    /**
+     * 功  能: 将字节流未读部分作为一帧写入通道
+     * 参  数: frame - 消息体
+     *         channel - 通道
+     * 返回值: 无
+     */
+    public void write(ByteArray frame, WritableByteChannel channel) throws IOException {
+        int len = frame.getWriteIndex() - frame.getReadIndex();
+        writeHeader(len);
+        writeFully(channel, mHeaderWrap);
+        writeFully(channel, ByteBuffer.wrap(frame.getContent(), frame.getReadIndex(), len));
+    }
+
+    /**
+     * 功  能: 将字节流未读部分作为一帧写入通道
+     * 参  数: frame - 消息体
+     *         channel - 通道
+     * 返回值: 无
+     */
+    public void write(NioByteArray frame, WritableByteChannel channel) throws IOException {
+        ByteBuffer body = frame.getReadableSlice();
+        writeHeader(body.remaining());
+        writeFully(channel, mHeaderWrap);
+        writeFully(channel, body);
+    }
+
+    private void writeHeader(int len) throws IOException {
+        if (len > mMaxFrameLength) {
+            throw new IOException("frame length " + len + " > " + mMaxFrameLength);
+        }
+        mHeaderWrap.clear();
+        if (1 == mLengthFieldSize) {
+            mHeaderWrap.put(0, (byte)len);
+        } else if (2 == mLengthFieldSize) {
+            mHeaderWrap.putShort(0, (short)len);
+        } else {
+            mHeaderWrap.putInt(0, len);
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
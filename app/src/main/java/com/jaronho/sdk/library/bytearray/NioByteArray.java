@@ -0,0 +1,454 @@
+package com.jaronho.sdk.library.bytearray;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   字节流类(基于java.nio.ByteBuffer,支持直接内存和可配置字节序,接口与ByteArray一致)
+ */
+
+public class NioByteArray {
+    private ByteBuffer mBuffer;         // 字节流内容(使用绝对位置读写,不改变position/limit)
+    private ByteBuffer mView;           // 与mBuffer共享内容的视图,用于通道读写和批量拷贝
+    private int mTotalSize;             // 字节流允许大小
+    private int mReadIndex;             // 读取位置
+    private int mWriteIndex;            // 写入位置
+
+    /**
+     * 参  数: size - 大小
+     *         direct - 是否使用直接内存(与通道交互时可避免拷贝)
+     */
+    public NioByteArray(int size, boolean direct) {
+        if (size <= 0 || size > ByteArray.max_size()) {
+            size = ByteArray.max_size();
+        }
+        mBuffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        mBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        mView = mBuffer.duplicate();
+        mTotalSize = size;
+        mReadIndex = 0;
+        mWriteIndex = 0;
+    }
+
+    public NioByteArray(int size) {
+        this(size, false);
+    }
+
+    /**
+     * 功  能: 包装已有缓冲区,[position, limit)部分作为可读内容(不拷贝)
+     * 参  数: buffer - 缓冲区
+     */
+    public NioByteArray(ByteBuffer buffer) {
+        mBuffer = buffer.slice();
+        mBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        mView = mBuffer.duplicate();
+        mTotalSize = mBuffer.capacity();
+        mReadIndex = 0;
+        mWriteIndex = mBuffer.capacity();
+    }
+
+    /**
+     * 功  能: 打印当前内容
+     * 参  数: 无
+     * 返回值: 无
+     */
+    public void print() {
+        String TAG = "NioByteArray";
+        Log.d(TAG, String.format("==================== NioByteArray: max=%d, length=%d, space=%d, order=%s, direct=%b",
+                mTotalSize, getCurrentLength(), getSpaceLength(), mBuffer.order(), mBuffer.isDirect()));
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < mWriteIndex; ++i) {
+            sb.append(i > 0 ? ", " : "").append(mBuffer.get(i));
+        }
+        Log.d(TAG, sb.append("]").toString());
+        Log.d(TAG, "========================================");
+    }
+
+    /**
+     * 功  能: 清空,重新使用当前字节流
+     * 参  数: 无
+     * 返回值: 无
+     */
+    public void reuse() {
+        mReadIndex = 0;
+        mWriteIndex = 0;
+    }
+
+    /**
+     * 功  能: 获取字节序
+     * 参  数: 无
+     * 返回值: ByteOrder
+     */
+    public ByteOrder getOrder() {
+        return mBuffer.order();
+    }
+
+    /**
+     * 功  能: 设置字节序(默认小端,与ByteArray一致)
+     * 参  数: order - 字节序
+     * 返回值: 无
+     */
+    public void setOrder(ByteOrder order) {
+        mBuffer.order(order);
+    }
+
+    /**
+     * 功  能: 是否使用直接内存
+     * 参  数: 无
+     * 返回值: boolean
+     */
+    public boolean isDirect() {
+        return mBuffer.isDirect();
+    }
+
+    /**
+     * 功  能: 获取字节流总长度
+     * 参  数: 无
+     * 返回值: int
+     */
+    public int getTotalLength() {
+        return mTotalSize;
+    }
+
+    /**
+     * 功  能: 获取字节流当前长度
+     * 参  数: 无
+     * 返回值: int
+     */
+    public int getCurrentLength() {
+        return Math.abs(mWriteIndex - mReadIndex);
+    }
+
+    /**
+     * 功  能: 获取字节流剩余可写长度
+     * 参  数: 无
+     * 返回值: int
+     */
+    public int getSpaceLength() {
+        return mTotalSize - mWriteIndex;
+    }
+
+    /**
+     * 功  能: 获取未读内容的只读切片(与字节流共享内存,不拷贝)
+     * 参  数: 无
+     * 返回值: ByteBuffer
+     */
+    public ByteBuffer getReadableSlice() {
+        ByteBuffer slice = mBuffer.asReadOnlyBuffer();
+        slice.limit(mWriteIndex);
+        slice.position(mReadIndex);
+        return slice.slice().order(mBuffer.order());
+    }
+
+    /**
+     * 功  能: 将未读内容写入通道(如SocketChannel,FileChannel),已写出部分视为已读
+     * 参  数: channel - 通道
+     * 返回值: int,实际写出的字节数
+     */
+    public int writeTo(WritableByteChannel channel) throws IOException {
+        mView.limit(mWriteIndex);
+        mView.position(mReadIndex);
+        int n = channel.write(mView);
+        if (n > 0) {
+            mReadIndex += n;
+        }
+        return n;
+    }
+
+    /**
+     * 功  能: 从通道读取内容追加到字节流末尾
+     * 参  数: channel - 通道
+     * 返回值: int,实际读取的字节数,-1表示通道已关闭
+     */
+    public int readFrom(ReadableByteChannel channel) throws IOException {
+        mView.limit(mTotalSize);
+        mView.position(mWriteIndex);
+        int n = channel.read(mView);
+        if (n > 0) {
+            mWriteIndex += n;
+        }
+        return n;
+    }
+
+    /**
+     * 功  能: 从字节流读取布尔型
+     * 参  数: 无
+     * 返回值: boolean
+     */
+    public boolean read_bool() {
+        int index = readIndex(1);
+        return -1 != index && 0x01 == mBuffer.get(index);
+    }
+
+    /**
+     * 功  能: 向字节流写入布尔型
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_bool(boolean value) {
+        int index = writeIndex(1);
+        if (-1 == index) {
+            return false;
+        }
+        mBuffer.put(index, (byte)(value ? 0x01 : 0x00));
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取字节型
+     * 参  数: 无
+     * 返回值: byte
+     */
+    public byte read_byte() {
+        int index = readIndex(1);
+        if (-1 == index) {
+            return 0;
+        }
+        return mBuffer.get(index);
+    }
+
+    /**
+     * 功  能: 向字节流写入字节型
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_byte(byte value) {
+        int index = writeIndex(1);
+        if (-1 == index) {
+            return false;
+        }
+        mBuffer.put(index, value);
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取字符型
+     * 参  数: 无
+     * 返回值: char
+     */
+    public char read_char() {
+        int index = readIndex(2);
+        if (-1 == index) {
+            return 0;
+        }
+        return mBuffer.getChar(index);
+    }
+
+    /**
+     * 功  能: 向字节流写入字符型
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_char(char value) {
+        int index = writeIndex(2);
+        if (-1 == index) {
+            return false;
+        }
+        mBuffer.putChar(index, value);
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取16位整型
+     * 参  数: 无
+     * 返回值: short
+     */
+    public short read_int16() {
+        int index = readIndex(2);
+        if (-1 == index) {
+            return 0;
+        }
+        return mBuffer.getShort(index);
+    }
+
+    /**
+     * 功  能: 向字节流写入16位整型
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_int16(short value) {
+        int index = writeIndex(2);
+        if (-1 == index) {
+            return false;
+        }
+        mBuffer.putShort(index, value);
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取32位整型
+     * 参  数: 无
+     * 返回值: int
+     */
+    public int read_int() {
+        int index = readIndex(4);
+        if (-1 == index) {
+            return 0;
+        }
+        return mBuffer.getInt(index);
+    }
+
+    /**
+     * 功  能: 向字节流写入32位整型
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_int(int value) {
+        int index = writeIndex(4);
+        if (-1 == index) {
+            return false;
+        }
+        mBuffer.putInt(index, value);
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取长整型
+     * 参  数: 无
+     * 返回值: long
+     */
+    public long read_long() {
+        int index = readIndex(8);
+        if (-1 == index) {
+            return 0;
+        }
+        return mBuffer.getLong(index);
+    }
+
+    /**
+     * 功  能: 向字节流写入长整型
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_long(long value) {
+        int index = writeIndex(8);
+        if (-1 == index) {
+            return false;
+        }
+        mBuffer.putLong(index, value);
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取浮点型
+     * 参  数: 无
+     * 返回值: float
+     */
+    public float read_float() {
+        int index = readIndex(4);
+        if (-1 == index) {
+            return 0;
+        }
+        return mBuffer.getFloat(index);
+    }
+
+    /**
+     * 功  能: 向字节流写入浮点型
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_float(float value) {
+        int index = writeIndex(4);
+        if (-1 == index) {
+            return false;
+        }
+        mBuffer.putFloat(index, value);
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取双精度浮点型
+     * 参  数: 无
+     * 返回值: double
+     */
+    public double read_double() {
+        int index = readIndex(8);
+        if (-1 == index) {
+            return 0;
+        }
+        return mBuffer.getDouble(index);
+    }
+
+    /**
+     * 功  能: 向字节流写入双精度浮点型
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_double(double value) {
+        int index = writeIndex(8);
+        if (-1 == index) {
+            return false;
+        }
+        mBuffer.putDouble(index, value);
+        return true;
+    }
+
+    /**
+     * 功  能: 从字节流读取字符串
+     * 参  数: 无
+     * 返回值: String
+     */
+    public String read_string() {
+        int len = read_int();
+        if (len <= 0) {
+            return "";
+        }
+        int index = readIndex(len);
+        if (-1 == index) {
+            return "";
+        }
+        if (mBuffer.hasArray()) {
+            return new String(mBuffer.array(), mBuffer.arrayOffset() + index, len);
+        }
+        byte[] bs = new byte[len];
+        mView.limit(index + len);
+        mView.position(index);
+        mView.get(bs);
+        return new String(bs);
+    }
+
+    /**
+     * 功  能: 向字节流写入字符串
+     * 参  数: value - 值
+     * 返回值: boolean
+     */
+    public boolean write_string(String str) {
+        byte[] bs = str.getBytes();
+        if (!write_int(bs.length)) {
+            return false;
+        }
+        int index = writeIndex(bs.length);
+        if (-1 == index) {
+            return false;
+        }
+        mView.limit(index + bs.length);
+        mView.position(index);
+        mView.put(bs);
+        return true;
+    }
+
+    private int readIndex(int n) {
+        if (mReadIndex + n > mTotalSize) {
+            return -1;
+        }
+        int index = mReadIndex;
+        mReadIndex += n;
+        return index;
+    }
+
+    private int writeIndex(int n) {
+        if (mWriteIndex + n > mTotalSize) {
+            return -1;
+        }
+        int index = mWriteIndex;
+        mWriteIndex += n;
+        return index;
+    }
+}
@@ -0,0 +1,269 @@
+package com.jaronho.sdk.library.bytearray;
+
+import com.jaronho.sdk.library.bytearray.annotation.ProtoField;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   基于反射的协议消息序列化器,每个类只解析一次@ProtoField注解,按字段类型缓存编解码器,
+ *          每次读写仍通过java.lang.reflect.Field访问字段,比手写的write_xxx/read_xxx慢,适合非热点路径,
+ *          热点消息使用ProtoCodecProcessor在编译时生成的XxxCodec,线路格式与本类相同
+ *          (可对比app/src/test下的ReflectiveMessageSerializerBenchmark)
+ *          字段类型支持: boolean,byte,char,short,int,long,float,double,String(UTF-8),int[],long[],float[],double[]
+ *          String和数组前有1字节的非null标记,null与""或空数组读回后仍可区分
+ */
+
+public class ReflectiveMessageSerializer<T> {
+    // 通过反射读写单个字段
+    private static abstract class FieldCodec {
+        final Field field;
+        FieldCodec(Field field) {
+            this.field = field;
+        }
+        abstract boolean write(Object msg, ByteArray ba) throws IllegalAccessException;
+        abstract void read(Object msg, ByteArray ba) throws IllegalAccessException;
+    }
+
+    private static final ConcurrentHashMap<Class<?>, ReflectiveMessageSerializer<?>> mSerializerMap = new ConcurrentHashMap<>();
+    private final Class<T> mClass;
+    private final FieldCodec[] mCodecs;
+
+    private ReflectiveMessageSerializer(Class<T> cls) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = cls; null != c && Object.class != c; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (null != field.getAnnotation(ProtoField.class)) {
+                    if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                        throw new AssertionError("field " + cls.getName() + "." + field.getName() + " can not be static or final");
+                    }
+                    fields.add(field);
+                }
+            }
+        }
+        Collections.sort(fields, new Comparator<Field>() {
+            @Override
+            public int compare(Field f1, Field f2) {
+                int i1 = f1.getAnnotation(ProtoField.class).index();
+                int i2 = f2.getAnnotation(ProtoField.class).index();
+                return i1 < i2 ? -1 : (i1 == i2 ? 0 : 1);
+            }
+        });
+        mClass = cls;
+        mCodecs = new FieldCodec[fields.size()];
+        for (int i = 0, len = fields.size(); i < len; ++i) {
+            Field field = fields.get(i);
+            if (i > 0 && field.getAnnotation(ProtoField.class).index() == fields.get(i - 1).getAnnotation(ProtoField.class).index()) {
+                throw new AssertionError("field " + cls.getName() + "." + field.getName() + " has duplicate index " + field.getAnnotation(ProtoField.class).index());
+            }
+            field.setAccessible(true);
+            mCodecs[i] = createCodec(cls, field);
+        }
+    }
+
+    /**
+     * 功  能: 获取类对应的序列化器(首次调用时解析并缓存)
+     * 参  数: cls - 消息类
+     * 返回值: ReflectiveMessageSerializer
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ReflectiveMessageSerializer<T> get(Class<T> cls) {
+        ReflectiveMessageSerializer<?> serializer = mSerializerMap.get(cls);
+        if (null == serializer) {
+            serializer = new ReflectiveMessageSerializer<>(cls);
+            ReflectiveMessageSerializer<?> old = mSerializerMap.putIfAbsent(cls, serializer);
+            if (null != old) {
+                serializer = old;
+            }
+        }
+        return (ReflectiveMessageSerializer<T>)serializer;
+    }
+
+    /**
+     * 功  能: 将消息写入字节流
+     * 参  数: msg - 消息
+     *         ba - 字节流
+     * 返回值: boolean
+     */
+    public boolean write(T msg, ByteArray ba) {
+        try {
+            for (FieldCodec codec : mCodecs) {
+                if (!codec.write(msg, ba)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * 功  能: 从字节流读取消息字段到已有对象
+     * 参  数: ba - 字节流
+     *         msg - 消息
+     * 返回值: boolean,false表示内容不完整(读取越界,见ByteArray.isReadOverflow),此时msg中的字段不可用
+     */
+    public boolean read(ByteArray ba, T msg) {
+        try {
+            for (FieldCodec codec : mCodecs) {
+                codec.read(msg, ba);
+            }
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+        return !ba.isReadOverflow();
+    }
+
+    /**
+     * 功  能: 从字节流读取消息(消息类需有无参构造函数)
+     * 参  数: ba - 字节流
+     * 返回值: T,内容不完整时为null
+     */
+    public T read(ByteArray ba) {
+        T msg;
+        try {
+            msg = mClass.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new AssertionError(mClass.getName() + " must have a public no-arg constructor");
+        }
+        return read(ba, msg) ? msg : null;
+    }
+
+    private static FieldCodec createCodec(Class<?> cls, Field field) {
+        Class<?> type = field.getType();
+        boolean varint = field.getAnnotation(ProtoField.class).varint();
+        final boolean zigzag = field.getAnnotation(ProtoField.class).zigzag();
+        if (varint && int.class != type && long.class != type && int[].class != type && long[].class != type) {
+            throw new AssertionError("field " + cls.getName() + "." + field.getName() + " of type " + type.getName() + " not support varint");
+        }
+        if (zigzag && !varint) {
+            throw new AssertionError("field " + cls.getName() + "." + field.getName() + " zigzag must be used with varint");
+        }
+        if (boolean.class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_bool(field.getBoolean(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setBoolean(msg, ba.read_bool()); }
+            };
+        } else if (byte.class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_byte(field.getByte(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setByte(msg, ba.read_byte()); }
+            };
+        } else if (char.class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_char(field.getChar(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setChar(msg, ba.read_char()); }
+            };
+        } else if (short.class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_int16(field.getShort(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setShort(msg, ba.read_int16()); }
+            };
+        } else if (int.class == type && zigzag) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_svarint(field.getInt(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setInt(msg, ba.read_svarint()); }
+            };
+        } else if (int.class == type && varint) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_varint(field.getInt(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setInt(msg, ba.read_varint()); }
+            };
+        } else if (int.class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_int(field.getInt(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setInt(msg, ba.read_int()); }
+            };
+        } else if (long.class == type && zigzag) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_svarlong(field.getLong(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setLong(msg, ba.read_svarlong()); }
+            };
+        } else if (long.class == type && varint) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_varlong(field.getLong(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setLong(msg, ba.read_varlong()); }
+            };
+        } else if (long.class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_long(field.getLong(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setLong(msg, ba.read_long()); }
+            };
+        } else if (float.class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_float(field.getFloat(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setFloat(msg, ba.read_float()); }
+            };
+        } else if (double.class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException { return ba.write_double(field.getDouble(msg)); }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.setDouble(msg, ba.read_double()); }
+            };
+        } else if (String.class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException {
+                    String str = (String)field.get(msg);
+                    return ba.write_bool(null != str) && (null == str || ba.write_utf8(str));
+                }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.set(msg, ba.read_bool() ? ba.read_utf8() : null); }
+            };
+        } else if (int[].class == type && varint) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException {
+                    int[] values = (int[])field.get(msg);
+                    return ba.write_bool(null != values) && (null == values || ba.write_varint_array(values, zigzag));
+                }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.set(msg, ba.read_bool() ? ba.read_varint_array(zigzag) : null); }
+            };
+        } else if (int[].class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException {
+                    int[] values = (int[])field.get(msg);
+                    return ba.write_bool(null != values) && (null == values || ba.write_int_array(values));
+                }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.set(msg, ba.read_bool() ? ba.read_int_array() : null); }
+            };
+        } else if (long[].class == type && varint) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException {
+                    long[] values = (long[])field.get(msg);
+                    return ba.write_bool(null != values) && (null == values || ba.write_varlong_array(values, zigzag));
+                }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.set(msg, ba.read_bool() ? ba.read_varlong_array(zigzag) : null); }
+            };
+        } else if (long[].class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException {
+                    long[] values = (long[])field.get(msg);
+                    return ba.write_bool(null != values) && (null == values || ba.write_long_array(values));
+                }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.set(msg, ba.read_bool() ? ba.read_long_array() : null); }
+            };
+        } else if (float[].class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException {
+                    float[] values = (float[])field.get(msg);
+                    return ba.write_bool(null != values) && (null == values || ba.write_float_array(values));
+                }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.set(msg, ba.read_bool() ? ba.read_float_array() : null); }
+            };
+        } else if (double[].class == type) {
+            return new FieldCodec(field) {
+                boolean write(Object msg, ByteArray ba) throws IllegalAccessException {
+                    double[] values = (double[])field.get(msg);
+                    return ba.write_bool(null != values) && (null == values || ba.write_double_array(values));
+                }
+                void read(Object msg, ByteArray ba) throws IllegalAccessException { field.set(msg, ba.read_bool() ? ba.read_double_array() : null); }
+            };
+        }
+        throw new AssertionError("field " + cls.getName() + "." + field.getName() + " of type " + type.getName() + " not support");
+    }
+}
@@ -0,0 +1,24 @@
+package com.jaronho.sdk.library.bytearray.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 协议字段,由ReflectiveMessageSerializer或ProtoCodecProcessor生成的XxxCodec按index从小到大依次编解码,
+ * 生成的XxxCodec直接访问字段,字段不能为private
+ */
+
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProtoField {
+    // 字段序号(同一消息内唯一)
+    int index();
+
+    // 是否使用变长整型编码(仅对int,long,int[],long[]有效)
+    boolean varint() default false;
+
+    // 变长整型是否使用zig-zag编码(值可能为负数时使用,需同时指定varint)
+    boolean zigzag() default false;
+}
@@ -0,0 +1,125 @@
+package com.jaronho.sdk.library.eventdispatcher;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   DispatchQueue, bounded multi level queue of pending events, lower priority value is served first,
+ *          events of the same priority keep posting order
+ */
+
+class DispatchQueue {
+    static class Task {
+        public final Object eventId;
+        public final Object param;
+        public final int priority;
+        public final long postTime;                         // System.nanoTime() when posted
+        public Task(Object eventId, Object param, int priority, long postTime) {
+            this.eventId = eventId;
+            this.param = param;
+            this.priority = priority;
+            this.postTime = postTime;
+        }
+    }
+
+    // result of offer
+    public static final int ACCEPTED = 0;
+    public static final int REJECTED = 1;                   // queue full, task not queued
+    public static final int COALESCED = 2;                  // queue full, replaced a pending task of same event id
+    public static final int REPLACED = 3;                   // queued after dropping the oldest task of lowest priority
+
+    private final ArrayDeque<Task>[] mLevels;
+    private final HashMap<Object, Task> mPendingMap = new HashMap<>();     // event id -> latest pending task, coalesce only
+    private final int mCapacity;
+    private int mSize = 0;
+    private Task mDropped = null;                            // task dropped by the last offer returning REPLACED
+
+    @SuppressWarnings("unchecked")
+    public DispatchQueue(int levelCount, int capacity) {
+        if (levelCount <= 0) {
+            throw new AssertionError("levelCount <= 0");
+        }
+        if (capacity <= 0) {
+            throw new AssertionError("capacity <= 0");
+        }
+        mLevels = (ArrayDeque<Task>[])new ArrayDeque<?>[levelCount];
+        for (int i = 0; i < levelCount; ++i) {
+            mLevels[i] = new ArrayDeque<>();
+        }
+        mCapacity = capacity;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public boolean isFull() {
+        return mSize >= mCapacity;
+    }
+
+    public Task getDropped() {
+        return mDropped;
+    }
+
+    // dropOldest: when full, drop the oldest task of the lowest priority level instead of rejecting the new one,
+    // coalesce: when full, first try to replace the latest pending task of same event id, the new task takes
+    //           its own priority and post time and goes to the tail of its level
+    public int offer(Task task, boolean dropOldest, boolean coalesce) {
+        mDropped = null;
+        int result = ACCEPTED;
+        if (mSize >= mCapacity) {
+            Task pending = coalesce ? mPendingMap.get(task.eventId) : null;
+            if (null != pending && mLevels[level(pending.priority)].remove(pending)) {
+                mLevels[level(task.priority)].offer(task);
+                mPendingMap.put(task.eventId, task);
+                return COALESCED;
+            }
+            if (!dropOldest) {
+                return REJECTED;
+            }
+            mDropped = pollLowest();
+            result = REPLACED;
+        }
+        mLevels[level(task.priority)].offer(task);
+        ++mSize;
+        if (coalesce) {
+            mPendingMap.put(task.eventId, task);
+        }
+        return result;
+    }
+
+    // highest priority task, null if empty
+    public Task poll() {
+        for (ArrayDeque<Task> level : mLevels) {
+            Task task = level.poll();
+            if (null != task) {
+                return removed(task);
+            }
+        }
+        return null;
+    }
+
+    private Task pollLowest() {
+        for (int i = mLevels.length - 1; i >= 0; --i) {
+            Task task = mLevels[i].poll();
+            if (null != task) {
+                return removed(task);
+            }
+        }
+        return null;
+    }
+
+    private Task removed(Task task) {
+        --mSize;
+        if (mPendingMap.get(task.eventId) == task) {
+            mPendingMap.remove(task.eventId);
+        }
+        return task;
+    }
+
+    private int level(int priority) {
+        return priority < 0 ? 0 : Math.min(priority, mLevels.length - 1);
+    }
+}
@@ -1,11 +1,20 @@
 package com.jaronho.sdk.library.eventdispatcher;
 
+import android.os.Build;
 import android.os.Handler;
 import android.os.Message;
+import android.os.SystemClock;
+import android.view.Choreographer;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Author:  jaron.ho
@@ -23,38 +32,170 @@ public class EventCenter {
         }
     }
 
-    private static class HandlerObject {
-        public EventDispatcher.Handler handler = null;
-        public Object param = null;
-        public HandlerObject(EventDispatcher.Handler handler) {
+    // one pending delivery, each post gets its own so that params of back to back posts are not overwritten
+    private static class Delivery {
+        public final EventDispatcher.Handler handler;
+        public final Object param;
+        public final long postTime;
+        public Delivery(EventDispatcher.Handler handler, Object param, long postTime) {
             this.handler = handler;
+            this.param = param;
+            this.postTime = postTime;
         }
     }
 
+    // rate limit of one event id, only the latest param posted in a window reaches the handlers
+    private static class Coalescer implements Runnable {
+        public final Object eventId;
+        public final int mode;
+        public final long window;
+        private Object mLatest = null;
+        private boolean mScheduled = false;         // a flush is pending on main thread
+        private long mLastPostTime = 0;
+        private long mLastDispatchTime = -Long.MAX_VALUE / 2;
+
+        public Coalescer(Object eventId, int mode, long window) {
+            this.eventId = eventId;
+            this.mode = mode;
+            this.window = window;
+        }
+
+        public void offer(Object param) {
+            long now = SystemClock.uptimeMillis();
+            synchronized (this) {
+                mLastPostTime = now;
+                if (COALESCE_THROTTLE == mode && !mScheduled && now - mLastDispatchTime >= window) {
+                    mLastDispatchTime = now;
+                } else {
+                    mLatest = param;
+                    if (mScheduled) {
+                        return;
+                    }
+                    mScheduled = true;
+                    if (COALESCE_FRAME == mode) {
+                        mHandler.post(this);
+                    } else if (COALESCE_DEBOUNCE == mode) {
+                        mHandler.postDelayed(this, window);
+                    } else {
+                        mHandler.postDelayed(this, mLastDispatchTime + window - now);
+                    }
+                    return;
+                }
+            }
+            dispatch(eventId, param);
+        }
+
+        // called on main thread
+        @Override
+        public void run() {
+            if (COALESCE_FRAME == mode && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                // created only inside the guard, Coalescer itself must stay loadable below api 16
+                Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        flush();
+                    }
+                });
+                return;
+            }
+            flush();
+        }
+
+        private void flush() {
+            Object param;
+            synchronized (this) {
+                long now = SystemClock.uptimeMillis();
+                if (COALESCE_DEBOUNCE == mode && now - mLastPostTime < window) {
+                    mHandler.postDelayed(this, mLastPostTime + window - now);
+                    return;
+                }
+                param = mLatest;
+                mLatest = null;
+                mScheduled = false;
+                mLastDispatchTime = now;
+            }
+            dispatch(eventId, param);
+        }
+    }
+
+    public static final int COALESCE_NONE = 0;
+    public static final int COALESCE_FRAME = 1;         // latest param wins, dispatched once at the next frame
+    public static final int COALESCE_DEBOUNCE = 2;      // latest param dispatched once no post came for window milliseconds
+    public static final int COALESCE_THROTTLE = 3;      // dispatched at most once per window milliseconds, the latest param is dispatched at window end
+
     private static final EventDispatcher mEventDispatcher = new EventDispatcher();
     private static final ConcurrentHashMap<Object, List<Event>> mEventMap = new ConcurrentHashMap<>();
+    // tags of weak subscriptions are weakly referenced too, guarded by itself
+    private static final WeakHashMap<Object, List<Event>> mWeakEventMap = new WeakHashMap<>();
+    private static final AtomicLong mPurgedCount = new AtomicLong(0);          // weak subscriptions purged after their handler was collected
+    private static final int MAX_REPLAY_COUNT = 64;     // upper bound of replay count per event id
+    private static final ConcurrentHashMap<Object, ReplayBuffer> mReplayMap = new ConcurrentHashMap<>();
+    private static final Object mReplayLock = new Object();     // guards replay buffer adds, replacements and replays
+    private static final ConcurrentHashMap<Object, Coalescer> mCoalesceMap = new ConcurrentHashMap<>();
+    private static final ConcurrentLinkedQueue<Delivery> mDeliveryQueue = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean mDrainScheduled = new AtomicBoolean(false);
+    private static final AtomicInteger mQueueDepth = new AtomicInteger(0);      // deliveries waiting for main thread
+    private static final AtomicInteger mMaxQueueDepth = new AtomicInteger(0);
+    private static final AtomicLong mDeliveredCount = new AtomicLong(0);
+    private static final AtomicLong mDrainCount = new AtomicLong(0);            // main thread messages used for delivery
+    private static final AtomicLong mTotalLatency = new AtomicLong(0);          // sum of post to delivery time in milliseconds
+    private static final AtomicLong mMaxLatency = new AtomicLong(0);
     private static Handler mHandler = new Handler() {
         @Override
         public void handleMessage(Message msg) {
-            HandlerObject handlerObj = (HandlerObject)msg.obj;
-            if (null != handlerObj && null != handlerObj.handler) {
-                handlerObj.handler.onCallback(handlerObj.param);
-            }
+            drain();
         }
     };
 
-    public static void subscribe(Object eventId, EventDispatcher.Handler handler, Object tag) {
-        final HandlerObject handlerObj = new HandlerObject(handler);
+    // called on any thread, a single main thread message drains everything queued until it runs
+    private static void enqueue(EventDispatcher.Handler handler, Object param) {
+        mDeliveryQueue.offer(new Delivery(handler, param, SystemClock.uptimeMillis()));
+        int depth = mQueueDepth.incrementAndGet();
+        int maxDepth = mMaxQueueDepth.get();
+        while (depth > maxDepth && !mMaxQueueDepth.compareAndSet(maxDepth, depth)) {
+            maxDepth = mMaxQueueDepth.get();
+        }
+        if (mDrainScheduled.compareAndSet(false, true)) {
+            mHandler.sendEmptyMessage(0);
+        }
+    }
+
+    // called on main thread
+    private static void drain() {
+        mDrainScheduled.set(false);
+        mDrainCount.incrementAndGet();
+        Delivery delivery;
+        while (null != (delivery = mDeliveryQueue.poll())) {
+            mQueueDepth.decrementAndGet();
+            long latency = SystemClock.uptimeMillis() - delivery.postTime;
+            mTotalLatency.addAndGet(latency);
+            long maxLatency = mMaxLatency.get();
+            while (latency > maxLatency && !mMaxLatency.compareAndSet(maxLatency, latency)) {
+                maxLatency = mMaxLatency.get();
+            }
+            mDeliveredCount.incrementAndGet();
+            delivery.handler.onCallback(delivery.param);
+        }
+    }
+
+    public static void subscribe(Object eventId, final EventDispatcher.Handler handler, Object tag) {
         EventDispatcher.Handler tmpHandler = new EventDispatcher.Handler() {
             @Override
             public void onCallback(Object param) {
-                handlerObj.param = param;
-                Message msg = mHandler.obtainMessage();
-                msg.obj = handlerObj;
-                mHandler.sendMessage(msg);
+                if (null != handler) {
+                    enqueue(handler, param);
+                }
             }
         };
-        mEventDispatcher.subscribe(eventId, tmpHandler);
+        synchronized (mReplayLock) {
+            ReplayBuffer replayBuffer = null == handler ? null : mReplayMap.get(eventId);
+            if (null != replayBuffer) {
+                for (Object param : replayBuffer.snapshot()) {
+                    enqueue(handler, param);
+                }
+            }
+            mEventDispatcher.subscribe(eventId, tmpHandler);
+        }
         List<Event> eventList = mEventMap.get(tag);
         if (null == eventList) {
             eventList = new ArrayList<>();
@@ -63,17 +204,65 @@ public class EventCenter {
         eventList.add(new Event(eventId, tmpHandler));
     }
 
+    // only a weak reference to handler and tag is kept, handler must be held elsewhere (e.g. a field of the tag),
+    // once it is collected the subscription is purged on the next post of eventId and is never dispatched to
+    public static void subscribeWeak(final Object eventId, EventDispatcher.Handler handler, Object tag) {
+        if (null == handler) {
+            return;
+        }
+        final WeakReference<EventDispatcher.Handler> handlerRef = new WeakReference<>(handler);
+        EventDispatcher.Handler tmpHandler = new EventDispatcher.Handler() {
+            @Override
+            public void onCallback(Object param) {
+                EventDispatcher.Handler h = handlerRef.get();
+                if (null == h) {
+                    mEventDispatcher.unsubscribe(eventId, this);
+                    mPurgedCount.incrementAndGet();
+                } else {
+                    enqueue(h, param);
+                }
+            }
+        };
+        synchronized (mReplayLock) {
+            ReplayBuffer replayBuffer = mReplayMap.get(eventId);
+            if (null != replayBuffer) {
+                for (Object param : replayBuffer.snapshot()) {
+                    enqueue(handler, param);
+                }
+            }
+            mEventDispatcher.subscribe(eventId, tmpHandler);
+        }
+        synchronized (mWeakEventMap) {
+            List<Event> eventList = mWeakEventMap.get(tag);
+            if (null == eventList) {
+                eventList = new ArrayList<>();
+                mWeakEventMap.put(tag, eventList);
+            }
+            eventList.add(new Event(eventId, tmpHandler));
+        }
+    }
+
     public static void unsubscribe(Object tag) {
         if (null == tag) {
             mEventDispatcher.unsubscribe(null, null);
             mEventMap.clear();
+            synchronized (mWeakEventMap) {
+                mWeakEventMap.clear();
+            }
         } else {
-            List<Event> eventList = mEventMap.get(tag);
+            List<Event> eventList = mEventMap.remove(tag);
+            if (null != eventList) {
+                for (Event event : eventList) {
+                    mEventDispatcher.unsubscribe(event.id, event.handler);
+                }
+            }
+            synchronized (mWeakEventMap) {
+                eventList = mWeakEventMap.remove(tag);
+            }
             if (null != eventList) {
                 for (Event event : eventList) {
                     mEventDispatcher.unsubscribe(event.id, event.handler);
                 }
-                mEventMap.remove(tag);
             }
         }
     }
@@ -83,10 +272,140 @@ public class EventCenter {
     }
 
     public static void post(Object eventId, Object param) {
-        mEventDispatcher.post(eventId, param);
+        Coalescer coalescer = mCoalesceMap.get(eventId);
+        if (null != coalescer) {
+            coalescer.offer(param);
+        } else {
+            dispatch(eventId, param);
+        }
+    }
+
+    private static void dispatch(Object eventId, Object param) {
+        if (null == mReplayMap.get(eventId)) {
+            mEventDispatcher.post(eventId, param);
+            return;
+        }
+        // mEventDispatcher is synchronous, so keeping the param and delivering it to the current subscribers
+        // is one step for subscribe, which replays its snapshot and subscribes under the same lock
+        synchronized (mReplayLock) {
+            ReplayBuffer replayBuffer = mReplayMap.get(eventId);
+            if (null != replayBuffer) {
+                replayBuffer.add(param);
+            }
+            mEventDispatcher.post(eventId, param);
+        }
+    }
+
+    // post and keep the param, late subscribers of eventId receive it when they subscribe
+    public static void postSticky(Object eventId, Object param) {
+        if (!mReplayMap.containsKey(eventId)) {
+            mReplayMap.putIfAbsent(eventId, new ReplayBuffer(1));
+        }
+        post(eventId, param);
+    }
+
+    // keep the last count params posted for eventId and replay them in order to new subscribers, count <= 0 to disable
+    public static void setReplay(Object eventId, int count) {
+        if (count <= 0) {
+            mReplayMap.remove(eventId);
+            return;
+        }
+        synchronized (mReplayLock) {
+            ReplayBuffer replayBuffer = new ReplayBuffer(Math.min(count, MAX_REPLAY_COUNT));
+            ReplayBuffer oldBuffer = mReplayMap.get(eventId);
+            if (null != oldBuffer) {
+                replayBuffer.copyFrom(oldBuffer);
+            }
+            mReplayMap.put(eventId, replayBuffer);
+        }
+    }
+
+    // mode: COALESCE_NONE to post every param, COALESCE_FRAME, COALESCE_DEBOUNCE or COALESCE_THROTTLE
+    // window: milliseconds, used by COALESCE_DEBOUNCE and COALESCE_THROTTLE
+    public static void setCoalesce(Object eventId, int mode, long window) {
+        if (COALESCE_NONE == mode) {
+            mCoalesceMap.remove(eventId);
+        } else if (COALESCE_FRAME == mode) {
+            mCoalesceMap.put(eventId, new Coalescer(eventId, mode, 0));
+        } else if (COALESCE_DEBOUNCE == mode || COALESCE_THROTTLE == mode) {
+            if (window <= 0) {
+                throw new AssertionError("window <= 0");
+            }
+            mCoalesceMap.put(eventId, new Coalescer(eventId, mode, window));
+        } else {
+            throw new AssertionError("unknown mode " + mode);
+        }
+    }
+
+    public static void setCoalesce(Object eventId, int mode) {
+        setCoalesce(eventId, mode, 0);
+    }
+
+    // last param kept for eventId, null if none
+    public static Object getSticky(Object eventId) {
+        ReplayBuffer replayBuffer = mReplayMap.get(eventId);
+        if (null != replayBuffer) {
+            Object[] items = replayBuffer.snapshot();
+            if (items.length > 0) {
+                return items[items.length - 1];
+            }
+        }
+        return null;
+    }
+
+    // drop the params kept for eventId, eventId is null: drop all
+    public static void removeSticky(Object eventId) {
+        if (null == eventId) {
+            mReplayMap.clear();
+        } else {
+            mReplayMap.remove(eventId);
+        }
     }
 
     public static void post(Object eventId) {
-        mEventDispatcher.post(eventId, null);
+        post(eventId, null);
+    }
+
+    // number of events delivered to main thread handlers
+    public static long getDeliveredCount() {
+        return mDeliveredCount.get();
+    }
+
+    // number of main thread messages used to deliver them
+    public static long getDrainCount() {
+        return mDrainCount.get();
+    }
+
+    // average post to delivery time in milliseconds
+    public static double getAverageLatency() {
+        long count = mDeliveredCount.get();
+        return 0 == count ? 0 : (double)mTotalLatency.get() / count;
+    }
+
+    public static long getMaxLatency() {
+        return mMaxLatency.get();
+    }
+
+    // deliveries waiting for main thread
+    public static int getQueueDepth() {
+        return mQueueDepth.get();
+    }
+
+    public static int getMaxQueueDepth() {
+        return mMaxQueueDepth.get();
+    }
+
+    // number of weak subscriptions purged after their handler was collected
+    public static long getPurgedCount() {
+        return mPurgedCount.get();
+    }
+
+    public static void resetStats() {
+        mPurgedCount.set(0);
+        mDeliveredCount.set(0);
+        mDrainCount.set(0);
+        mTotalLatency.set(0);
+        mMaxLatency.set(0);
+        mMaxQueueDepth.set(mQueueDepth.get());
     }
 }
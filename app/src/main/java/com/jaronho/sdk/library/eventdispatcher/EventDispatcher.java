@@ -1,7 +1,5 @@
 package com.jaronho.sdk.library.eventdispatcher;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -15,16 +13,146 @@ public class EventDispatcher {
         public abstract void onCallback(Object param);
     }
 
-    private ConcurrentHashMap<Object, List<Handler>> mEventHandlerMap = new ConcurrentHashMap<>();
+    // called on the worker thread when a handler throws in async mode, the other handlers of the post still run
+    public static abstract class ErrorHandler {
+        public abstract void onError(Object eventId, Object param, RuntimeException e);
+    }
 
-    public void subscribe(Object eventId, Handler handler) {
-        List<Handler> handlers = mEventHandlerMap.get(eventId);
-        if (null == handlers) {
-            handlers = new ArrayList<>();
-            mEventHandlerMap.put(eventId, handlers);
+    // async dispatch metrics of one event id, times in nanoseconds
+    public static class Metrics {
+        public long postCount = 0;
+        public long dispatchCount = 0;
+        public long droppedCount = 0;           // posts dropped because the queue was full
+        public long coalescedCount = 0;         // posts merged into a pending post of same event id
+        public long failedCount = 0;            // handler calls that threw
+        public long totalQueueTime = 0;         // post to dispatch
+        public long maxQueueTime = 0;
+        public long totalHandlerTime = 0;       // time spent in handlers
+        public long maxHandlerTime = 0;
+
+        private synchronized void dispatched(long queueTime, long handlerTime, int failures) {
+            ++dispatchCount;
+            failedCount += failures;
+            totalQueueTime += queueTime;
+            maxQueueTime = Math.max(maxQueueTime, queueTime);
+            totalHandlerTime += handlerTime;
+            maxHandlerTime = Math.max(maxHandlerTime, handlerTime);
         }
-        if (!handlers.contains(handler)) {
-            handlers.add(handler);
+
+        private synchronized Metrics copy() {
+            Metrics metrics = new Metrics();
+            metrics.postCount = postCount;
+            metrics.dispatchCount = dispatchCount;
+            metrics.droppedCount = droppedCount;
+            metrics.coalescedCount = coalescedCount;
+            metrics.failedCount = failedCount;
+            metrics.totalQueueTime = totalQueueTime;
+            metrics.maxQueueTime = maxQueueTime;
+            metrics.totalHandlerTime = totalHandlerTime;
+            metrics.maxHandlerTime = maxHandlerTime;
+            return metrics;
+        }
+    }
+
+    public static final int PRIORITY_HIGH = 0;
+    public static final int PRIORITY_NORMAL = 1;
+    public static final int PRIORITY_LOW = 2;
+    // what an async post does when the queue is full
+    public static final int OVERFLOW_DROP_OLDEST = 0;      // drop the oldest pending post of lowest priority
+    public static final int OVERFLOW_DROP_NEWEST = 1;      // drop the new post
+    public static final int OVERFLOW_BLOCK = 2;            // wait until a worker takes a pending post, posts from worker threads run inline
+    public static final int OVERFLOW_COALESCE = 3;         // a pending post of same event id is replaced by the new one, else drop oldest
+
+    // handler arrays are never modified after being published, subscribe/unsubscribe swap in a new copy,
+    // so post can walk a snapshot without lock or allocation
+    private ConcurrentHashMap<Object, Handler[]> mEventHandlerMap = new ConcurrentHashMap<>();
+    private final Object mAsyncLock = new Object();
+    private volatile DispatchQueue mQueue = null;          // null in sync mode, guarded by mAsyncLock when not null
+    private int mOverflowPolicy = OVERFLOW_DROP_OLDEST;
+    private final ConcurrentHashMap<Object, Metrics> mMetricsMap = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> mIsWorker = new ThreadLocal<>();    // set on worker threads of this dispatcher
+    private volatile ErrorHandler mErrorHandler = null;
+
+    // switch to async mode, posts are queued and handlers run on workerCount worker threads,
+    // handlers of one event id may run concurrently when workerCount > 1
+    public void setAsync(int workerCount, int capacity, int overflowPolicy) {
+        if (workerCount <= 0) {
+            throw new AssertionError("workerCount <= 0");
+        }
+        if (overflowPolicy < OVERFLOW_DROP_OLDEST || overflowPolicy > OVERFLOW_COALESCE) {
+            throw new AssertionError("unknown overflowPolicy " + overflowPolicy);
+        }
+        final DispatchQueue queue = new DispatchQueue(PRIORITY_LOW + 1, capacity);
+        synchronized (mAsyncLock) {
+            mQueue = queue;
+            mOverflowPolicy = overflowPolicy;
+            mAsyncLock.notifyAll();
+        }
+        for (int i = 0; i < workerCount; ++i) {
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work(queue);
+                }
+            }, "EventDispatcher-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    // back to sync mode, posts already queued are still dispatched by the workers, which then exit
+    public void setSync() {
+        synchronized (mAsyncLock) {
+            mQueue = null;
+            mAsyncLock.notifyAll();
+        }
+    }
+
+    public boolean isAsync() {
+        return null != mQueue;
+    }
+
+    // number of posts waiting for a worker
+    public int getQueueSize() {
+        synchronized (mAsyncLock) {
+            DispatchQueue queue = mQueue;
+            return null == queue ? 0 : queue.size();
+        }
+    }
+
+    // snapshot of async metrics of eventId, null if nothing was posted async for it
+    public Metrics getMetrics(Object eventId) {
+        Metrics metrics = mMetricsMap.get(eventId);
+        return null == metrics ? null : metrics.copy();
+    }
+
+    public void resetMetrics() {
+        mMetricsMap.clear();
+    }
+
+    // handler failures in async mode are reported here, null to print the stack trace
+    public void setErrorHandler(ErrorHandler errorHandler) {
+        mErrorHandler = errorHandler;
+    }
+
+    public void subscribe(Object eventId, Handler handler) {
+        while (true) {
+            Handler[] handlers = mEventHandlerMap.get(eventId);
+            if (null == handlers) {
+                if (null == mEventHandlerMap.putIfAbsent(eventId, new Handler[]{handler})) {
+                    return;
+                }
+                continue;
+            }
+            if (indexOf(handlers, handler) >= 0) {
+                return;
+            }
+            Handler[] newHandlers = new Handler[handlers.length + 1];
+            System.arraycopy(handlers, 0, newHandlers, 0, handlers.length);
+            newHandlers[handlers.length] = handler;
+            if (mEventHandlerMap.replace(eventId, handlers, newHandlers)) {
+                return;
+            }
         }
     }
 
@@ -34,18 +162,44 @@ public class EventDispatcher {
         } else if (null == handler) {
             mEventHandlerMap.remove(eventId);
         } else {
-            List<Handler> handlers = mEventHandlerMap.get(eventId);
-            if (null != handlers) {
-                handlers.remove(handler);
-                if (handlers.isEmpty()) {
-                    mEventHandlerMap.remove(eventId);
+            while (true) {
+                Handler[] handlers = mEventHandlerMap.get(eventId);
+                if (null == handlers) {
+                    return;
+                }
+                int index = indexOf(handlers, handler);
+                if (index < 0) {
+                    return;
+                }
+                if (1 == handlers.length) {
+                    if (mEventHandlerMap.remove(eventId, handlers)) {
+                        return;
+                    }
+                    continue;
+                }
+                Handler[] newHandlers = new Handler[handlers.length - 1];
+                System.arraycopy(handlers, 0, newHandlers, 0, index);
+                System.arraycopy(handlers, index + 1, newHandlers, index, handlers.length - index - 1);
+                if (mEventHandlerMap.replace(eventId, handlers, newHandlers)) {
+                    return;
                 }
             }
         }
     }
 
     public void post(Object eventId, Object param) {
-        List<Handler> handlers = mEventHandlerMap.get(eventId);
+        post(eventId, param, PRIORITY_NORMAL);
+    }
+
+    // priority only matters in async mode, PRIORITY_HIGH posts are dispatched before PRIORITY_NORMAL and PRIORITY_LOW ones
+    public void post(Object eventId, Object param, int priority) {
+        if (null == mQueue || !enqueue(eventId, param, priority)) {
+            dispatch(eventId, param);
+        }
+    }
+
+    private void dispatch(Object eventId, Object param) {
+        Handler[] handlers = mEventHandlerMap.get(eventId);
         if (null != handlers) {
             for (Handler handler : handlers) {
                 if (null != handler) {
@@ -54,4 +208,130 @@ public class EventDispatcher {
             }
         }
     }
+
+    // false if the post must be dispatched synchronously: async mode was turned off meanwhile,
+    // or the queue is full with OVERFLOW_BLOCK and the caller can not wait (a worker thread, or interrupted)
+    private boolean enqueue(Object eventId, Object param, int priority) {
+        Metrics metrics = getOrCreateMetrics(eventId);
+        DispatchQueue.Task task = new DispatchQueue.Task(eventId, param, priority, System.nanoTime());
+        synchronized (mAsyncLock) {
+            while (true) {
+                DispatchQueue queue = mQueue;
+                if (null == queue) {
+                    return false;
+                }
+                boolean coalesce = OVERFLOW_COALESCE == mOverflowPolicy;
+                boolean dropOldest = coalesce || OVERFLOW_DROP_OLDEST == mOverflowPolicy;
+                int result = queue.offer(task, dropOldest, coalesce);
+                if (DispatchQueue.REJECTED == result && OVERFLOW_BLOCK == mOverflowPolicy) {
+                    // a worker waiting for a worker may wait forever, so its posts run inline instead
+                    if (Boolean.TRUE == mIsWorker.get()) {
+                        synchronized (metrics) {
+                            ++metrics.postCount;
+                        }
+                        return false;
+                    }
+                    try {
+                        mAsyncLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                    continue;
+                }
+                synchronized (metrics) {
+                    ++metrics.postCount;
+                    if (DispatchQueue.REJECTED == result) {
+                        ++metrics.droppedCount;
+                    } else if (DispatchQueue.COALESCED == result) {
+                        ++metrics.coalescedCount;
+                    }
+                }
+                if (DispatchQueue.REPLACED == result) {
+                    Metrics droppedMetrics = getOrCreateMetrics(queue.getDropped().eventId);
+                    synchronized (droppedMetrics) {
+                        ++droppedMetrics.droppedCount;
+                    }
+                }
+                if (DispatchQueue.ACCEPTED == result || DispatchQueue.REPLACED == result) {
+                    mAsyncLock.notifyAll();
+                }
+                return true;
+            }
+        }
+    }
+
+    private void work(DispatchQueue queue) {
+        mIsWorker.set(Boolean.TRUE);
+        while (true) {
+            DispatchQueue.Task task;
+            synchronized (mAsyncLock) {
+                while (0 == queue.size()) {
+                    if (mQueue != queue) {
+                        return;
+                    }
+                    try {
+                        mAsyncLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                task = queue.poll();
+                if (OVERFLOW_BLOCK == mOverflowPolicy) {
+                    mAsyncLock.notifyAll();
+                }
+            }
+            long startTime = System.nanoTime();
+            int failures = 0;
+            Handler[] handlers = mEventHandlerMap.get(task.eventId);
+            if (null != handlers) {
+                for (Handler handler : handlers) {
+                    if (null == handler) {
+                        continue;
+                    }
+                    try {
+                        handler.onCallback(task.param);
+                    } catch (RuntimeException e) {
+                        ++failures;
+                        onError(task, e);
+                    }
+                }
+            }
+            getOrCreateMetrics(task.eventId).dispatched(startTime - task.postTime, System.nanoTime() - startTime, failures);
+        }
+    }
+
+    private void onError(DispatchQueue.Task task, RuntimeException e) {
+        ErrorHandler errorHandler = mErrorHandler;
+        if (null == errorHandler) {
+            e.printStackTrace();
+            return;
+        }
+        try {
+            errorHandler.onError(task.eventId, task.param, e);
+        } catch (RuntimeException ignored) {
+            // a failing error handler must not kill the worker
+        }
+    }
+
+    private Metrics getOrCreateMetrics(Object eventId) {
+        Metrics metrics = mMetricsMap.get(eventId);
+        if (null == metrics) {
+            metrics = new Metrics();
+            Metrics oldMetrics = mMetricsMap.putIfAbsent(eventId, metrics);
+            if (null != oldMetrics) {
+                metrics = oldMetrics;
+            }
+        }
+        return metrics;
+    }
+
+    private static int indexOf(Handler[] handlers, Handler handler) {
+        for (int i = 0; i < handlers.length; ++i) {
+            if (null == handler ? null == handlers[i] : handler.equals(handlers[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
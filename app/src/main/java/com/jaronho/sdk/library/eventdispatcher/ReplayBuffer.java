@@ -0,0 +1,57 @@
+package com.jaronho.sdk.library.eventdispatcher;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   ReplayBuffer, bounded ring buffer of the last params posted for an event id
+ */
+
+class ReplayBuffer {
+    private final Object[] mItems;
+    private int mHead = 0;      // index of the oldest item
+    private int mSize = 0;
+
+    public ReplayBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new AssertionError("capacity <= 0");
+        }
+        mItems = new Object[capacity];
+    }
+
+    public int capacity() {
+        return mItems.length;
+    }
+
+    public synchronized void add(Object param) {
+        int tail = (mHead + mSize) % mItems.length;
+        mItems[tail] = param;
+        if (mSize < mItems.length) {
+            ++mSize;
+        } else {
+            mHead = (mHead + 1) % mItems.length;
+        }
+    }
+
+    // items from oldest to newest
+    public synchronized Object[] snapshot() {
+        Object[] items = new Object[mSize];
+        for (int i = 0; i < mSize; ++i) {
+            items[i] = mItems[(mHead + i) % mItems.length];
+        }
+        return items;
+    }
+
+    public synchronized void copyFrom(ReplayBuffer other) {
+        for (Object item : other.snapshot()) {
+            add(item);
+        }
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < mItems.length; ++i) {
+            mItems[i] = null;
+        }
+        mHead = 0;
+        mSize = 0;
+    }
+}
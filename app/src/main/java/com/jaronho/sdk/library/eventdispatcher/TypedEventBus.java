@@ -0,0 +1,159 @@
+package com.jaronho.sdk.library.eventdispatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   TypedEventBus, events are keyed by class, a handler subscribed to a class also receives its subclasses,
+ *          the class hierarchy is resolved once per posted class and cached as a flat handler array,
+ *          so post is one lookup and one array walk, handlers run synchronously on the posting thread
+ */
+
+public class TypedEventBus {
+    public static abstract class Handler<E> {
+        public abstract void onEvent(E event);
+    }
+
+    private static final Handler<?>[] EMPTY = new Handler<?>[0];
+    private static TypedEventBus mDefault = null;
+    private final Object mLock = new Object();
+    private final HashMap<Class<?>, Handler<?>[]> mSubscriptionMap = new HashMap<>();      // guarded by mLock
+    private final ConcurrentHashMap<Class<?>, Class<?>[]> mHierarchyMap = new ConcurrentHashMap<>();
+    // posted class -> handlers of the class and all its super types, replaced as a whole when subscriptions change
+    private volatile ConcurrentHashMap<Class<?>, Handler<?>[]> mDispatchTable = new ConcurrentHashMap<>();
+
+    public static TypedEventBus getDefault() {
+        if (null == mDefault) {
+            synchronized(TypedEventBus.class) {
+                if (null == mDefault) {
+                    mDefault = new TypedEventBus();
+                }
+            }
+        }
+        return mDefault;
+    }
+
+    public <E> void subscribe(Class<E> eventClass, Handler<? super E> handler) {
+        if (null == eventClass || null == handler) {
+            return;
+        }
+        synchronized (mLock) {
+            Handler<?>[] handlers = mSubscriptionMap.get(eventClass);
+            if (null == handlers) {
+                handlers = EMPTY;
+            }
+            for (Handler<?> h : handlers) {
+                if (h == handler) {
+                    return;
+                }
+            }
+            Handler<?>[] newHandlers = new Handler<?>[handlers.length + 1];
+            System.arraycopy(handlers, 0, newHandlers, 0, handlers.length);
+            newHandlers[handlers.length] = handler;
+            mSubscriptionMap.put(eventClass, newHandlers);
+            mDispatchTable = new ConcurrentHashMap<>();
+        }
+    }
+
+    // handler is null: unsubscribe all handlers of eventClass, eventClass is null: unsubscribe all
+    public void unsubscribe(Class<?> eventClass, Handler<?> handler) {
+        synchronized (mLock) {
+            if (null == eventClass) {
+                mSubscriptionMap.clear();
+            } else if (null == handler) {
+                mSubscriptionMap.remove(eventClass);
+            } else {
+                Handler<?>[] handlers = mSubscriptionMap.get(eventClass);
+                if (null == handlers) {
+                    return;
+                }
+                List<Handler<?>> handlerList = new ArrayList<>(handlers.length);
+                for (Handler<?> h : handlers) {
+                    if (h != handler) {
+                        handlerList.add(h);
+                    }
+                }
+                if (handlerList.size() == handlers.length) {
+                    return;
+                }
+                if (handlerList.isEmpty()) {
+                    mSubscriptionMap.remove(eventClass);
+                } else {
+                    mSubscriptionMap.put(eventClass, handlerList.toArray(new Handler<?>[handlerList.size()]));
+                }
+            }
+            mDispatchTable = new ConcurrentHashMap<>();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void post(Object event) {
+        if (null == event) {
+            return;
+        }
+        Class<?> cls = event.getClass();
+        Handler<?>[] handlers = mDispatchTable.get(cls);
+        if (null == handlers) {
+            handlers = buildDispatch(cls);
+        }
+        for (int i = 0, len = handlers.length; i < len; ++i) {
+            ((Handler<Object>)handlers[i]).onEvent(event);
+        }
+    }
+
+    public boolean hasSubscriber(Class<?> eventClass) {
+        Handler<?>[] handlers = mDispatchTable.get(eventClass);
+        if (null == handlers) {
+            handlers = buildDispatch(eventClass);
+        }
+        return handlers.length > 0;
+    }
+
+    private Handler<?>[] buildDispatch(Class<?> cls) {
+        Class<?>[] hierarchy = getHierarchy(cls);
+        synchronized (mLock) {
+            List<Handler<?>> handlerList = new ArrayList<>();
+            for (Class<?> c : hierarchy) {
+                Handler<?>[] handlers = mSubscriptionMap.get(c);
+                if (null != handlers) {
+                    for (Handler<?> h : handlers) {
+                        if (!handlerList.contains(h)) {
+                            handlerList.add(h);
+                        }
+                    }
+                }
+            }
+            Handler<?>[] handlers = handlerList.isEmpty() ? EMPTY : handlerList.toArray(new Handler<?>[handlerList.size()]);
+            mDispatchTable.put(cls, handlers);
+            return handlers;
+        }
+    }
+
+    // the class itself, its super classes and all implemented interfaces, most specific first
+    private Class<?>[] getHierarchy(Class<?> cls) {
+        Class<?>[] hierarchy = mHierarchyMap.get(cls);
+        if (null == hierarchy) {
+            Set<Class<?>> classSet = new LinkedHashSet<>();
+            for (Class<?> c = cls; null != c; c = c.getSuperclass()) {
+                classSet.add(c);
+            }
+            List<Class<?>> pending = new ArrayList<>(classSet);
+            for (int i = 0; i < pending.size(); ++i) {
+                for (Class<?> itf : pending.get(i).getInterfaces()) {
+                    if (classSet.add(itf)) {
+                        pending.add(itf);
+                    }
+                }
+            }
+            hierarchy = classSet.toArray(new Class<?>[classSet.size()]);
+            mHierarchyMap.put(cls, hierarchy);
+        }
+        return hierarchy;
+    }
+}
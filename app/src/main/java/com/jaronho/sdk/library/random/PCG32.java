@@ -0,0 +1,53 @@
+package com.jaronho.sdk.library.random;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   PCG32, PCG-XSH-RR with 64 bit state and 32 bit output, period 2^64 per stream,
+ *          2^63 selectable streams, split() picks a fresh stream
+ */
+
+public class PCG32 extends PRNG {
+    private static final long MULTIPLIER = 6364136223846793005L;
+    private long mState;
+    private final long mIncrement;      // stream selector, must be odd
+
+    public PCG32(long seed, long stream) {
+        mIncrement = (stream << 1) | 1L;
+        mState = 0;
+        next32();
+        mState += seed;
+        next32();
+    }
+
+    public PCG32(long seed) {
+        this(seed, 0xDA3E39CB94B95BDBL);
+    }
+
+    public PCG32() {
+        this(new SplitMix64().nextLong());
+    }
+
+    private int next32() {
+        long old = mState;
+        mState = old * MULTIPLIER + mIncrement;
+        int xorShifted = (int)(((old >>> 18) ^ old) >>> 27);
+        int rot = (int)(old >>> 59);
+        return Integer.rotateRight(xorShifted, rot);
+    }
+
+    @Override
+    public int nextInt() {
+        return next32();
+    }
+
+    @Override
+    public long nextLong() {
+        return ((long)next32() << 32) | (next32() & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public PCG32 split() {
+        return new PCG32(nextLong(), nextLong());
+    }
+}
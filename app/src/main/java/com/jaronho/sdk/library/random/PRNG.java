@@ -0,0 +1,104 @@
+package com.jaronho.sdk.library.random;
+
+import com.jaronho.sdk.library.Probability;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   PRNG, base of the 64 bit pseudo random generators, subclasses only provide nextLong and split,
+ *          generators are reproducible from their seed and not thread safe, use split() for per-thread streams
+ */
+
+public abstract class PRNG {
+    private static final double DOUBLE_UNIT = 0x1.0p-53;       // 1 / 2^53
+
+    // uniformly distributed 64 bits
+    public abstract long nextLong();
+
+    // new generator whose stream is statistically independent of this one, advances this generator
+    public abstract PRNG split();
+
+    // uniformly distributed 32 bits, taken from the high bits which are the strongest for every generator here
+    public int nextInt() {
+        return (int)(nextLong() >>> 32);
+    }
+
+    // uniform in [0, bound), unbiased (Lemire's multiply and reject), built on nextInt so 32 bit generators step once
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new AssertionError("bound must > 0, now is " + bound);
+        }
+        long m = (nextInt() & 0xFFFFFFFFL) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextInt() & 0xFFFFFFFFL) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int)(m >>> 32);
+    }
+
+    // uniform in [min, max)
+    public int nextInt(int min, int max) {
+        return min + nextInt(max - min);
+    }
+
+    // uniform in [0, 1) with 53 bits of precision
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    public double nextDouble(double min, double max) {
+        return min + nextDouble() * (max - min);
+    }
+
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    public void fill(double[] out, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; ++i) {
+            out[i] = (nextLong() >>> 11) * DOUBLE_UNIT;
+        }
+    }
+
+    public void fill(double[] out) {
+        fill(out, 0, out.length);
+    }
+
+    public void fill(long[] out, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; ++i) {
+            out[i] = nextLong();
+        }
+    }
+
+    public void fill(long[] out) {
+        fill(out, 0, out.length);
+    }
+
+    public void fill(int[] out, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; ++i) {
+            out[i] = nextInt();
+        }
+    }
+
+    public void fill(int[] out) {
+        fill(out, 0, out.length);
+    }
+
+    // plug this generator into Probability / DynamicProbability
+    public Probability.RandomHandler asRandomHandler() {
+        return new Probability.RandomHandler() {
+            @Override
+            public double random() {
+                return nextDouble();
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.jaronho.sdk.library.random;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   SplitMix64, Weyl sequence with a 64 bit finalizer, period 2^64, the fastest generator here,
+ *          also used to expand a single long seed into the state of the other generators
+ */
+
+public class SplitMix64 extends PRNG {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private long mSeed;
+    private final long mGamma;          // must be odd
+
+    public SplitMix64(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    public SplitMix64() {
+        this(System.nanoTime() ^ Thread.currentThread().getId() * GOLDEN_GAMMA);
+    }
+
+    private SplitMix64(long seed, long gamma) {
+        mSeed = seed;
+        mGamma = gamma;
+    }
+
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // odd gamma with enough bit transitions, as in java.util.SplittableRandom
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return n < 24 ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(mSeed += mGamma);
+    }
+
+    @Override
+    public SplitMix64 split() {
+        return new SplitMix64(nextLong(), mixGamma(mSeed += mGamma));
+    }
+}
@@ -0,0 +1,74 @@
+package com.jaronho.sdk.library.random;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   Xoshiro256, xoshiro256** generator, 256 bit state, period 2^256 - 1,
+ *          split() seeds the new generator from this one's output, so splits of splits are independent too,
+ *          jump() gives up to 2^128 streams of one generator that are guaranteed not to overlap
+ */
+
+public class Xoshiro256 extends PRNG {
+    private static final long[] JUMP = {0x180EC6D33CFD0ABAL, 0xD5A61266F0C9392CL, 0xA9582618E03FC9AAL, 0x39ABDC4529B1661CL};
+    private long mS0, mS1, mS2, mS3;
+
+    public Xoshiro256(long seed) {
+        SplitMix64 sm = new SplitMix64(seed);
+        mS0 = sm.nextLong();
+        mS1 = sm.nextLong();
+        mS2 = sm.nextLong();
+        mS3 = sm.nextLong();
+    }
+
+    public Xoshiro256() {
+        this(new SplitMix64().nextLong());
+    }
+
+    // raw state, must not be all zero
+    Xoshiro256(long s0, long s1, long s2, long s3) {
+        mS0 = s0;
+        mS1 = s1;
+        mS2 = s2;
+        mS3 = s3;
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(mS1 * 5, 7) * 9;
+        long t = mS1 << 17;
+        mS2 ^= mS0;
+        mS3 ^= mS1;
+        mS1 ^= mS2;
+        mS0 ^= mS3;
+        mS2 ^= t;
+        mS3 = Long.rotateLeft(mS3, 45);
+        return result;
+    }
+
+    // advance 2^128 steps
+    public void jump() {
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        for (long jump : JUMP) {
+            for (int b = 0; b < 64; ++b) {
+                if (0 != (jump & (1L << b))) {
+                    s0 ^= mS0;
+                    s1 ^= mS1;
+                    s2 ^= mS2;
+                    s3 ^= mS3;
+                }
+                nextLong();
+            }
+        }
+        mS0 = s0;
+        mS1 = s1;
+        mS2 = s2;
+        mS3 = s3;
+    }
+
+    // handing out the current stream and jumping this one would make a split of the split land on this stream again
+    @Override
+    public Xoshiro256 split() {
+        return new Xoshiro256(SplitMix64.mix64(nextLong()), SplitMix64.mix64(nextLong()),
+                SplitMix64.mix64(nextLong()), SplitMix64.mix64(nextLong()));
+    }
+}
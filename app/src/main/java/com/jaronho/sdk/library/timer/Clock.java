@@ -0,0 +1,20 @@
+package com.jaronho.sdk.library.timer;
+
+import android.os.SystemClock;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   Clock, time source in milliseconds for timer scheduling
+ */
+public abstract class Clock {
+    // monotonic clock since boot, including time spent in sleep
+    public static final Clock SYSTEM = new Clock() {
+        @Override
+        public long now() {
+            return SystemClock.elapsedRealtime();
+        }
+    };
+
+    public abstract long now();
+}
@@ -49,7 +49,8 @@ public class Timer {
             if (deltaTime >= mInterval) {
                 int runCount = (int)Math.floor(deltaTime / mInterval);
                 mCurrentCount = mCurrentCount + runCount;
-                mStartTime = currentTime;
+                // keep the phase of the original schedule (start + n * interval), so late updates do not drift
+                mStartTime += runCount * mInterval;
                 if (null != mRunHandler) {
                     mRunHandler.onCallback(this, runCount, mParam);
                 }
@@ -118,6 +119,14 @@ public class Timer {
         return mRunning;
     }
 
+    // time of the next update that may trigger callback
+    public long getNextTime() {
+        if (mTotalCount > 0 && mCurrentCount >= mTotalCount) {
+            return mStartTime;
+        }
+        return mStartTime + mInterval;
+    }
+
     public void setRunHandler(RunHandler runHandler) {
         mRunHandler = runHandler;
     }
@@ -1,13 +1,14 @@
 package com.jaronho.sdk.library.timer;
 
+import android.os.Build;
 import android.os.Handler;
-import android.os.Message;
-import android.os.SystemClock;
+import android.view.Choreographer;
 
-import java.util.Map.Entry;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Author:  jaron.ho
@@ -15,59 +16,56 @@ import java.util.concurrent.ConcurrentHashMap;
  * Brief:   TimerManager
  */
 public class TimerManager {
-    private class RunObject {
-        public Timer timer = null;
-        public Timer.RunHandler handler = null;
-        public RunObject(Timer.RunHandler handler) {
-            this.handler = handler;
-        }
-    }
-
-    private class OverObject {
-        public Timer timer = null;
-        public Timer.OverHandler handler = null;
-        public OverObject(Timer.OverHandler handler) {this.handler = handler;}
-    }
+    // dispatch target: run callbacks directly on the scheduler thread, callbacks must be short and must not block
+    public static final Executor INLINE = TimerScheduler.INLINE;
+    // dispatch target: main thread (default)
+    public static final Executor MAIN = null;
+    public static final long FRAME_INTERVAL = 16;        // frame duration at 60fps in milliseconds, suggested slack for ui timers
 
     private static TimerManager mInstance = null;
-    private final ConcurrentHashMap<String, Timer> mTimerMap = new ConcurrentHashMap<>();
-    private final Handler mRunHandler = new Handler() {
+    private static ExecutorService mWorkerPool = null;
+    private volatile boolean mFrameAligned = false;     // deliver batch at the next frame (api >= 16)
+    private final Handler mMainHandler = new Handler();
+    // the worker thread parks in awaitDue, so only a real time clock makes sense here
+    private final TimerScheduler mScheduler = new TimerScheduler(Clock.SYSTEM, new Executor() {
         @Override
-        public void handleMessage(Message msg) {
-            RunObject runObj = (RunObject)msg.obj;
-            if (null != runObj && null != runObj.handler) {
-                int runCount = msg.arg1;
-                runObj.handler.onCallback(runObj.timer, runCount, runObj.timer.getParam());
-            }
+        public void execute(Runnable command) {
+            mMainHandler.post(command);
         }
-    };
-    private final Handler mOverHandler = new Handler() {
+    }, new Executor() {
         @Override
-        public void handleMessage(Message msg) {
-            OverObject overObj = (OverObject)msg.obj;
-            if (null != overObj && null != overObj.handler) {
-                overObj.handler.onCallback(overObj.timer, overObj.timer.getParam());
-            }
-        }
-    };
-    private Thread mThread = new Thread(new Runnable() {
-        private void loopUpdate(long currentTime) {
-            Set<Entry<String, Timer>> entrySet = mTimerMap.entrySet();
-            for (Entry<String, Timer> entry : entrySet) {
-                Timer tm = entry.getValue();
-                if (null != tm) {
-                    tm.update(currentTime);
+        public void execute(final Runnable command) {
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (mFrameAligned && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                        Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+                            @Override
+                            public void doFrame(long frameTimeNanos) {
+                                command.run();
+                            }
+                        });
+                    } else {
+                        command.run();
+                    }
                 }
-            }
+            });
         }
-
+    });
+    private Thread mThread = new Thread(new Runnable() {
         @Override
         public void run() {
-            while (!mThread.isInterrupted()) {
-                loopUpdate(SystemClock.elapsedRealtime());
+            while (!Thread.currentThread().isInterrupted()) {
+                long currentTime;
+                try {
+                    currentTime = mScheduler.awaitDue();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                mScheduler.fire(currentTime);
             }
         }
-    });
+    }, "TimerManager");
 
     private TimerManager() {
         if (null != mThread) {
@@ -78,7 +76,7 @@ public class TimerManager {
     @Override
     protected void finalize() throws Throwable {
         super.finalize();
-        mTimerMap.clear();
+        mScheduler.clear(false);
         if (null != mThread) {
             mThread.interrupt();
             mThread = null;
@@ -96,37 +94,35 @@ public class TimerManager {
         return mInstance;
     }
 
-    public void run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB, final String id) {
-        if (interval > 0 && id.length() > 0) {
-            final RunObject runObj = new RunObject(runHandler);
-            final OverObject overObj = new OverObject(overHandler);
-            Timer tm = new Timer(interval, count, new Timer.RunHandler() {
-                @Override
-                public void onCallback(Timer tm, int runCount, Object param) {
-                    Message msg = mRunHandler.obtainMessage();
-                    msg.obj = runObj;
-                    msg.arg1 = runCount;
-                    mRunHandler.sendMessage(msg);
-                }
-            }, new Timer.OverHandler() {
-                @Override
-                public void onCallback(Timer tm, Object param) {
-                    if (mTimerMap.containsKey(id)) {
-                        mTimerMap.remove(id);
-                    }
-                    Message msg = mOverHandler.obtainMessage();
-                    msg.obj = overObj;
-                    mOverHandler.sendMessage(msg);
+    // shared pool for heavy callbacks such as log flush and polling
+    public static Executor getWorkerPool() {
+        if (null == mWorkerPool) {
+            synchronized(TimerManager.class) {
+                if (null == mWorkerPool) {
+                    int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+                    mWorkerPool = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+                        private int mCount = 0;
+                        @Override
+                        public synchronized Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "TimerManager-worker-" + (++mCount));
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
                 }
-            }, param);
-            tm.start(SystemClock.elapsedRealtime(), doStartCB);
-            runObj.timer = tm;
-            overObj.timer = tm;
-            if (mTimerMap.containsKey(id)) {
-                mTimerMap.remove(id);
             }
-            mTimerMap.put(id, tm);
         }
+        return mWorkerPool;
+    }
+
+    // executor: where callbacks run, MAIN(null) for main thread, INLINE for scheduler thread, getWorkerPool() or any Executor,
+    //           callbacks of one timer are serialized on the executor, so they run in order even on a pool
+    public void run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB, String id, Executor executor) {
+        mScheduler.run(interval, count, runHandler, overHandler, param, doStartCB, id, executor);
+    }
+
+    public void run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB, String id) {
+        run(interval, count, runHandler, overHandler, param, doStartCB, id, MAIN);
     }
 
     public void run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, boolean doStartCB, String id) {
@@ -141,6 +137,12 @@ public class TimerManager {
         run(interval, count, null, overHandler, null, false, id);
     }
 
+    public String run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB, Executor executor) {
+        String id = UUID.randomUUID().toString();
+        run(interval, count, runHandler, overHandler, param, doStartCB, id, executor);
+        return id;
+    }
+
     public String run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB) {
         String id = UUID.randomUUID().toString();
         run(interval, count, runHandler, overHandler, param, doStartCB, id);
@@ -166,24 +168,41 @@ public class TimerManager {
     }
 
     public void stop(String id, boolean doStopCB) {
-        if (mTimerMap.containsKey(id)) {
-            Timer tm = mTimerMap.remove(id);
-            if (null != tm) {
-                tm.stop(doStopCB);
-            }
-        }
+        mScheduler.stop(id, doStopCB);
     }
 
     public void clear(boolean doStopCB) {
-        if (!mTimerMap.isEmpty()) {
-            Set<Entry<String, Timer>> entrySet = mTimerMap.entrySet();
-            for (Entry<String, Timer> entry : entrySet) {
-                Timer tm = entry.getValue();
-                if (null != tm) {
-                    tm.stop(doStopCB);
-                }
-            }
-            mTimerMap.clear();
-        }
+        mScheduler.clear(doStopCB);
+    }
+
+    // batch: deliver all callbacks fired in the same tick to main thread with one message
+    // slack: round deadlines up to a multiple of slack milliseconds so that nearby timers fire in the same tick, <= 1 to disable
+    // frameAligned: deliver each batch at the next frame through Choreographer (api >= 16)
+    public void setBatchDispatch(boolean batch, long slack, boolean frameAligned) {
+        mFrameAligned = frameAligned;
+        mScheduler.setBatchDispatch(batch, slack);
+    }
+
+    public void setBatchDispatch(boolean batch) {
+        setBatchDispatch(batch, batch ? FRAME_INTERVAL : 0, false);
+    }
+
+    // number of callbacks dispatched
+    public long getCallbackCount() {
+        return mScheduler.getCallbackCount();
+    }
+
+    // number of messages sent to main thread
+    public long getMessageCount() {
+        return mScheduler.getMessageCount();
+    }
+
+    // number of messages saved by batch dispatch compared with one message per callback
+    public long getSavedMessageCount() {
+        return mScheduler.getCallbackCount() - mScheduler.getMessageCount();
+    }
+
+    public void resetCounters() {
+        mScheduler.resetCounters();
     }
 }
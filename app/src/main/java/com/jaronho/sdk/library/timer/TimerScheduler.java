@@ -0,0 +1,388 @@
+package com.jaronho.sdk.library.timer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   TimerScheduler, the timers by id on a timing wheel, slack rounding, executor routing and batch dispatch,
+ *          shared by TimerManager, whose worker thread waits for the next deadline in real time,
+ *          and VirtualTimerExecutor, which moves a VirtualClock from deadline to deadline and fires inline
+ */
+class TimerScheduler {
+    private static class RunObject {
+        public Timer timer = null;
+        public Timer.RunHandler handler = null;
+        public Executor executor = null;
+        public RunObject(Timer.RunHandler handler, Executor executor) {
+            this.handler = handler;
+            this.executor = executor;
+        }
+    }
+
+    private static class OverObject {
+        public Timer timer = null;
+        public Timer.OverHandler handler = null;
+        public Executor executor = null;
+        public OverObject(Timer.OverHandler handler, Executor executor) {
+            this.handler = handler;
+            this.executor = executor;
+        }
+    }
+
+    private static class PendingObject {
+        public final RunObject runObj;
+        public final OverObject overObj;
+        public final int runCount;
+        public PendingObject(RunObject runObj, OverObject overObj, int runCount) {
+            this.runObj = runObj;
+            this.overObj = overObj;
+            this.runCount = runCount;
+        }
+    }
+
+    // runs tasks one at a time in submission order on the target executor,
+    // so run callbacks of one timer never overlap or reorder and over always comes after the last run
+    private static class SerialExecutor implements Executor {
+        private final Executor mTarget;
+        private final ArrayDeque<Runnable> mTaskQueue = new ArrayDeque<>();
+        private Runnable mActive = null;
+        public SerialExecutor(Executor target) {
+            mTarget = target;
+        }
+
+        @Override
+        public synchronized void execute(final Runnable command) {
+            mTaskQueue.offer(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        command.run();
+                    } finally {
+                        scheduleNext();
+                    }
+                }
+            });
+            if (null == mActive) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            mActive = mTaskQueue.poll();
+            if (null != mActive) {
+                mTarget.execute(mActive);
+            }
+        }
+    }
+
+    private static class TimerEntry extends TimingWheel.Entry {
+        public final String id;
+        public final Timer timer;
+        public boolean cancelled = false;
+        public TimerEntry(String id, Timer timer) {
+            this.id = id;
+            this.timer = timer;
+        }
+    }
+
+    private static final long TICK_DURATION = 1;         // wheel tick in milliseconds
+    private static final int WHEEL_SIZE = 1024;          // number of wheel slots, must be a power of 2
+    // dispatch target: run callbacks directly on the thread that fires the timers
+    static final Executor INLINE = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final Clock mClock;
+    private final Executor mMain;                        // target of callbacks with a null executor, one task per callback
+    private final Executor mMainBatch;                   // target of the batches of callbacks with a null executor
+    private final ConcurrentHashMap<String, TimerEntry> mTimerMap = new ConcurrentHashMap<>();
+    private final Object mLock = new Object();           // guards mWheel and mWakeTime
+    private final TimingWheel mWheel;
+    private long mWakeTime = Long.MIN_VALUE;             // time awaitDue is parked until, Long.MIN_VALUE when not parked
+    private volatile Thread mFiringThread = null;        // thread inside fire, null callbacks dispatched on it are batched
+    private volatile boolean mBatchDispatch = false;     // deliver all callbacks fired in the same tick with one task
+    private volatile long mSlack = 0;                    // deadlines are rounded up to a multiple of slack so that nearby timers coalesce
+    private final List<TimingWheel.Entry> mExpired = new ArrayList<>();  // only accessed by the firing thread
+    private List<PendingObject> mPendingList = new ArrayList<>();        // callbacks fired in current tick, only accessed by the firing thread
+    private final AtomicLong mCallbackCount = new AtomicLong(0);   // number of callbacks dispatched to main
+    private final AtomicLong mMessageCount = new AtomicLong(0);    // number of tasks sent to main
+    private final AtomicLong mUpdateCount = new AtomicLong(0);     // number of Timer.update calls
+
+    // main: where callbacks with a null executor run, mainBatch: where their batches run
+    TimerScheduler(Clock clock, Executor main, Executor mainBatch) {
+        mClock = clock;
+        mMain = main;
+        mMainBatch = mainBatch;
+        mWheel = new TimingWheel(TICK_DURATION, WHEEL_SIZE, clock.now());
+    }
+
+    Clock getClock() {
+        return mClock;
+    }
+
+    // earliest deadline, Long.MAX_VALUE when no timer is scheduled
+    long nextDeadline() {
+        synchronized (mLock) {
+            return mWheel.nextDeadline();
+        }
+    }
+
+    // parks the calling thread until the earliest deadline is due, returns the current time,
+    // waits with Object.wait, so only a real time clock makes sense here, a scheduled earlier deadline wakes it up
+    long awaitDue() throws InterruptedException {
+        synchronized (mLock) {
+            try {
+                long currentTime = mClock.now();
+                long nextTime = mWheel.nextDeadline();
+                while (nextTime > currentTime) {
+                    mWakeTime = nextTime;
+                    mLock.wait(Long.MAX_VALUE == nextTime ? 0 : nextTime - currentTime);
+                    currentTime = mClock.now();
+                    nextTime = mWheel.nextDeadline();
+                }
+                return currentTime;
+            } finally {
+                mWakeTime = Long.MIN_VALUE;
+            }
+        }
+    }
+
+    // updates every timer due at currentTime, then sends the batch, called by one thread at a time
+    void fire(long currentTime) {
+        mFiringThread = Thread.currentThread();
+        try {
+            synchronized (mLock) {
+                mWheel.advance(currentTime, mExpired);
+            }
+            for (int i = 0, len = mExpired.size(); i < len; ++i) {
+                update((TimerEntry)mExpired.get(i), currentTime);
+            }
+            mExpired.clear();
+            flush();
+        } finally {
+            mFiringThread = null;
+        }
+    }
+
+    // called on the firing thread, outside of lock so that callbacks can call run/stop
+    private void update(TimerEntry entry, long currentTime) {
+        if (entry.cancelled) {
+            return;
+        }
+        Timer tm = entry.timer;
+        tm.update(currentTime);
+        mUpdateCount.incrementAndGet();
+        synchronized (mLock) {
+            if (!entry.cancelled && tm.isRunning()) {
+                schedule(entry);
+            }
+        }
+    }
+
+    // must hold mLock
+    private void schedule(TimerEntry entry) {
+        // the timer keeps its own phase, so rounding the nominal time never accumulates, each fire is late by < slack
+        long nextTime = entry.timer.getNextTime();
+        long slack = mSlack;
+        if (slack > 1) {
+            nextTime = (nextTime + slack - 1) / slack * slack;
+        }
+        mWheel.add(entry, nextTime);
+        if (nextTime < mWakeTime) {
+            mLock.notify();
+        }
+    }
+
+    // must hold mLock
+    private void cancel(TimerEntry entry) {
+        entry.cancelled = true;
+        mWheel.remove(entry);
+    }
+
+    private void dispatchRun(final RunObject runObj, final int runCount) {
+        if (null == runObj.handler) {
+            return;
+        }
+        if (null == runObj.executor && mBatchDispatch && Thread.currentThread() == mFiringThread) {
+            mCallbackCount.incrementAndGet();
+            mPendingList.add(new PendingObject(runObj, null, runCount));
+            return;
+        }
+        dispatch(runObj.executor, new Runnable() {
+            @Override
+            public void run() {
+                runObj.handler.onCallback(runObj.timer, runCount, runObj.timer.getParam());
+            }
+        });
+    }
+
+    private void dispatchOver(final OverObject overObj) {
+        if (null == overObj.handler) {
+            return;
+        }
+        if (null == overObj.executor && mBatchDispatch && Thread.currentThread() == mFiringThread) {
+            mCallbackCount.incrementAndGet();
+            mPendingList.add(new PendingObject(null, overObj, 0));
+            return;
+        }
+        dispatch(overObj.executor, new Runnable() {
+            @Override
+            public void run() {
+                overObj.handler.onCallback(overObj.timer, overObj.timer.getParam());
+            }
+        });
+    }
+
+    private void dispatch(Executor executor, Runnable task) {
+        if (INLINE == executor) {
+            task.run();
+        } else if (null != executor) {
+            executor.execute(task);
+        } else {
+            mCallbackCount.incrementAndGet();
+            mMessageCount.incrementAndGet();
+            mMain.execute(task);
+        }
+    }
+
+    // called on the firing thread after each tick, send all pending callbacks with one task
+    private void flush() {
+        if (mPendingList.isEmpty()) {
+            return;
+        }
+        final List<PendingObject> pendingList = mPendingList;
+        mPendingList = new ArrayList<>();
+        mMessageCount.incrementAndGet();
+        mMainBatch.execute(new Runnable() {
+            @Override
+            public void run() {
+                deliver(pendingList);
+            }
+        });
+    }
+
+    private static void deliver(List<PendingObject> pendingList) {
+        for (int i = 0, len = pendingList.size(); i < len; ++i) {
+            PendingObject pending = pendingList.get(i);
+            if (null != pending.runObj && null != pending.runObj.handler) {
+                pending.runObj.handler.onCallback(pending.runObj.timer, pending.runCount, pending.runObj.timer.getParam());
+            } else if (null != pending.overObj && null != pending.overObj.handler) {
+                pending.overObj.handler.onCallback(pending.overObj.timer, pending.overObj.timer.getParam());
+            }
+        }
+    }
+
+    // executor: null for main, INLINE for the firing thread, or any Executor, callbacks of one timer are serialized on it
+    void run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB, final String id, Executor executor) {
+        if (interval > 0 && id.length() > 0) {
+            if (null != executor && INLINE != executor) {
+                executor = new SerialExecutor(executor);
+            }
+            final RunObject runObj = new RunObject(runHandler, executor);
+            final OverObject overObj = new OverObject(overHandler, executor);
+            Timer tm = new Timer(interval, count, new Timer.RunHandler() {
+                @Override
+                public void onCallback(Timer tm, int runCount, Object param) {
+                    dispatchRun(runObj, runCount);
+                }
+            }, new Timer.OverHandler() {
+                @Override
+                public void onCallback(Timer tm, Object param) {
+                    removeTimer(id, tm);
+                    dispatchOver(overObj);
+                }
+            }, param);
+            runObj.timer = tm;
+            overObj.timer = tm;
+            TimerEntry entry = new TimerEntry(id, tm);
+            synchronized (mLock) {
+                TimerEntry oldEntry = mTimerMap.put(id, entry);
+                if (null != oldEntry) {
+                    cancel(oldEntry);
+                }
+            }
+            tm.start(mClock.now(), doStartCB);
+            // an inline start callback may have stopped or replaced the timer already
+            synchronized (mLock) {
+                if (!entry.cancelled && tm.isRunning()) {
+                    schedule(entry);
+                }
+            }
+        }
+    }
+
+    private void removeTimer(String id, Timer tm) {
+        synchronized (mLock) {
+            TimerEntry entry = mTimerMap.get(id);
+            if (null != entry && entry.timer == tm) {
+                mTimerMap.remove(id);
+                cancel(entry);
+            }
+        }
+    }
+
+    void stop(String id, boolean doStopCB) {
+        TimerEntry entry;
+        synchronized (mLock) {
+            entry = mTimerMap.remove(id);
+            if (null != entry) {
+                cancel(entry);
+            }
+        }
+        if (null != entry) {
+            entry.timer.stop(doStopCB);
+        }
+    }
+
+    void clear(boolean doStopCB) {
+        List<TimerEntry> entryList;
+        synchronized (mLock) {
+            entryList = new ArrayList<>(mTimerMap.values());
+            mTimerMap.clear();
+            for (TimerEntry entry : entryList) {
+                entry.cancelled = true;
+            }
+            mWheel.clear();
+        }
+        for (TimerEntry entry : entryList) {
+            entry.timer.stop(doStopCB);
+        }
+    }
+
+    void setBatchDispatch(boolean batch, long slack) {
+        mBatchDispatch = batch;
+        mSlack = slack;
+    }
+
+    // number of running timers
+    int size() {
+        return mTimerMap.size();
+    }
+
+    long getCallbackCount() {
+        return mCallbackCount.get();
+    }
+
+    long getMessageCount() {
+        return mMessageCount.get();
+    }
+
+    long getUpdateCount() {
+        return mUpdateCount.get();
+    }
+
+    void resetCounters() {
+        mCallbackCount.set(0);
+        mMessageCount.set(0);
+        mUpdateCount.set(0);
+    }
+}
@@ -0,0 +1,158 @@
+package com.jaronho.sdk.library.timer;
+
+import java.util.List;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   TimingWheel, hashed timing wheel, O(1) add and remove, the earliest deadline is cached so nextDeadline is O(1)
+ *          until the earliest entry leaves the wheel, not thread safe
+ */
+class TimingWheel {
+    static class Entry {
+        private long mDeadlineTick = 0;         // tick at which the entry expires
+        private int mSlot = -1;                 // slot index, -1 when not in wheel
+        private Entry mPrev = null;
+        private Entry mNext = null;
+
+        public boolean isScheduled() {
+            return -1 != mSlot;
+        }
+    }
+
+    private final long mTickDuration;           // tick duration in milliseconds
+    private final long mStartTime;              // time of tick 0
+    private final Entry[] mSlots;               // head of the entry list of each slot
+    private final int mMask;
+    private long mTick = 0;                     // last processed tick
+    private int mSize = 0;                      // number of entries in wheel
+    private long mMinTick = Long.MAX_VALUE;     // earliest deadline tick, valid only when mMinValid
+    private boolean mMinValid = true;
+
+    public TimingWheel(long tickDuration, int wheelSize, long startTime) {
+        if (tickDuration <= 0) {
+            throw new AssertionError("tickDuration <= 0");
+        }
+        if (wheelSize <= 0 || 0 != (wheelSize & (wheelSize - 1))) {
+            throw new AssertionError("wheelSize must be a power of 2, now is " + wheelSize);
+        }
+        mTickDuration = tickDuration;
+        mStartTime = startTime;
+        mSlots = new Entry[wheelSize];
+        mMask = wheelSize - 1;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public void add(Entry entry, long deadline) {
+        if (entry.isScheduled()) {
+            remove(entry);
+        }
+        long delta = deadline - mStartTime;
+        long tick = delta <= 0 ? 0 : (delta + mTickDuration - 1) / mTickDuration;
+        if (tick <= mTick) {
+            tick = mTick + 1;
+        }
+        int slot = (int)(tick & mMask);
+        entry.mDeadlineTick = tick;
+        entry.mSlot = slot;
+        entry.mPrev = null;
+        entry.mNext = mSlots[slot];
+        if (null != entry.mNext) {
+            entry.mNext.mPrev = entry;
+        }
+        mSlots[slot] = entry;
+        ++mSize;
+        if (mMinValid && tick < mMinTick) {
+            mMinTick = tick;
+        }
+    }
+
+    public void remove(Entry entry) {
+        if (!entry.isScheduled()) {
+            return;
+        }
+        if (null != entry.mPrev) {
+            entry.mPrev.mNext = entry.mNext;
+        } else {
+            mSlots[entry.mSlot] = entry.mNext;
+        }
+        if (null != entry.mNext) {
+            entry.mNext.mPrev = entry.mPrev;
+        }
+        entry.mSlot = -1;
+        entry.mPrev = null;
+        entry.mNext = null;
+        --mSize;
+        if (entry.mDeadlineTick == mMinTick) {
+            mMinValid = false;          // another entry may share the tick, recomputed on the next nextDeadline
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < mSlots.length; ++i) {
+            Entry entry = mSlots[i];
+            while (null != entry) {
+                Entry next = entry.mNext;
+                entry.mSlot = -1;
+                entry.mPrev = null;
+                entry.mNext = null;
+                entry = next;
+            }
+            mSlots[i] = null;
+        }
+        mSize = 0;
+        mMinTick = Long.MAX_VALUE;
+        mMinValid = true;
+    }
+
+    // earliest time at which an entry expires, Long.MAX_VALUE if wheel is empty
+    public long nextDeadline() {
+        if (0 == mSize) {
+            return Long.MAX_VALUE;
+        }
+        if (!mMinValid) {
+            mMinTick = scanMinTick();
+            mMinValid = true;
+        }
+        return mStartTime + mMinTick * mTickDuration;
+    }
+
+    // walks the slots from the current tick on, stops at the first slot holding an entry due in this round
+    private long scanMinTick() {
+        long minTick = Long.MAX_VALUE;
+        for (int i = 1; i <= mSlots.length; ++i) {
+            long tick = mTick + i;
+            for (Entry entry = mSlots[(int)(tick & mMask)]; null != entry; entry = entry.mNext) {
+                if (entry.mDeadlineTick <= tick) {
+                    return tick;
+                }
+                minTick = Math.min(minTick, entry.mDeadlineTick);
+            }
+        }
+        return minTick;
+    }
+
+    // move all entries expired at currentTime into expired list
+    public void advance(long currentTime, List<Entry> expired) {
+        long target = (currentTime - mStartTime) / mTickDuration;
+        if (target <= mTick) {
+            return;
+        }
+        long count = Math.min(target - mTick, mSlots.length);
+        for (long i = 1; i <= count; ++i) {
+            Entry entry = mSlots[(int)((mTick + i) & mMask)];
+            while (null != entry) {
+                Entry next = entry.mNext;
+                if (entry.mDeadlineTick <= target) {
+                    remove(entry);
+                    expired.add(entry);
+                }
+                entry = next;
+            }
+        }
+        mTick = target;
+    }
+}
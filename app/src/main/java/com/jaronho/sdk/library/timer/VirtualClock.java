@@ -0,0 +1,34 @@
+package com.jaronho.sdk.library.timer;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   VirtualClock, clock that only moves when told to, for tests and simulations
+ */
+public class VirtualClock extends Clock {
+    private long mTime = 0;     // current time in milliseconds
+
+    public VirtualClock(long startTime) {
+        mTime = startTime;
+    }
+
+    public VirtualClock() {
+        this(0);
+    }
+
+    @Override
+    public long now() {
+        return mTime;
+    }
+
+    public void set(long time) {
+        if (time < mTime) {
+            throw new AssertionError("time " + time + " < current time " + mTime);
+        }
+        mTime = time;
+    }
+
+    public void advance(long delta) {
+        set(mTime + delta);
+    }
+}
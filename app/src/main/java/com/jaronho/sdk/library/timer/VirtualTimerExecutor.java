@@ -0,0 +1,115 @@
+package com.jaronho.sdk.library.timer;
+
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   VirtualTimerExecutor, runs timers against a VirtualClock on the calling thread,
+ *          time jumps directly from one deadline to the next, no Android or wall clock needed,
+ *          scheduling, slack rounding, executor routing and batch dispatch are the ones of TimerManager
+ */
+public class VirtualTimerExecutor {
+    private final VirtualClock mClock;
+    private final TimerScheduler mScheduler;
+
+    // main: stands in for the main thread of TimerManager, runs callbacks with executor MAIN and their batches
+    public VirtualTimerExecutor(long startTime, Executor main) {
+        mClock = new VirtualClock(startTime);
+        mScheduler = new TimerScheduler(mClock, main, main);
+    }
+
+    public VirtualTimerExecutor(long startTime) {
+        this(startTime, TimerScheduler.INLINE);
+    }
+
+    public VirtualTimerExecutor() {
+        this(0);
+    }
+
+    public VirtualClock getClock() {
+        return mClock;
+    }
+
+    public long now() {
+        return mClock.now();
+    }
+
+    // number of running timers
+    public int size() {
+        return mScheduler.size();
+    }
+
+    public long getUpdateCount() {
+        return mScheduler.getUpdateCount();
+    }
+
+    // executor: as for TimerManager.run, MAIN(null) for main, INLINE for the thread calling advanceTo, or any Executor
+    public void run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB, String id, Executor executor) {
+        mScheduler.run(interval, count, runHandler, overHandler, param, doStartCB, id, executor);
+    }
+
+    public void run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB, String id) {
+        run(interval, count, runHandler, overHandler, param, doStartCB, id, TimerManager.MAIN);
+    }
+
+    public String run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB, Executor executor) {
+        String id = UUID.randomUUID().toString();
+        run(interval, count, runHandler, overHandler, param, doStartCB, id, executor);
+        return id;
+    }
+
+    public String run(long interval, int count, Timer.RunHandler runHandler, Timer.OverHandler overHandler, Object param, boolean doStartCB) {
+        String id = UUID.randomUUID().toString();
+        run(interval, count, runHandler, overHandler, param, doStartCB, id);
+        return id;
+    }
+
+    public void stop(String id, boolean doStopCB) {
+        mScheduler.stop(id, doStopCB);
+    }
+
+    public void clear(boolean doStopCB) {
+        mScheduler.clear(doStopCB);
+    }
+
+    // same as TimerManager.setBatchDispatch, batches go to main, there are no frames to align to
+    public void setBatchDispatch(boolean batch, long slack) {
+        mScheduler.setBatchDispatch(batch, slack);
+    }
+
+    public long getCallbackCount() {
+        return mScheduler.getCallbackCount();
+    }
+
+    public long getMessageCount() {
+        return mScheduler.getMessageCount();
+    }
+
+    public long getSavedMessageCount() {
+        return mScheduler.getCallbackCount() - mScheduler.getMessageCount();
+    }
+
+    public void resetCounters() {
+        mScheduler.resetCounters();
+    }
+
+    // advance virtual time to given time, firing every timer due on the way in deadline order
+    public void advanceTo(long time) {
+        long nextTime = mScheduler.nextDeadline();
+        while (nextTime <= time) {
+            long currentTime = Math.max(nextTime, mClock.now());
+            mClock.set(currentTime);
+            mScheduler.fire(currentTime);
+            nextTime = mScheduler.nextDeadline();
+        }
+        if (time > mClock.now()) {
+            mClock.set(time);
+        }
+    }
+
+    public void advanceBy(long delta) {
+        advanceTo(mClock.now() + delta);
+    }
+}
@@ -252,6 +252,7 @@ public class HttpInfo {
     public final static int ConnectionInterruption = 9;
     public final static int NetworkOnMainThreadException = 10;
     public final static int Message = 11;
+    public final static int ChecksumMismatch = 12;
 
     public HttpInfo packInfo(int netCode,int retCode, String retDetail) {
         this.netCode = netCode;
@@ -290,6 +291,9 @@ public class HttpInfo {
             case Message:
                 this.retDetail = "";
                 break;
+            case ChecksumMismatch:
+                this.retDetail = "文件校验失败";
+                break;
         }
         if (!TextUtils.isEmpty(retDetail)) {
             this.retDetail = retDetail;
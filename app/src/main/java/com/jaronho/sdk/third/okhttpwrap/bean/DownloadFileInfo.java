@@ -1,5 +1,6 @@
 package com.jaronho.sdk.third.okhttpwrap.bean;
 
+import com.jaronho.sdk.library.FileChecksum;
 import com.jaronho.sdk.third.okhttpwrap.annotation.DownloadStatus;
 import com.jaronho.sdk.third.okhttpwrap.callback.ProgressCallback;
 
@@ -17,6 +18,14 @@ public class DownloadFileInfo {
     private String saveFileNameWithExtension;// 保存文件名称: 包含扩展名
     private String saveFileNameCopy;    // 保存文件备用名称: 用于文件名称冲突
     private String saveFileNameEncrypt; // 保存文件名称(加密后)
+    private String checksumAlgorithm;   // 校验摘要算法,如:Hash.SHA256,为空时不校验
+    private int checksumChunkSize = FileChecksum.DEFAULT_CHUNK_SIZE;   // 校验分块大小
+    private String expectedChecksum;    // 期望的Merkle根(十六进制),为空时只计算不比对
+    private byte[][] expectedChunkDigests;  // 期望的块摘要(FileChecksum.hashChunks的结果),为空时只在下载完成后比对Merkle根
+    private String checksum;            // 下载完成后计算的Merkle根(十六进制)
+    private byte[][] chunkDigests;      // 已下载完整块的摘要,断点续传时复用
+    private String chunkDigestsAlgorithm;   // chunkDigests的摘要算法
+    private int chunkDigestsChunkSize;      // chunkDigests的分块大小
 
     public DownloadFileInfo(String url, String saveFileName, ProgressCallback progressCallback) {
         this.url = url;
@@ -103,4 +112,79 @@ public class DownloadFileInfo {
     public void setSaveFileNameEncrypt(String saveFileNameEncrypt) {
         this.saveFileNameEncrypt = saveFileNameEncrypt;
     }
+
+    public String getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    public void setChecksumAlgorithm(String checksumAlgorithm) {
+        this.checksumAlgorithm = checksumAlgorithm;
+    }
+
+    public int getChecksumChunkSize() {
+        return checksumChunkSize;
+    }
+
+    public void setChecksumChunkSize(int checksumChunkSize) {
+        this.checksumChunkSize = checksumChunkSize;
+    }
+
+    public String getExpectedChecksum() {
+        return expectedChecksum;
+    }
+
+    public void setExpectedChecksum(String expectedChecksum) {
+        this.expectedChecksum = expectedChecksum;
+    }
+
+    public byte[][] getExpectedChunkDigests() {
+        return expectedChunkDigests;
+    }
+
+    /**
+     * 设置期望的块摘要,算法和分块大小须与checksumAlgorithm,checksumChunkSize一致,
+     * 下载时每满一块即比对,不一致立即中止并截断到该块起点,下次从该块续传
+     */
+    public void setExpectedChunkDigests(byte[][] expectedChunkDigests) {
+        this.expectedChunkDigests = expectedChunkDigests;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public byte[][] getChunkDigests() {
+        return chunkDigests;
+    }
+
+    /**
+     * 获取可复用的块摘要,算法或分块大小与计算时不同则返回null
+     */
+    public byte[][] getChunkDigests(String algorithm, int chunkSize) {
+        if (null == chunkDigests || null == algorithm || !algorithm.equals(chunkDigestsAlgorithm) || chunkSize != chunkDigestsChunkSize) {
+            return null;
+        }
+        return chunkDigests;
+    }
+
+    public String getChunkDigestsAlgorithm() {
+        return chunkDigestsAlgorithm;
+    }
+
+    public int getChunkDigestsChunkSize() {
+        return chunkDigestsChunkSize;
+    }
+
+    /**
+     * 保存块摘要及计算时使用的算法和分块大小,chunkDigests为null时清除
+     */
+    public void setChunkDigests(byte[][] chunkDigests, String algorithm, int chunkSize) {
+        this.chunkDigests = chunkDigests;
+        this.chunkDigestsAlgorithm = null == chunkDigests ? null : algorithm;
+        this.chunkDigestsChunkSize = null == chunkDigests ? 0 : chunkSize;
+    }
 }
@@ -2,6 +2,8 @@ package com.jaronho.sdk.third.okhttpwrap.helper;
 
 import android.text.TextUtils;
 
+import com.jaronho.sdk.library.FileChecksum;
+import com.jaronho.sdk.library.Hash;
 import com.jaronho.sdk.third.okhttpwrap.HttpInfo;
 import com.jaronho.sdk.third.okhttpwrap.annotation.DownloadStatus;
 import com.jaronho.sdk.third.okhttpwrap.bean.DownloadFileInfo;
@@ -20,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.net.SocketTimeoutException;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -154,6 +157,8 @@ class DownUpLoadHelper extends BaseHelper{
         RandomAccessFile accessFile = null;
         InputStream inputStream = null;
         BufferedInputStream bis = null;
+        FileChecksum fileChecksum = null;
+        FileChecksum.Stream checksumStream = null;
         String filePath = fileInfo.getSaveFileDir()+fileInfo.getSaveFileNameWithExtension();
         try {
             ResponseBody responseBody = res.body();
@@ -164,8 +169,22 @@ class DownUpLoadHelper extends BaseHelper{
             if (TextUtils.isEmpty(res.header("Content-Range"))){
                 completedSize = 0L;
                 fileInfo.setCompletedSize(completedSize);
+                fileInfo.setChunkDigests(null, null, 0);
             }
             accessFile.seek(completedSize);
+            // 边下载边计算分块摘要,续传时只重新计算续传位置之后的块,算法或分块大小变化时全部重新计算,
+            // 设置了期望的块摘要时每满一块即比对
+            if (!TextUtils.isEmpty(fileInfo.getChecksumAlgorithm())) {
+                fileChecksum = new FileChecksum(fileInfo.getChecksumAlgorithm(), fileInfo.getChecksumChunkSize());
+                byte[][] chunkDigests = fileInfo.getChunkDigests(fileChecksum.getAlgorithm(), fileChecksum.getChunkSize());
+                checksumStream = fileChecksum.newStream(new File(fileInfo.getSaveFileDir(), fileInfo.getSaveFileNameEncrypt()), completedSize, chunkDigests, fileInfo.getExpectedChunkDigests());
+                // 已下载的部分与期望不一致
+                if (checksumStream.getFirstMismatch() >= 0) {
+                    truncateToChunk(accessFile, fileInfo, fileChecksum, checksumStream.getLeaves(), checksumStream.getFirstMismatch());
+                    checksumStream = null;
+                    return okHttpInfo.getHttpHelper().retInfo(info,HttpInfo.ChecksumMismatch);
+                }
+            }
             inputStream = responseBody.byteStream();
             byte[] buffer = new byte[2048];
             bis = new BufferedInputStream(inputStream);
@@ -173,12 +192,44 @@ class DownUpLoadHelper extends BaseHelper{
             while ((length = bis.read(buffer)) > 0 && (DownloadStatus.DOWNLOADING.equals(fileInfo.getDownloadStatus()))) {
                 accessFile.write(buffer, 0, length);
                 completedSize += length;
+                if (null != checksumStream) {
+                    checksumStream.update(buffer, 0, length);
+                    // 块校验失败,立即中止,不再下载后续数据
+                    if (checksumStream.getFirstMismatch() >= 0) {
+                        truncateToChunk(accessFile, fileInfo, fileChecksum, checksumStream.getLeaves(), checksumStream.getFirstMismatch());
+                        checksumStream = null;
+                        return okHttpInfo.getHttpHelper().retInfo(info,HttpInfo.ChecksumMismatch);
+                    }
+                }
             }
             if (DownloadStatus.PAUSE.equals(fileInfo.getDownloadStatus())) {
                 return okHttpInfo.getHttpHelper().retInfo(info,HttpInfo.Message,"暂停下载");
             }
             // 下载完成
             if (DownloadStatus.DOWNLOADING.equals(fileInfo.getDownloadStatus())) {
+                if (null != checksumStream) {
+                    byte[][] leaves = checksumStream.finish();
+                    // 最后一块不一致或块数与期望不同
+                    if (checksumStream.getFirstMismatch() >= 0) {
+                        truncateToChunk(accessFile, fileInfo, fileChecksum, leaves, checksumStream.getFirstMismatch());
+                        checksumStream = null;
+                        return okHttpInfo.getHttpHelper().retInfo(info,HttpInfo.ChecksumMismatch);
+                    }
+                    String checksum = Hash.toHex(fileChecksum.merkleRoot(leaves), false);
+                    checksumStream = null;
+                    fileInfo.setChecksum(checksum);
+                    fileInfo.setChunkDigests(null, null, 0);
+                    if (!TextUtils.isEmpty(fileInfo.getExpectedChecksum()) && !checksum.equalsIgnoreCase(fileInfo.getExpectedChecksum())) {
+                        // 校验失败,删除临时文件,下次重新下载
+                        accessFile.close();
+                        accessFile = null;
+                        boolean delete = new File(fileInfo.getSaveFileDir(), fileInfo.getSaveFileNameEncrypt()).delete();
+                        showLog("文件校验失败,删除["+delete+"]:"+fileInfo.getSaveFileNameEncrypt());
+                        fileInfo.setCompletedSize(0L);
+                        fileInfo.setDownloadStatus(DownloadStatus.INIT);
+                        return okHttpInfo.getHttpHelper().retInfo(info,HttpInfo.ChecksumMismatch);
+                    }
+                }
                 fileInfo.setDownloadStatus(DownloadStatus.COMPLETED);
                 File newFile = new File(fileInfo.getSaveFileDir(),fileInfo.getSaveFileNameWithExtension());
                 // 处理文件已存在逻辑
@@ -198,6 +249,10 @@ class DownUpLoadHelper extends BaseHelper{
         } catch (Exception e) {
             return okHttpInfo.getHttpHelper().retInfo(info,HttpInfo.ConnectionInterruption);
         } finally {
+            // 暂停,超时,中断时保存已写入完整块的摘要,续传时复用
+            if (null != checksumStream) {
+                fileInfo.setChunkDigests(checksumStream.getLeaves(), fileChecksum.getAlgorithm(), fileChecksum.getChunkSize());
+            }
             try {
                 if (null != bis) {
                     bis.close();
@@ -220,6 +275,19 @@ class DownUpLoadHelper extends BaseHelper{
         return okHttpInfo.getHttpHelper().retInfo(info,HttpInfo.SUCCESS,filePath);
     }
 
+    /**
+     * 块校验失败时截断到该块起点,只保留之前完整块的摘要,下次从该块续传
+     */
+    private void truncateToChunk(RandomAccessFile accessFile, DownloadFileInfo fileInfo, FileChecksum fileChecksum, byte[][] leaves, int mismatch) throws IOException {
+        long position = Math.min((long)mismatch * fileChecksum.getChunkSize(), accessFile.length());
+        accessFile.setLength(position);
+        int keep = (int)Math.min(mismatch, position / fileChecksum.getChunkSize());
+        fileInfo.setChunkDigests(Arrays.copyOf(leaves, Math.min(keep, leaves.length)), fileChecksum.getAlgorithm(), fileChecksum.getChunkSize());
+        fileInfo.setCompletedSize(position);
+        fileInfo.setDownloadStatus(DownloadStatus.INIT);
+        showLog("文件块["+mismatch+"]校验失败,截断到["+position+"]:"+fileInfo.getSaveFileNameEncrypt());
+    }
+
     /**
      * 获取断点文件已完成的节点
      */
@@ -243,6 +311,18 @@ class DownUpLoadHelper extends BaseHelper{
             showLog("断点文件下载: 文件名MD5加密失败 "+e.getMessage());
         }
         File file = new File(saveFileDir,saveFileNameEncrypt);
+        // 旧版本的文件名编码有误,找到旧名称的断点文件时改为新名称继续下载
+        if (!file.exists()) {
+            File legacyFile = new File(saveFileDir,EncryptUtil.legacyMD5StringTo32Bit(url,true));
+            if (!legacyFile.equals(file) && legacyFile.exists() && legacyFile.isFile()) {
+                boolean rename = legacyFile.renameTo(file);
+                showLog("断点文件下载: 旧文件名重命名["+rename+"]:"+legacyFile.getName());
+                if (!rename) {
+                    file = legacyFile;
+                    fileInfo.setSaveFileNameEncrypt(legacyFile.getName());
+                }
+            }
+        }
         if (file.exists() && file.isFile()) {
             long size = file.length();
             showLog("断点文件下载，节点["+size+"]");
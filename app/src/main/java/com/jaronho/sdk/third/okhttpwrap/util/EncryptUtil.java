@@ -1,6 +1,6 @@
 package com.jaronho.sdk.third.okhttpwrap.util;
 
-import java.security.MessageDigest;
+import com.jaronho.sdk.library.Hash;
 
 /**
  * 加密工具类
@@ -27,22 +27,29 @@ public class EncryptUtil {
      * @param isUpperCase 是否生成大写密文
      */
     public static String MD5StringTo32Bit(String originString,boolean isUpperCase) throws Exception {
-        String result = "";
-        if (null != originString) {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte bytes[] = md.digest(originString.getBytes());
-            for (byte aByte : bytes) {
-                String str = Integer.toHexString(aByte & 0xFF);
-                if (1 == str.length()) {
-                    str += "F";
-                }
-                result += str;
-            }
+        if (null == originString) {
+            return "";
         }
-        if (isUpperCase) {
-            return result.toUpperCase();
-        } else {
-            return result.toLowerCase();
+        return Hash.toHex(Hash.hash(Hash.MD5, originString.getBytes()), isUpperCase);
+    }
+
+    /**
+     * 旧版MD5StringTo32Bit的结果(小于0x10的字节补在后面的"F"而不是前面的"0"),仅用于查找旧版本保存的文件
+     * @param originString 加密字符串
+     * @param isUpperCase 是否生成大写密文
+     */
+    public static String legacyMD5StringTo32Bit(String originString,boolean isUpperCase) {
+        if (null == originString) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder();
+        for (byte aByte : Hash.hash(Hash.MD5, originString.getBytes())) {
+            String str = Integer.toHexString(aByte & 0xFF);
+            result.append(str);
+            if (1 == str.length()) {
+                result.append('F');
+            }
         }
+        return isUpperCase ? result.toString().toUpperCase() : result.toString().toLowerCase();
     }
 }
@@ -6,6 +6,8 @@ import android.app.Application.ActivityLifecycleCallbacks;
 import android.content.Context;
 import android.os.Bundle;
 
+import com.jaronho.sdk.library.eventdispatcher.EventCenter;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,10 +24,11 @@ public class ActivityTracker implements ActivityLifecycleCallbacks {
     private static int mActivityCount = 0;
     private static boolean mIsForground = false;
     private static Activity mTopActivity = null;
+    private static boolean mAutoUnsubscribe = false;
 
     @Override
     public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
-        if (!mActivityList.equals(activity)) {
+        if (!mActivityList.contains(activity)) {
             mActivityList.add(activity);
         }
     }
@@ -59,8 +62,12 @@ public class ActivityTracker implements ActivityLifecycleCallbacks {
 
     @Override
     public void onActivityDestroyed(Activity activity) {
-        if (mActivityList.equals(activity)) {
-            mActivityList.remove(activity);
+        mActivityList.remove(activity);
+        if (mTopActivity == activity) {
+            mTopActivity = null;
+        }
+        if (mAutoUnsubscribe) {
+            EventCenter.unsubscribe(activity);
         }
     }
 
@@ -79,6 +86,15 @@ public class ActivityTracker implements ActivityLifecycleCallbacks {
         }
     }
 
+    /**
+     * 功  能: 设置活动销毁时是否自动取消以该活动为tag的EventCenter订阅
+     * 参  数: enable - 是否开启
+     * 返回值: 无
+     */
+    public static void setAutoUnsubscribe(boolean enable) {
+        mAutoUnsubscribe = enable;
+    }
+
     /**
      * 功  能: 获取应用实例
      * 参  数: 无
@@ -0,0 +1,192 @@
+package com.jaronho.sdk.library;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   FileChecksumTest, a download resumed in the middle of a chunk and fed in random fragments streams to the same
+ *          Merkle root as hashFile of the finished file, with and without the saved leaves, a corrupt chunk is reported
+ *          as soon as it completes, and truncating to that chunk and resuming from there gives the correct root,
+ *          the same steps DownUpLoadHelper takes with expected chunk digests
+ */
+public class FileChecksumTest {
+    private static final int CHUNK_SIZE = 1000;
+
+    private static byte[] content(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static File write(byte[] data, int len) throws IOException {
+        File file = File.createTempFile("FileChecksumTest", ".tmp");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data, 0, len);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    // appends data[from, to) to the file and the stream in random fragments, like the download loop
+    private static void feed(File file, FileChecksum.Stream stream, byte[] data, int from, int to, Random random) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(from);
+            while (from < to) {
+                int len = Math.min(to - from, 1 + random.nextInt(3 * CHUNK_SIZE / 2));
+                raf.write(data, from, len);
+                stream.update(data, from, len);
+                from += len;
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Test
+    public void resumeMidChunkMatchesHashFile() throws IOException {
+        FileChecksum checksum = new FileChecksum(Hash.SHA256, CHUNK_SIZE);
+        Random random = new Random(1);
+        int[] sizes = {1, CHUNK_SIZE - 1, CHUNK_SIZE, CHUNK_SIZE + 1, 7 * CHUNK_SIZE + 123, 8 * CHUNK_SIZE};
+        for (int size : sizes) {
+            byte[] data = content(size, size);
+            byte[] root = checksum.hashFile(write(data, size));
+            int[] cuts = {0, size / 2, CHUNK_SIZE / 2, 3 * CHUNK_SIZE + 1, size - 1, size};
+            for (int cut : cuts) {
+                if (cut > size) {
+                    continue;
+                }
+                // first attempt up to the cut, its leaves are saved like the helper does on pause
+                File file = write(data, 0);
+                FileChecksum.Stream first = checksum.newStream(file, 0, null, null);
+                feed(file, first, data, 0, cut, random);
+                byte[][] saved = first.getLeaves();
+                assertEquals(cut / CHUNK_SIZE, saved.length);
+                // resumed with the saved leaves and without them, the part of the cut chunk is read back from the file
+                byte[][][] leaveSets = {saved, null};
+                for (byte[][] leaves : leaveSets) {
+                    File resumed = write(data, cut);
+                    FileChecksum.Stream stream = checksum.newStream(resumed, cut, leaves, null);
+                    feed(resumed, stream, data, cut, size, random);
+                    byte[][] finished = stream.finish();
+                    String name = "size " + size + " cut " + cut + (null == leaves ? " without leaves" : "");
+                    assertArrayEquals(name, root, checksum.merkleRoot(finished));
+                    assertArrayEquals(name, root, checksum.hashFile(resumed));
+                    assertEquals(name, checksum.hashChunks(resumed).length, finished.length);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void leavesAreDigestsOfPrefixedChunks() throws IOException {
+        FileChecksum checksum = new FileChecksum(Hash.SHA256, CHUNK_SIZE);
+        byte[] data = content(2 * CHUNK_SIZE + 10, 2);
+        byte[][] leaves = checksum.hashChunks(write(data, data.length));
+        assertEquals(3, leaves.length);
+        for (int i = 0; i < leaves.length; ++i) {
+            MessageDigest md = Hash.newDigest(Hash.SHA256);
+            md.update((byte)0x00);
+            md.update(data, i * CHUNK_SIZE, Math.min(CHUNK_SIZE, data.length - i * CHUNK_SIZE));
+            assertArrayEquals(md.digest(), leaves[i]);
+        }
+        // root = H(0x01 || H(0x01 || l0 || l1) || l2), the odd leaf moves up unchanged
+        MessageDigest md = Hash.newDigest(Hash.SHA256);
+        md.update((byte)0x01);
+        md.update(leaves[0]);
+        md.update(leaves[1]);
+        byte[] left = md.digest();
+        md.update((byte)0x01);
+        md.update(left);
+        md.update(leaves[2]);
+        assertArrayEquals(md.digest(), checksum.merkleRoot(leaves));
+        // an empty file is one empty chunk, whether hashed or streamed
+        byte[][] empty = checksum.hashChunks(write(data, 0));
+        assertEquals(1, empty.length);
+        md.update((byte)0x00);
+        assertArrayEquals(md.digest(), empty[0]);
+        assertArrayEquals(empty[0], checksum.merkleRoot(checksum.newStream(null, 0, null, null).finish()));
+    }
+
+    @Test
+    public void corruptChunkIsReportedWhenItCompletes() throws IOException {
+        FileChecksum checksum = new FileChecksum(Hash.SHA256, CHUNK_SIZE);
+        byte[] data = content(5 * CHUNK_SIZE + 300, 3);
+        byte[][] expected = checksum.hashChunks(write(data, data.length));
+        byte[] root = checksum.merkleRoot(expected);
+        byte[] corrupt = data.clone();
+        corrupt[2 * CHUNK_SIZE + 17] ^= 1;
+        File file = write(data, 0);
+        FileChecksum.Stream stream = checksum.newStream(file, 0, null, expected);
+        stream.update(corrupt, 0, 3 * CHUNK_SIZE - 1);
+        assertEquals(-1, stream.getFirstMismatch());
+        stream.update(corrupt, 3 * CHUNK_SIZE - 1, 1);
+        assertEquals(2, stream.getFirstMismatch());
+        // truncate to the start of the chunk, keep the leaves before it, resume from there
+        byte[][] kept = Arrays.copyOf(stream.getLeaves(), 2);
+        File truncated = write(corrupt, 2 * CHUNK_SIZE);
+        FileChecksum.Stream resumed = checksum.newStream(truncated, 2 * CHUNK_SIZE, kept, expected);
+        assertEquals(-1, resumed.getFirstMismatch());
+        feed(truncated, resumed, data, 2 * CHUNK_SIZE, data.length, new Random(3));
+        byte[][] finished = resumed.finish();
+        assertEquals(-1, resumed.getFirstMismatch());
+        assertArrayEquals(root, checksum.merkleRoot(finished));
+        assertArrayEquals(root, checksum.hashFile(truncated));
+    }
+
+    @Test
+    public void corruptPartIsReportedOnResume() throws IOException {
+        // the part already on disk is checked when the stream is created, a corrupt last chunk when it finishes
+        FileChecksum checksum = new FileChecksum(Hash.SHA256, CHUNK_SIZE);
+        byte[] data = content(4 * CHUNK_SIZE + 500, 4);
+        byte[][] expected = checksum.hashChunks(write(data, data.length));
+        byte[] corrupt = data.clone();
+        corrupt[CHUNK_SIZE + 1] ^= 1;
+        assertEquals(1, checksum.newStream(write(corrupt, 2 * CHUNK_SIZE + 5), 2 * CHUNK_SIZE + 5, null, expected).getFirstMismatch());
+        corrupt = data.clone();
+        corrupt[data.length - 1] ^= 1;
+        FileChecksum.Stream stream = checksum.newStream(write(corrupt, 4 * CHUNK_SIZE + 100), 4 * CHUNK_SIZE + 100, null, expected);
+        stream.update(corrupt, 4 * CHUNK_SIZE + 100, 400);
+        assertEquals(-1, stream.getFirstMismatch());
+        stream.finish();
+        assertEquals(4, stream.getFirstMismatch());
+    }
+
+    @Test
+    public void chunkCountIsCheckedOnFinish() throws IOException {
+        FileChecksum checksum = new FileChecksum(Hash.SHA256, CHUNK_SIZE);
+        byte[] data = content(3 * CHUNK_SIZE, 5);
+        byte[][] expected = checksum.hashChunks(write(data, data.length));
+        // shorter than expected: every chunk so far matches, the missing one is reported on finish
+        FileChecksum.Stream shorter = checksum.newStream(null, 0, null, expected);
+        shorter.update(data, 0, 2 * CHUNK_SIZE);
+        assertEquals(-1, shorter.getFirstMismatch());
+        shorter.finish();
+        assertEquals(2, shorter.getFirstMismatch());
+        // longer than expected: the extra chunk is reported as soon as it completes
+        byte[] longer = Arrays.copyOf(data, 4 * CHUNK_SIZE);
+        FileChecksum.Stream stream = checksum.newStream(null, 0, null, expected);
+        stream.update(longer, 0, longer.length);
+        assertEquals(3, stream.getFirstMismatch());
+        // the same data in full matches
+        FileChecksum.Stream exact = checksum.newStream(null, 0, null, expected);
+        exact.update(data, 0, data.length);
+        exact.finish();
+        assertEquals(-1, exact.getFirstMismatch());
+    }
+}
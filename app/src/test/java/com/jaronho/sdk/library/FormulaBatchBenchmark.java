@@ -0,0 +1,167 @@
+package com.jaronho.sdk.library;
+
+import java.util.Random;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   FormulaBatchBenchmark, throughput of the batch methods of Formula against a loop over the scalar method,
+ *          not run as part of the unit tests, run on a desktop jvm:
+ *              ./gradlew :app:compileDebugUnitTestJavaWithJavac
+ *              java -cp <test classes>:<classes> com.jaronho.sdk.library.FormulaBatchBenchmark
+ *          each variant is warmed up once, then measured ROUND_COUNT times, the best round is reported
+ *          sample run, openjdk 17 x86_64, 4096 points, ns/point, timings vary by about 30% between runs on this machine:
+ *                                      scalar loop     batch
+ *              distance                    2.0          0.8
+ *              point in rect               1.9          2.1
+ *              point in circle             2.4          2.0
+ *              point in triangle          10.4          2.2
+ *              segment intersection        8.9          7.3
+ *          the triangle gains most, its edge slopes are computed once per call instead of once per point,
+ *          rect, circle and segment results are bound by the data dependent branch per point, so the batch
+ *          is within run to run noise of the scalar loop there, hotspot also removes the float[2] the scalar
+ *          segment intersection returns, a compiler without escape analysis would allocate it per point
+ */
+public class FormulaBatchBenchmark {
+    private static final int POINT_COUNT = 4096;
+    private static final int REPEAT_COUNT = 2000;           // passes over the points per round
+    private static final int ROUND_COUNT = 5;
+
+    private interface Variant {
+        // one pass over the points, returns a checksum of the results so the work can not be optimized away
+        long run();
+    }
+
+    private static final float[] mXs = new float[POINT_COUNT];
+    private static final float[] mYs = new float[POINT_COUNT];
+    private static final float[] mDXs = new float[POINT_COUNT];
+    private static final float[] mDYs = new float[POINT_COUNT];
+    private static final float[] mOutXs = new float[POINT_COUNT];
+    private static final float[] mOutYs = new float[POINT_COUNT];
+    private static final boolean[] mHits = new boolean[POINT_COUNT];
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        for (int i = 0; i < POINT_COUNT; ++i) {
+            mXs[i] = (random.nextFloat() - 0.5f) * 400;
+            mYs[i] = (random.nextFloat() - 0.5f) * 400;
+            mDXs[i] = (random.nextFloat() - 0.5f) * 400;
+            mDYs[i] = (random.nextFloat() - 0.5f) * 400;
+        }
+        System.out.println("ns/point                    scalar loop     batch");
+        report("distance            ", new Variant() {
+            @Override
+            public long run() {
+                long sum = 0;
+                for (int i = 0; i < POINT_COUNT; ++i) {
+                    sum += Float.floatToRawIntBits(Formula.calcDistance(10, 20, mXs[i], mYs[i]));
+                }
+                return sum;
+            }
+        }, new Variant() {
+            @Override
+            public long run() {
+                Formula.calcDistances(10, 20, mXs, mYs, 0, POINT_COUNT, mOutXs);
+                long sum = 0;
+                for (int i = 0; i < POINT_COUNT; ++i) {
+                    sum += Float.floatToRawIntBits(mOutXs[i]);
+                }
+                return sum;
+            }
+        });
+        report("point in rect       ", new Variant() {
+            @Override
+            public long run() {
+                long hits = 0;
+                for (int i = 0; i < POINT_COUNT; ++i) {
+                    hits += Formula.isPointInRect(-50, -80, 120, 150, mXs[i], mYs[i]) ? 1 : 0;
+                }
+                return hits;
+            }
+        }, new Variant() {
+            @Override
+            public long run() {
+                return Formula.isPointsInRect(-50, -80, 120, 150, mXs, mYs, 0, POINT_COUNT, mHits);
+            }
+        });
+        report("point in circle     ", new Variant() {
+            @Override
+            public long run() {
+                long hits = 0;
+                for (int i = 0; i < POINT_COUNT; ++i) {
+                    hits += Formula.isPointInCircle(10, 20, 110.5f, mXs[i], mYs[i]) ? 1 : 0;
+                }
+                return hits;
+            }
+        }, new Variant() {
+            @Override
+            public long run() {
+                return Formula.isPointsInCircle(10, 20, 110.5f, mXs, mYs, 0, POINT_COUNT, mHits);
+            }
+        });
+        report("point in triangle   ", new Variant() {
+            @Override
+            public long run() {
+                long hits = 0;
+                for (int i = 0; i < POINT_COUNT; ++i) {
+                    hits += Formula.isPointInTriangle(-150, -120, 170, -90, 20, 160, mXs[i], mYs[i]) ? 1 : 0;
+                }
+                return hits;
+            }
+        }, new Variant() {
+            @Override
+            public long run() {
+                return Formula.isPointsInTriangle(-150, -120, 170, -90, 20, 160, mXs, mYs, 0, POINT_COUNT, mHits);
+            }
+        });
+        report("segment intersection", new Variant() {
+            @Override
+            public long run() {
+                long hits = 0;
+                for (int i = 0; i < POINT_COUNT; ++i) {
+                    float[] xy = Formula.calcSegmentIntersection(-150, -30, 170, 60, mXs[i], mYs[i], mDXs[i], mDYs[i], 0.1f, true);
+                    hits += Float.isNaN(xy[0]) ? 0 : 1;
+                }
+                return hits;
+            }
+        }, new Variant() {
+            @Override
+            public long run() {
+                return Formula.calcSegmentIntersections(-150, -30, 170, 60, mXs, mYs, mDXs, mDYs, 0, POINT_COUNT, 0.1f, true, mOutXs, mOutYs);
+            }
+        });
+    }
+
+    private static void report(String name, Variant scalar, Variant batch) {
+        long expected = scalar.run();
+        long batchResult = batch.run();
+        // the circle test may differ on points within float rounding of the circle, none of these random points are
+        if (batchResult != expected) {
+            throw new AssertionError(name.trim() + ": scalar " + expected + " and batch " + batchResult + " disagree");
+        }
+        long scalarTime = best(scalar, expected);
+        long batchTime = best(batch, expected);
+        long count = (long)POINT_COUNT * REPEAT_COUNT;
+        System.out.println(String.format("%s %12.1f %10.1f", name, (double)scalarTime / count, (double)batchTime / count));
+    }
+
+    private static long best(Variant variant, long expected) {
+        measure(variant, expected);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < ROUND_COUNT; ++r) {
+            best = Math.min(best, measure(variant, expected));
+        }
+        return best;
+    }
+
+    // nanoseconds for REPEAT_COUNT passes
+    private static long measure(Variant variant, long expected) {
+        long startTime = System.nanoTime();
+        for (int i = 0; i < REPEAT_COUNT; ++i) {
+            if (variant.run() != expected) {
+                throw new AssertionError("pass failed");
+            }
+        }
+        return System.nanoTime() - startTime;
+    }
+}
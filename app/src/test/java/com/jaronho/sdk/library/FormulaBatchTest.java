@@ -0,0 +1,224 @@
+package com.jaronho.sdk.library;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   FormulaBatchTest, every batch method of Formula gives the same result as its scalar counterpart,
+ *          on random input and on the edge cases of each rewrite: vertical and horizontal triangle edges,
+ *          degenerate triangles, points on edges and vertices, points on the circle, zero and negative radius,
+ *          parallel segments and the denominator limit, entries outside [offset, offset + count) are left alone
+ */
+public class FormulaBatchTest {
+    private static final int POINT_COUNT = 20000;
+    private static final int OFFSET = 3;            // batch calls skip the first and the last OFFSET entries
+
+    private final Random mRandom = new Random(19);
+
+    @Test
+    public void distancesMatchScalar() {
+        float[] xs = randomCoords(POINT_COUNT);
+        float[] ys = randomCoords(POINT_COUNT);
+        float[] out = new float[POINT_COUNT];
+        fill(out, -1);
+        Formula.calcDistances(12.5f, -7.25f, xs, ys, OFFSET, POINT_COUNT - 2 * OFFSET, out);
+        for (int i = 0; i < POINT_COUNT; ++i) {
+            if (inRange(i)) {
+                assertEquals("point " + i, Formula.calcDistance(12.5f, -7.25f, xs[i], ys[i]), out[i], 0.0f);
+            } else {
+                assertEquals("point " + i + " outside the range was written", -1.0f, out[i], 0.0f);
+            }
+        }
+    }
+
+    @Test
+    public void rectMatchesScalar() {
+        float[][] rects = {
+                {-10, -20, 30, 40},
+                {0, 0, 0, 0},           // a single point
+                {5, 5, -3, 2},          // negative width contains nothing
+                {-0.5f, 100, 1e6f, 1},
+        };
+        for (float[] rect : rects) {
+            float[] xs = randomCoords(POINT_COUNT);
+            float[] ys = randomCoords(POINT_COUNT);
+            // corners and edge midpoints are inside, nudged outward by one ulp they are not
+            setPoint(xs, ys, OFFSET, rect[0], rect[1]);
+            setPoint(xs, ys, OFFSET + 1, rect[0] + rect[2], rect[1] + rect[3]);
+            setPoint(xs, ys, OFFSET + 2, rect[0] + rect[2] / 2, rect[1]);
+            setPoint(xs, ys, OFFSET + 3, Math.nextAfter(rect[0], Double.NEGATIVE_INFINITY), rect[1]);
+            setPoint(xs, ys, OFFSET + 4, rect[0], Math.nextUp(rect[1] + rect[3]));
+            boolean[] out = new boolean[POINT_COUNT];
+            int hits = Formula.isPointsInRect(rect[0], rect[1], rect[2], rect[3], xs, ys, OFFSET, POINT_COUNT - 2 * OFFSET, out);
+            int expectedHits = 0;
+            for (int i = 0; i < POINT_COUNT; ++i) {
+                boolean expected = inRange(i) && Formula.isPointInRect(rect[0], rect[1], rect[2], rect[3], xs[i], ys[i]);
+                assertEquals("point " + i, expected, out[i]);
+                expectedHits += expected ? 1 : 0;
+            }
+            assertEquals(expectedHits, hits);
+        }
+    }
+
+    @Test
+    public void circleMatchesScalar() {
+        float[] xs = randomCoords(POINT_COUNT);
+        float[] ys = randomCoords(POINT_COUNT);
+        // on the circle with exact squares: 3-4-5 and 5-12-13 around (1, 2) with radius 5 and 13
+        setPoint(xs, ys, OFFSET, 4, 6);
+        setPoint(xs, ys, OFFSET + 1, 1, -3);
+        setPoint(xs, ys, OFFSET + 2, -4, 2);
+        setPoint(xs, ys, OFFSET + 3, 6, 14);
+        setPoint(xs, ys, OFFSET + 4, 1, 2);
+        setPoint(xs, ys, OFFSET + 5, Math.nextUp(6.0f), 2);
+        float[] radii = {5, 13, 0, -1, 250.5f};
+        boolean[] out = new boolean[POINT_COUNT];
+        for (float r : radii) {
+            int hits = Formula.isPointsInCircle(1, 2, r, xs, ys, OFFSET, POINT_COUNT - 2 * OFFSET, out);
+            int expectedHits = 0;
+            int boundaryCount = 0;
+            for (int i = 0; i < POINT_COUNT; ++i) {
+                if (!inRange(i)) {
+                    assertFalse(out[i]);
+                    continue;
+                }
+                boolean expected = Formula.isPointInCircle(1, 2, r, xs[i], ys[i]);
+                expectedHits += expected ? 1 : 0;
+                // the batch compares squared distances, both sides are rounded differently from sqrt(d) <= r,
+                // so a point within float rounding of the circle may land on either side
+                float d = Formula.calcDistance(1, 2, xs[i], ys[i]);
+                if (expected != out[i] && Math.abs(d - r) <= Math.ulp(r) * 2) {
+                    ++boundaryCount;
+                    continue;
+                }
+                assertEquals("point " + i + " radius " + r, expected, out[i]);
+            }
+            assertTrue(Math.abs(expectedHits - hits) <= boundaryCount);
+            assertTrue("random points hit the rounding band " + boundaryCount + " times", boundaryCount <= 2);
+        }
+        assertTrue(out[OFFSET + 4]);    // the center is inside for r = 250.5
+        Formula.isPointsInCircle(1, 2, 5, xs, ys, OFFSET, POINT_COUNT - 2 * OFFSET, out);
+        assertTrue(out[OFFSET] && out[OFFSET + 1] && out[OFFSET + 2] && out[OFFSET + 4]);
+        assertFalse(out[OFFSET + 5]);
+        Formula.isPointsInCircle(1, 2, 0, xs, ys, OFFSET, POINT_COUNT - 2 * OFFSET, out);
+        assertTrue(out[OFFSET + 4]);
+        assertEquals(0, Formula.isPointsInCircle(1, 2, -1, xs, ys, OFFSET, POINT_COUNT - 2 * OFFSET, out));
+    }
+
+    @Test
+    public void triangleMatchesScalar() {
+        float[][] triangles = {
+                {-50, -40, 60, -30, 10, 80},    // general
+                {0, 0, 0, 100, 70, 30},         // vertical edge AB
+                {-20, 10, 90, 10, 30, -60},     // horizontal edge AB
+                {0, 0, 50, 0, 0, 50},           // vertical and horizontal edges
+                {0, 0, 10, 10, 20, 20},         // degenerate, all on one line
+                {5, 5, 5, 5, 5, 5},             // degenerate, a single point
+                {-1e4f, -1e4f, 1e4f, -1e4f, 0, 1e4f},
+        };
+        for (int t = 0; t < 200; ++t) {
+            float[] tri = t < triangles.length ? triangles[t] : randomCoords(6);
+            float[] xs = randomCoords(POINT_COUNT);
+            float[] ys = randomCoords(POINT_COUNT);
+            // vertices, edge midpoints and the centroid
+            setPoint(xs, ys, OFFSET, tri[0], tri[1]);
+            setPoint(xs, ys, OFFSET + 1, tri[2], tri[3]);
+            setPoint(xs, ys, OFFSET + 2, tri[4], tri[5]);
+            setPoint(xs, ys, OFFSET + 3, (tri[0] + tri[2]) / 2, (tri[1] + tri[3]) / 2);
+            setPoint(xs, ys, OFFSET + 4, (tri[2] + tri[4]) / 2, (tri[3] + tri[5]) / 2);
+            setPoint(xs, ys, OFFSET + 5, (tri[0] + tri[2] + tri[4]) / 3, (tri[1] + tri[3] + tri[5]) / 3);
+            boolean[] out = new boolean[POINT_COUNT];
+            int hits = Formula.isPointsInTriangle(tri[0], tri[1], tri[2], tri[3], tri[4], tri[5], xs, ys, OFFSET, POINT_COUNT - 2 * OFFSET, out);
+            int expectedHits = 0;
+            for (int i = 0; i < POINT_COUNT; ++i) {
+                boolean expected = inRange(i) && Formula.isPointInTriangle(tri[0], tri[1], tri[2], tri[3], tri[4], tri[5], xs[i], ys[i]);
+                assertEquals("triangle " + t + " point " + i, expected, out[i]);
+                expectedHits += expected ? 1 : 0;
+            }
+            assertEquals(expectedHits, hits);
+        }
+    }
+
+    @Test
+    public void segmentIntersectionsMatchScalar() {
+        float[][] segments = {
+                {-100, 0, 100, 0},
+                {0, -100, 0, 100},              // vertical
+                {-100, -100, 100, 100},
+        };
+        float[] limits = {0, 0.1f, 500};
+        for (float[] ab : segments) {
+            float[] cXs = randomCoords(POINT_COUNT);
+            float[] cYs = randomCoords(POINT_COUNT);
+            float[] dXs = randomCoords(POINT_COUNT);
+            float[] dYs = randomCoords(POINT_COUNT);
+            // parallel to AB, collinear with AB, touching AB at its end point
+            setSegment(cXs, cYs, dXs, dYs, OFFSET, ab[0] + 1, ab[1] + 2, ab[2] + 1, ab[3] + 2);
+            setSegment(cXs, cYs, dXs, dYs, OFFSET + 1, ab[0], ab[1], ab[2], ab[3]);
+            setSegment(cXs, cYs, dXs, dYs, OFFSET + 2, ab[2], ab[3], ab[2] + 5, ab[3] - 7);
+            float[] outXs = new float[POINT_COUNT];
+            float[] outYs = new float[POINT_COUNT];
+            for (float limit : limits) {
+                for (boolean mustIn : new boolean[]{true, false}) {
+                    fill(outXs, -1);
+                    fill(outYs, -1);
+                    int hits = Formula.calcSegmentIntersections(ab[0], ab[1], ab[2], ab[3], cXs, cYs, dXs, dYs,
+                            OFFSET, POINT_COUNT - 2 * OFFSET, limit, mustIn, outXs, outYs);
+                    int expectedHits = 0;
+                    for (int i = 0; i < POINT_COUNT; ++i) {
+                        if (!inRange(i)) {
+                            assertEquals(-1.0f, outXs[i], 0.0f);
+                            assertEquals(-1.0f, outYs[i], 0.0f);
+                            continue;
+                        }
+                        float[] xy = Formula.calcSegmentIntersection(ab[0], ab[1], ab[2], ab[3], cXs[i], cYs[i], dXs[i], dYs[i], limit, mustIn);
+                        // NaN marks no intersection, compare bits so NaN equals NaN
+                        assertEquals("segment " + i, Float.floatToIntBits(xy[0]), Float.floatToIntBits(outXs[i]));
+                        assertEquals("segment " + i, Float.floatToIntBits(xy[1]), Float.floatToIntBits(outYs[i]));
+                        expectedHits += Float.isNaN(xy[0]) ? 0 : 1;
+                    }
+                    assertEquals(expectedHits, hits);
+                    assertTrue(Float.isNaN(outXs[OFFSET]) && Float.isNaN(outXs[OFFSET + 1]));
+                }
+            }
+        }
+    }
+
+    private float[] randomCoords(int count) {
+        float[] coords = new float[count];
+        for (int i = 0; i < count; ++i) {
+            // mostly small integers, which put many points exactly on edges, the rest uniform
+            coords[i] = 0 == (i & 1) ? mRandom.nextInt(401) - 200 : (mRandom.nextFloat() - 0.5f) * 400;
+        }
+        return coords;
+    }
+
+    private static boolean inRange(int i) {
+        return i >= OFFSET && i < POINT_COUNT - OFFSET;
+    }
+
+    private static void fill(float[] values, float value) {
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = value;
+        }
+    }
+
+    private static void setPoint(float[] xs, float[] ys, int i, float x, float y) {
+        xs[i] = x;
+        ys[i] = y;
+    }
+
+    private static void setSegment(float[] cXs, float[] cYs, float[] dXs, float[] dYs, int i, float cX, float cY, float dX, float dY) {
+        cXs[i] = cX;
+        cYs[i] = cY;
+        dXs[i] = dX;
+        dYs[i] = dY;
+    }
+}
@@ -0,0 +1,101 @@
+package com.jaronho.sdk.library;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   ListenerTest, attributes set through set(key, Object) come back with the boxed type they were set with,
+ *          numeric getters convert between the numeric types, and the table keeps every key across rehashes
+ */
+public class ListenerTest {
+    private static class TestListener extends Listener {
+        @Override
+        public void onCallback(int what, Object param) {
+        }
+    }
+
+    @Test
+    public void boxedTypesRoundTrip() {
+        Listener listener = new TestListener();
+        listener.set("byte", (byte)-7);
+        listener.set("short", (short)-300);
+        listener.set("int", 70000);
+        listener.set("long", 1L << 40);
+        listener.set("float", 1.5f);
+        listener.set("double", 2.25);
+        assertEquals(Byte.valueOf((byte)-7), listener.getObject("byte"));
+        assertEquals(Short.valueOf((short)-300), listener.getObject("short"));
+        assertEquals(Integer.valueOf(70000), listener.getObject("int"));
+        assertEquals(Long.valueOf(1L << 40), listener.getObject("long"));
+        assertEquals(Float.valueOf(1.5f), listener.getObject("float"));
+        assertEquals(Double.valueOf(2.25), listener.getObject("double"));
+        // callers that cast back to the type they set must keep working
+        assertEquals(-7, ((Byte)listener.get("byte", null)).byteValue());
+        assertEquals(-300, ((Short)listener.get("short", null)).shortValue());
+    }
+
+    @Test
+    public void numericGettersConvert() {
+        Listener listener = new TestListener();
+        listener.set("byte", (byte)5);
+        listener.set("short", (short)6);
+        listener.setInt("int", 7);
+        listener.setDouble("double", 8.75);
+        listener.set("boxed", new java.math.BigDecimal("9.5"));
+        assertEquals(5, listener.getInt("byte"));
+        assertEquals(6L, listener.getLong("short"));
+        assertEquals(6.0, listener.getDouble("short"), 0.0);
+        assertEquals(7.0f, listener.getFloat("int"), 0.0f);
+        assertEquals(8L, listener.getLong("double"));
+        assertEquals(9L, listener.getLong("boxed"));
+        assertEquals(9.5, listener.getDouble("boxed"), 0.0);
+        assertEquals(-1, listener.getInt("missing", -1));
+        assertEquals(0.5, listener.getDouble("missing", 0.5), 0.0);
+    }
+
+    @Test
+    public void overwriteChangesType() {
+        Listener listener = new TestListener();
+        listener.set("key", (short)1);
+        listener.set("key", "text");
+        assertEquals("text", listener.getString("key"));
+        listener.set("key", (byte)2);
+        assertEquals(Byte.valueOf((byte)2), listener.getObject("key"));
+        listener.set("key", null);
+        assertTrue(listener.has("key"));
+        assertNull(listener.getObject("key"));
+        assertFalse(listener.has("other"));
+    }
+
+    @Test
+    public void keepsKeysAcrossRehash() {
+        Listener listener = new TestListener();
+        Object[] objects = new Object[1000];
+        for (int i = 0; i < 1000; ++i) {
+            if (0 == i % 3) {
+                objects[i] = new Object();
+                listener.set("key" + i, objects[i]);
+            } else if (1 == i % 3) {
+                listener.set("key" + i, (short)i);
+            } else {
+                listener.setLong("key" + i, i * 1000000000L);
+            }
+        }
+        for (int i = 0; i < 1000; ++i) {
+            if (0 == i % 3) {
+                assertSame(objects[i], listener.getObject("key" + i));
+            } else if (1 == i % 3) {
+                assertEquals(Short.valueOf((short)i), listener.getObject("key" + i));
+            } else {
+                assertEquals(i * 1000000000L, listener.getLong("key" + i));
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.jaronho.sdk.library;
+
+import com.jaronho.sdk.library.random.SplitMix64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   ProbabilityBenchmark, draw and setWeight cost at 10, 1k and 100k outcomes of the linear range scan Probability
+ *          used before, the alias table of Probability (getValue and getValues) and the Fenwick tree of DynamicProbability,
+ *          not run as part of the unit tests, run on a desktop jvm:
+ *              ./gradlew :app:compileDebugUnitTestJavaWithJavac
+ *              java -cp <test classes>:<classes> com.jaronho.sdk.library.ProbabilityBenchmark
+ *          each variant is warmed up once, then measured ROUND_COUNT times, the best round is reported
+ *          sample run, openjdk 17 x86_64, random weights 1..1000, random numbers from SplitMix64, ns/operation:
+ *                                          10          1k        100k
+ *              draw   range scan            32.6       930.3     87600.3
+ *              draw   alias getValue        21.2        21.5        26.0
+ *              draw   alias getValues       20.2        22.4        26.5
+ *              draw   fenwick               33.7       107.5       175.1
+ *              update range scan           209.5     27461.9   3919378.9
+ *              update alias                342.5     25713.3   3479762.6
+ *              update fenwick               14.1        15.5        32.2
+ *          an alias draw costs about the same at every size, most of it is the random number behind RandomHandler,
+ *          the range scan and the alias table rebuild the whole table on setWeight, the Fenwick tree updates log n nodes
+ */
+public class ProbabilityBenchmark {
+    private static final int[] OUTCOME_COUNTS = {10, 1000, 100000};
+    private static final long WORK_BUDGET = 100000000L;    // about outcomes * operations per round for the O(n) variants
+    private static final int MAX_OPERATION_COUNT = 1 << 20;
+    private static final int ROUND_COUNT = 5;
+
+    private interface Variant {
+        // runs count operations, returns a checksum of the drawn values so the draws can not be optimized away
+        long run(int count);
+    }
+
+    // Probability before the alias table: a list of [value, begin, end] ranges scanned for a random index,
+    // setWeight shuffles the weight list and rebuilds every range
+    private static class RangeScanProbability {
+        private final List<int[]> mWeightList;
+        private final Probability.RandomHandler mRandomHandler;
+        private int mThreshold = 1;
+        private List<int[]> mWeightRange = null;
+
+        RangeScanProbability(List<int[]> weightList, Probability.RandomHandler randomHandler) {
+            mWeightList = weightList;
+            mRandomHandler = randomHandler;
+            parseWeightList();
+        }
+
+        private int random(int min, int max) {
+            return (int)(mRandomHandler.random() * (max - min) + min + 0.5f);
+        }
+
+        private void parseWeightList() {
+            for (int index = 0, count = mWeightList.size(); index < count; ++index) {
+                int randIndex = random(0, index);
+                if (randIndex != index) {
+                    int[] temp = mWeightList.get(randIndex);
+                    mWeightList.set(randIndex, mWeightList.get(index));
+                    mWeightList.set(index, temp);
+                }
+            }
+            mThreshold = 1;
+            mWeightRange = new ArrayList<>();
+            for (int i = 0, len = mWeightList.size(); i < len; ++i) {
+                int[] factor = mWeightList.get(i);
+                mWeightRange.add(new int[]{factor[0], mThreshold, mThreshold + factor[1] - 1});
+                mThreshold += factor[1];
+            }
+        }
+
+        int getValue() {
+            if (1 == mThreshold) {
+                return -1;
+            }
+            int index = random(1, mThreshold - 1);
+            for (int i = 0, len = mWeightRange.size(); i < len; ++i) {
+                int[] range = mWeightRange.get(i);
+                if (index >= range[1] && index <= range[2]) {
+                    return range[0];
+                }
+            }
+            return -1;
+        }
+
+        void setWeight(int value, int weight) {
+            for (int i = 0, len = mWeightList.size(); i < len; ++i) {
+                int[] factor = mWeightList.get(i);
+                if (value == factor[0]) {
+                    factor[1] = weight;
+                    break;
+                }
+            }
+            parseWeightList();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("ns/operation                        10          1k        100k");
+        String[] names = {"draw   range scan     ", "draw   alias getValue ", "draw   alias getValues", "draw   fenwick        ",
+                "update range scan     ", "update alias          ", "update fenwick        "};
+        double[][] results = new double[names.length][OUTCOME_COUNTS.length];
+        for (int s = 0; s < OUTCOME_COUNTS.length; ++s) {
+            final int n = OUTCOME_COUNTS[s];
+            Random random = new Random(n);
+            final int[] weights = new int[n];
+            for (int i = 0; i < n; ++i) {
+                weights[i] = 1 + random.nextInt(1000);
+            }
+            final int[] newWeights = new int[MAX_OPERATION_COUNT];
+            for (int i = 0; i < newWeights.length; ++i) {
+                newWeights[i] = 1 + random.nextInt(1000);
+            }
+            final RangeScanProbability rangeScan = new RangeScanProbability(weightList(weights), new SplitMix64(1).asRandomHandler());
+            final Probability alias = new Probability(weightList(weights), new SplitMix64(1).asRandomHandler());
+            final DynamicProbability fenwick = new DynamicProbability(weightList(weights), new SplitMix64(1).asRandomHandler());
+            final int[] out = new int[MAX_OPERATION_COUNT];
+            int linearCount = (int)Math.max(100, Math.min(MAX_OPERATION_COUNT, WORK_BUDGET / n));
+            int rebuildCount = (int)Math.max(20, Math.min(MAX_OPERATION_COUNT, WORK_BUDGET / 10 / n));
+            Variant[] variants = {
+                    new Variant() {
+                        @Override
+                        public long run(int count) {
+                            long sum = 0;
+                            for (int i = 0; i < count; ++i) {
+                                sum += rangeScan.getValue();
+                            }
+                            return sum;
+                        }
+                    },
+                    new Variant() {
+                        @Override
+                        public long run(int count) {
+                            long sum = 0;
+                            for (int i = 0; i < count; ++i) {
+                                sum += alias.getValue();
+                            }
+                            return sum;
+                        }
+                    },
+                    new Variant() {
+                        @Override
+                        public long run(int count) {
+                            alias.getValues(count, out);
+                            long sum = 0;
+                            for (int i = 0; i < count; ++i) {
+                                sum += out[i];
+                            }
+                            return sum;
+                        }
+                    },
+                    new Variant() {
+                        @Override
+                        public long run(int count) {
+                            long sum = 0;
+                            for (int i = 0; i < count; ++i) {
+                                sum += fenwick.getValue();
+                            }
+                            return sum;
+                        }
+                    },
+                    new Variant() {
+                        @Override
+                        public long run(int count) {
+                            for (int i = 0; i < count; ++i) {
+                                rangeScan.setWeight(i % n, newWeights[i]);
+                            }
+                            return rangeScan.getValue();
+                        }
+                    },
+                    new Variant() {
+                        @Override
+                        public long run(int count) {
+                            for (int i = 0; i < count; ++i) {
+                                alias.setWeight(i % n, newWeights[i]);
+                            }
+                            return alias.getValue();
+                        }
+                    },
+                    new Variant() {
+                        @Override
+                        public long run(int count) {
+                            for (int i = 0; i < count; ++i) {
+                                fenwick.setWeight(i % n, newWeights[i]);
+                            }
+                            return fenwick.getValue();
+                        }
+                    },
+            };
+            int[] counts = {linearCount, MAX_OPERATION_COUNT, MAX_OPERATION_COUNT, MAX_OPERATION_COUNT,
+                    rebuildCount, rebuildCount, MAX_OPERATION_COUNT};
+            for (int v = 0; v < variants.length; ++v) {
+                results[v][s] = (double)best(variants[v], counts[v]) / counts[v];
+            }
+        }
+        for (int v = 0; v < names.length; ++v) {
+            System.out.println(String.format("%s %10.1f %11.1f %11.1f", names[v], results[v][0], results[v][1], results[v][2]));
+        }
+    }
+
+    private static List<int[]> weightList(int[] weights) {
+        List<int[]> weightList = new ArrayList<>();
+        for (int i = 0; i < weights.length; ++i) {
+            weightList.add(new int[]{i, weights[i]});
+        }
+        return weightList;
+    }
+
+    private static long mSink = 0;
+
+    private static long best(Variant variant, int count) {
+        measure(variant, count);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < ROUND_COUNT; ++r) {
+            best = Math.min(best, measure(variant, count));
+        }
+        return best;
+    }
+
+    // nanoseconds for count operations
+    private static long measure(Variant variant, int count) {
+        long startTime = System.nanoTime();
+        mSink += variant.run(count);
+        return System.nanoTime() - startTime;
+    }
+}
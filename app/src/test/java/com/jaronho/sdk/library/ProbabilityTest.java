@@ -0,0 +1,265 @@
+package com.jaronho.sdk.library;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   ProbabilityTest, the alias table of Probability and the Fenwick tree of DynamicProbability draw every value
+ *          in proportion to its weight: exactly when the random numbers sweep [0, 1) evenly, within a chi-square bound
+ *          when they are random, values of weight 0 are never drawn and no positive weight gives -1
+ */
+public class ProbabilityTest {
+    private static final int SAMPLE_COUNT = 500000;
+
+    // random numbers from java.util.Random, so a failure can be reproduced from the seed
+    private static Probability.RandomHandler seeded(long seed) {
+        final Random random = new Random(seed);
+        return new Probability.RandomHandler() {
+            @Override
+            public double random() {
+                return random.nextDouble();
+            }
+        };
+    }
+
+    // (i + 0.5) / count for i = 0, 1, ..., count - 1, then again from 0
+    private static class SweepHandler extends Probability.RandomHandler {
+        private final int mCount;
+        private int mIndex = 0;
+
+        SweepHandler(int count) {
+            mCount = count;
+        }
+
+        @Override
+        public double random() {
+            double u = (mIndex + 0.5) / mCount;
+            mIndex = (mIndex + 1) % mCount;
+            return u;
+        }
+    }
+
+    private static List<int[]> weightList(int[] weights) {
+        List<int[]> weightList = new ArrayList<>();
+        for (int i = 0; i < weights.length; ++i) {
+            weightList.add(new int[]{100 + i, weights[i]});
+        }
+        return weightList;
+    }
+
+    // chi-square statistic of the counts of values 100 + i against weights[i], failing on a drawn value of weight 0
+    private static double chiSquare(int[] weights, int[] samples) {
+        long totalWeight = 0;
+        for (int weight : weights) {
+            totalWeight += weight;
+        }
+        long[] counts = new long[weights.length];
+        for (int sample : samples) {
+            int i = sample - 100;
+            assertTrue("drew unknown value " + sample, i >= 0 && i < weights.length);
+            assertTrue("drew value " + sample + " of weight 0", weights[i] > 0);
+            ++counts[i];
+        }
+        double chi = 0;
+        for (int i = 0; i < weights.length; ++i) {
+            if (weights[i] > 0) {
+                double expected = (double)samples.length * weights[i] / totalWeight;
+                chi += (counts[i] - expected) * (counts[i] - expected) / expected;
+            }
+        }
+        return chi;
+    }
+
+    // chi-square value exceeded with probability 0.001 for df degrees of freedom (Wilson-Hilferty)
+    private static double chiSquareLimit(int df) {
+        double a = 2.0 / (9 * df);
+        double b = 1 - a + 3.09 * Math.sqrt(a);
+        return df * b * b * b;
+    }
+
+    private static int positiveCount(int[] weights) {
+        int count = 0;
+        for (int weight : weights) {
+            count += weight > 0 ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static int[][] weightSets() {
+        Random random = new Random(7);
+        int[] many = new int[1000];
+        for (int i = 0; i < many.length; ++i) {
+            many[i] = 0 == i % 10 ? 0 : 1 + random.nextInt(1000);
+        }
+        return new int[][]{
+                {20, 60},
+                {1, 2, 3, 4, 5, 6, 7, 8, 9, 10},
+                {1, 0, 1000000, 0, 3, 1},       // heavily skewed, with zero weights between
+                {5, 5, 5, 5, 5, 5, 5},          // every column is full, no alias is used
+                many,
+        };
+    }
+
+    @Test
+    public void aliasMatchesWeights() {
+        for (int[] weights : weightSets()) {
+            Probability probability = new Probability(weightList(weights), seeded(weights.length));
+            int[] samples = new int[SAMPLE_COUNT];
+            probability.getValues(SAMPLE_COUNT, samples);
+            int df = positiveCount(weights) - 1;
+            if (df > 0) {
+                double chi = chiSquare(weights, samples);
+                assertTrue("chi-square " + chi + " for " + weights.length + " weights", chi < chiSquareLimit(df));
+            }
+        }
+    }
+
+    @Test
+    public void fenwickMatchesWeights() {
+        for (int[] weights : weightSets()) {
+            DynamicProbability probability = new DynamicProbability(weightList(weights), seeded(weights.length));
+            int[] samples = new int[SAMPLE_COUNT];
+            probability.getValues(SAMPLE_COUNT, samples);
+            int df = positiveCount(weights) - 1;
+            if (df > 0) {
+                double chi = chiSquare(weights, samples);
+                assertTrue("chi-square " + chi + " for " + weights.length + " weights", chi < chiSquareLimit(df));
+            }
+        }
+    }
+
+    @Test
+    public void evenSweepIsExact() {
+        int[] weights = {3, 0, 1, 7, 0, 5};
+        int totalWeight = 16;
+        // the fenwick tree maps [k / total, (k + 1) / total) to the k-th unit of weight, so a sweep of total * 64
+        // points hits every value exactly weight * 64 times
+        DynamicProbability dynamic = new DynamicProbability(weightList(weights), new SweepHandler(totalWeight * 64));
+        int[] counts = count(dynamic, totalWeight * 64, weights.length);
+        for (int i = 0; i < weights.length; ++i) {
+            assertEquals("value " + (100 + i), weights[i] * 64, counts[i]);
+        }
+        // the alias table splits [0, 1) into one column per positive value, a sweep of columns * 48 points is off
+        // by at most one point per column a value owns a part of
+        int columns = positiveCount(weights);
+        int sweep = columns * 48;
+        Probability alias = new Probability(weightList(weights), new SweepHandler(sweep));
+        int[] samples = new int[sweep];
+        alias.getValues(sweep, samples);
+        counts = new int[weights.length];
+        for (int sample : samples) {
+            ++counts[sample - 100];
+        }
+        for (int i = 0; i < weights.length; ++i) {
+            double expected = (double)sweep * weights[i] / totalWeight;
+            assertTrue("value " + (100 + i) + " drawn " + counts[i] + " times, expected " + expected,
+                    Math.abs(counts[i] - expected) <= columns);
+        }
+    }
+
+    @Test
+    public void zeroWeightsNeverDrawn() {
+        int[] weights = {0, 4, 0, 0, 9, 0};
+        Probability alias = new Probability(weightList(weights), seeded(1));
+        DynamicProbability dynamic = new DynamicProbability(weightList(weights), seeded(2));
+        for (int i = 0; i < 100000; ++i) {
+            int value = alias.getValue();
+            assertTrue("alias drew " + value, 101 == value || 104 == value);
+            value = dynamic.getValue();
+            assertTrue("fenwick drew " + value, 101 == value || 104 == value);
+        }
+        // a weight set to 0 later is not drawn either, and only 0 weights left means -1
+        alias.setWeight(104, 0);
+        dynamic.setWeight(104, 0);
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals(101, alias.getValue());
+            assertEquals(101, dynamic.getValue());
+        }
+        alias.setWeight(101, 0);
+        dynamic.setWeight(101, 0);
+        assertEquals(-1, alias.getValue());
+        assertEquals(-1, dynamic.getValue());
+        assertEquals(0, alias.getTotalWeight());
+        assertEquals(0L, dynamic.getTotalWeight());
+        int[] out = {7, 7, 7};
+        alias.getValues(3, out);
+        assertEquals(-1, out[2]);
+        dynamic.getValues(3, out);
+        assertEquals(-1, out[2]);
+        // reset restores the weights the alias table was built with
+        alias.reset();
+        assertEquals(13, alias.getTotalWeight());
+        assertEquals(-1, new Probability().getValue());
+        assertEquals(-1, new DynamicProbability().getValue());
+    }
+
+    @Test
+    public void extremeRandomNumbers() {
+        // 0 and the largest double below 1 must map to the first and the last unit of weight, never out of range
+        final double[] next = {0};
+        Probability.RandomHandler handler = new Probability.RandomHandler() {
+            @Override
+            public double random() {
+                return next[0];
+            }
+        };
+        int[] weights = {2, 0, 3, 1};
+        Probability alias = new Probability(weightList(weights), handler);
+        DynamicProbability dynamic = new DynamicProbability(weightList(weights), handler);
+        for (double u : new double[]{0, Math.nextAfter(1.0, 0), 1.0}) {
+            next[0] = u;
+            int value = alias.getValue();
+            assertTrue("alias drew " + value + " for " + u, 100 == value || 102 == value || 103 == value);
+        }
+        next[0] = 0;
+        assertEquals(100, dynamic.getValue());
+        next[0] = Math.nextAfter(1.0, 0);
+        assertEquals(103, dynamic.getValue());
+        next[0] = 1.0;
+        assertEquals(103, dynamic.getValue());
+    }
+
+    @Test
+    public void fenwickFollowsUpdates() {
+        Random random = new Random(3);
+        int[] weights = new int[300];          // grows the tree from 16 past 256
+        DynamicProbability dynamic = new DynamicProbability(null, seeded(4));
+        for (int i = 0; i < weights.length; ++i) {
+            weights[i] = random.nextInt(50);
+            dynamic.setWeight(100 + i, weights[i]);
+        }
+        for (int i = 0; i < 5000; ++i) {
+            int index = random.nextInt(weights.length);
+            weights[index] = random.nextInt(4) == 0 ? 0 : random.nextInt(200);
+            dynamic.setWeight(100 + index, weights[index]);
+        }
+        long totalWeight = 0;
+        for (int i = 0; i < weights.length; ++i) {
+            assertEquals(weights[i], dynamic.getWeight(100 + i));
+            totalWeight += weights[i];
+        }
+        assertEquals(totalWeight, dynamic.getTotalWeight());
+        int[] samples = new int[SAMPLE_COUNT];
+        dynamic.getValues(SAMPLE_COUNT, samples);
+        double chi = chiSquare(weights, samples);
+        assertTrue("chi-square " + chi, chi < chiSquareLimit(positiveCount(weights) - 1));
+    }
+
+    private static int[] count(DynamicProbability probability, int n, int valueCount) {
+        int[] samples = new int[n];
+        probability.getValues(n, samples);
+        int[] counts = new int[valueCount];
+        for (int sample : samples) {
+            ++counts[sample - 100];
+        }
+        return counts;
+    }
+}
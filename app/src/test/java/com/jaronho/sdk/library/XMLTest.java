@@ -0,0 +1,157 @@
+package com.jaronho.sdk.library;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.Text;
+import org.xml.sax.SAXException;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   XMLTest, read(content, key) gives what the DOM version gave for entities, CDATA, attributes, prefixed,
+ *          nested, duplicate, missing and root tags, and the documented differences where DOM threw or stopped
+ *          at the first text node, the multi-key reads take the first occurrence and stop once every key is found,
+ *          the pull parser comes from kxml2 on the unit test classpath, android.jar only has stubs
+ */
+public class XMLTest {
+    // XML.read(content, key) before the pull parser
+    private static String readDom(String content, String key) throws Exception {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(content.getBytes("UTF-8")));
+        Element root = doc.getDocumentElement();
+        NodeList nodes = root.getElementsByTagName(key);
+        if (1 == nodes.getLength()) {
+            Element e = (Element)nodes.item(0);
+            Text t = (Text)e.getFirstChild();
+            return t.getNodeValue();
+        }
+        return null;
+    }
+
+    private static final String[][] SAME_AS_DOM = {
+            // content, key, expected
+            {"<r><a>1</a><b>2</b></r>", "a", "1"},
+            {"<r><a>1</a><b>2</b></r>", "b", "2"},
+            {"<r><k>a &amp; b &lt;c&gt; &quot;&apos; &#65;&#x42;</k></r>", "k", "a & b <c> \"' AB"},
+            {"<r><k><![CDATA[<x> & &amp; y]]></k></r>", "k", "<x> & &amp; y"},
+            {"<r><k>1</k><k>2</k></r>", "k", null},                            // duplicate
+            {"<r><a><k>1</k></a><b><k>2</k></b></r>", "k", null},              // duplicate under different parents
+            {"<r><k><k>1</k></k></r>", "k", null},                             // duplicate, nested in itself
+            {"<r><a>1</a></r>", "k", null},                                    // missing
+            {"<r/>", "k", null},
+            {"<k><a>1</a></k>", "k", null},                                    // the root is not matched
+            {"<k><k>1</k></k>", "k", "1"},
+            {"<k><a><k>x</k></a></k>", "k", "x"},
+            {"<r><a><b><k>deep</k></b></a></r>", "k", "deep"},
+            {"<r><k>  a b \n\t</k></r>", "k", "  a b \n\t"},                   // whitespace is kept
+            {"<r><k id=\"1\" name='n'>v</k></r>", "k", "v"},
+            {"<?xml version=\"1.0\" encoding=\"UTF-8\"?><!-- c --><?pi x?><r><k>v</k></r>", "k", "v"},
+            {"<r xmlns:p=\"urn:x\"><p:k>v</p:k><k>w</k></r>", "p:k", "v"},    // tag names keep their prefix
+            {"<r xmlns:p=\"urn:x\"><p:k>v</p:k><k>w</k></r>", "k", "w"},
+            {"<r><p:k>v</p:k></r>", "p:k", "v"},                               // undeclared prefixes are no error
+            {"<r><k>ab<c/>cd</k></r>", "k", "ab"},                             // text before the first child tag
+            {"<r><k>\u4E2D\u6587 \uD83D\uDE00</k></r>", "k", "\u4E2D\u6587 \uD83D\uDE00"},
+            {"<r><K>1</K></r>", "k", null},                                    // names are case sensitive
+    };
+
+    @Test
+    public void readMatchesDom() throws Exception {
+        for (String[] c : SAME_AS_DOM) {
+            assertEquals(c[0] + " key " + c[1], c[2], readDom(c[0], c[1]));
+            assertEquals(c[0] + " key " + c[1], c[2], XML.read(c[0], c[1]));
+        }
+    }
+
+    @Test
+    public void readDiffersFromDomWhereDocumented() throws Exception {
+        // empty tag and a tag starting with a child: DOM failed on the missing or non-text first child
+        assertEquals("", XML.read("<r><k/></r>", "k"));
+        assertEquals("", XML.read("<r><k></k></r>", "k"));
+        assertEquals("", XML.read("<r><k><c>x</c></k></r>", "k"));
+        try {
+            readDom("<r><k/></r>", "k");
+            fail("dom read of an empty tag must throw");
+        } catch (NullPointerException e) {
+        }
+        try {
+            readDom("<r><k><c>x</c></k></r>", "k");
+            fail("dom read of a tag starting with a child must throw");
+        } catch (ClassCastException e) {
+        }
+        // text mixed with CDATA or comments: DOM stopped at the first text node
+        assertEquals("ab", readDom("<r><k>ab<![CDATA[cd]]>ef</k></r>", "k"));
+        assertEquals("abcdef", XML.read("<r><k>ab<![CDATA[cd]]>ef</k></r>", "k"));
+        assertEquals("ab", readDom("<r><k>ab<!--c-->cd</k></r>", "k"));
+        assertEquals("abcd", XML.read("<r><k>ab<!--c-->cd</k></r>", "k"));
+    }
+
+    @Test
+    public void readRejectsMalformedContent() throws Exception {
+        // read(content, key) parses the whole document like DOM did, so an error after the tag is still reported
+        String[] malformed = {"<r><k>1</k>", "<r><k>1</r>", "<r><k>1</k></r><r/>", "<r><k>&unknown;</k></r>", "no xml"};
+        for (String content : malformed) {
+            try {
+                XML.read(content, "k");
+                fail(content + " must throw");
+            } catch (SAXException e) {
+            }
+        }
+        // the per-thread parser is usable again after an error
+        assertEquals("1", XML.read("<r><k>1</k></r>", "k"));
+    }
+
+    @Test
+    public void readKeysInOnePass() throws Exception {
+        String content = "<r><a>1</a><b>x<![CDATA[<y>]]></b><a>2</a><c><d>&amp;</d></c></r>";
+        XML.KeySet keySet = XML.compile("d", "a", "missing", "b");
+        assertEquals(4, keySet.size());
+        assertEquals("missing", keySet.getKey(2));
+        // first occurrence wins, unlike read(content, key) which gives null for a duplicate tag
+        assertArrayEquals(new String[]{"&", "1", null, "x<y>"}, XML.read(content, keySet));
+        assertArrayEquals(new String[]{"&", "1", null, "x<y>"}, XML.read(new StringReader(content), keySet));
+        assertArrayEquals(new String[]{"&", "1", null, "x<y>"},
+                XML.read(new ByteArrayInputStream(content.getBytes("UTF-8")), "UTF-8", keySet));
+        assertArrayEquals(new String[]{"1", "&"}, XML.read(content, "a", "d"));
+        assertNull(XML.read(content, "a"));
+        // the root is not matched here either
+        assertArrayEquals(new String[]{null, "1"}, XML.read(content, "r", "a"));
+    }
+
+    @Test
+    public void readStopsOnceEveryKeyIsFound() throws Exception {
+        // everything after the last key is never parsed, so the broken tail is not reported
+        String content = "<r><a>1</a><b>2</b><broken></r>";
+        assertArrayEquals(new String[]{"1", "2"}, XML.read(content, "a", "b"));
+        try {
+            XML.read(content, "a", "b", "c");
+            fail("a missing key parses to the end and must hit the error");
+        } catch (XmlPullParserException e) {
+        }
+    }
+
+    @Test
+    public void compileCachesKeySets() {
+        assertSame(XML.compile("x", "y"), XML.compile("x", "y"));
+        // the cache key separates the names, so these two lists do not collide
+        assertEquals(2, XML.compile("ab", "c").size());
+        assertEquals("a", XML.compile("a", "bc").getKey(0));
+        try {
+            XML.compile("x", "y", "x");
+            fail("duplicate keys must be rejected");
+        } catch (AssertionError e) {
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.jaronho.sdk.library.bytearray;
+
+import java.lang.reflect.Method;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   ByteArrayDecodeBenchmark, primitive decode throughput and allocation rate of ByteArray against the
+ *          previous reader, which copied every value into a new byte[] through read(n) before decoding it,
+ *          not run as part of the unit tests, run on a desktop jvm:
+ *              ./gradlew :app:compileDebugUnitTestJavaWithJavac
+ *              java -cp <test classes>:<classes> com.jaronho.sdk.library.bytearray.ByteArrayDecodeBenchmark
+ *          each variant is warmed up once, then measured ROUND_COUNT times, the best round is reported,
+ *          allocation is read from the jvm per thread counter, so it is only shown on hotspot
+ *          sample run, openjdk 17 x86_64, one record is int16 + int + long + float + double:
+ *                                      default                 -XX:-DoEscapeAnalysis
+ *              copying reader:  8.9 ns,   0 bytes/record    30.2 ns, 120 bytes/record
+ *              ByteArray:      10.2 ns,   0 bytes/record    11.1 ns,   0 bytes/record
+ *          in this loop the hotspot server compiler proves the temporary arrays never escape and removes them,
+ *          run with -XX:-DoEscapeAnalysis to see the allocating path, which is what a compiler without that analysis runs
+ */
+public class ByteArrayDecodeBenchmark {
+    private static final int RECORD_COUNT = 20000;          // records per buffer, 26 bytes each
+    private static final int PASS_COUNT = 100;              // passes over the buffer per round
+    private static final int ROUND_COUNT = 5;
+
+    private interface Decoder {
+        // sum of the decoded values of one pass, so the reads can not be optimized away
+        long decode(ByteArray ba);
+    }
+
+    // the reader before in place decoding: read(n) allocates and fills a byte[] for every value
+    private static class CopyingReader {
+        private final byte[] mContent;
+        private final int mTotalSize;
+        private int mReadIndex = 0;
+
+        public CopyingReader(byte[] content, int totalSize) {
+            mContent = content;
+            mTotalSize = totalSize;
+        }
+
+        public short read_int16() {
+            byte[] p = read(2);
+            if (null == p) {
+                return 0;
+            }
+            return (short)((p[0] & 0xFF) | ((p[1] & 0xFF) << 8));
+        }
+
+        public int read_int() {
+            byte[] p = read(4);
+            if (null == p) {
+                return 0;
+            }
+            return (p[0] & 0xFF) | ((p[1] & 0xFF) << 8) | ((p[2] & 0xFF) << 16) | ((p[3] & 0xFF) << 24);
+        }
+
+        public long read_long() {
+            byte[] p = read(8);
+            if (null == p) {
+                return 0;
+            }
+            return (p[0] & 0xFFL) | ((p[1] & 0xFFL) << 8) | ((p[2] & 0xFFL) << 16) | ((p[3] & 0xFFL) << 24)
+                    | ((p[4] & 0xFFL) << 32) | ((p[5] & 0xFFL) << 40) | ((p[6] & 0xFFL) << 48) | ((p[7] & 0xFFL) << 56);
+        }
+
+        public float read_float() {
+            return Float.intBitsToFloat(read_int());
+        }
+
+        public double read_double() {
+            return Double.longBitsToDouble(read_long());
+        }
+
+        private byte[] read(int n) {
+            if (mReadIndex + n > mTotalSize) {
+                return null;
+            }
+            byte[] p = new byte[n];
+            System.arraycopy(mContent, mReadIndex, p, 0, n);
+            mReadIndex += n;
+            return p;
+        }
+    }
+
+    private static final Decoder COPYING = new Decoder() {
+        @Override
+        public long decode(ByteArray ba) {
+            CopyingReader reader = new CopyingReader(ba.getContent(), ba.getWriteIndex());
+            long sum = 0;
+            for (int i = 0; i < RECORD_COUNT; ++i) {
+                sum += reader.read_int16();
+                sum += reader.read_int();
+                sum += reader.read_long();
+                sum += Float.floatToRawIntBits(reader.read_float());
+                sum += Double.doubleToRawLongBits(reader.read_double());
+            }
+            return sum;
+        }
+    };
+
+    private static final Decoder IN_PLACE = new Decoder() {
+        @Override
+        public long decode(ByteArray content) {
+            ByteArray ba = ByteArray.wrap(content.getContent(), 0, content.getWriteIndex());
+            long sum = 0;
+            for (int i = 0; i < RECORD_COUNT; ++i) {
+                sum += ba.read_int16();
+                sum += ba.read_int();
+                sum += ba.read_long();
+                sum += Float.floatToRawIntBits(ba.read_float());
+                sum += Double.doubleToRawLongBits(ba.read_double());
+            }
+            return sum;
+        }
+    };
+
+    private static Object mThreadBean = null;
+    private static Method mAllocatedBytes = null;
+
+    public static void main(String[] args) {
+        ByteArray ba = new ByteArray(RECORD_COUNT * 26);
+        for (int i = 0; i < RECORD_COUNT; ++i) {
+            // negative and high bit values, so a sign extension bug would change the sum
+            ba.write_int16((short)(i * 40503));
+            ba.write_int(i * -1640531527);
+            ba.write_long(i * -7046029254386353131L);
+            ba.write_float(i * -0.75f);
+            ba.write_double(i * 1e300 / RECORD_COUNT);
+        }
+        long expected = COPYING.decode(ba);
+        if (IN_PLACE.decode(ba) != expected) {
+            throw new AssertionError("decoders disagree");
+        }
+        report("copying reader", COPYING, ba, expected);
+        report("ByteArray     ", IN_PLACE, ba, expected);
+    }
+
+    private static void report(String name, Decoder decoder, ByteArray ba, long expected) {
+        long[] result = best(decoder, ba, expected);
+        long records = (long)RECORD_COUNT * PASS_COUNT;
+        String allocation = result[1] < 0 ? "n/a" : String.format("%.1f", (double)result[1] / records);
+        System.out.println(String.format("%s: %5.1f ns/record, %s bytes/record", name, (double)result[0] / records, allocation));
+    }
+
+    // best time and the allocation of that round
+    private static long[] best(Decoder decoder, ByteArray ba, long expected) {
+        measure(decoder, ba, expected);
+        long[] best = {Long.MAX_VALUE, 0};
+        for (int r = 0; r < ROUND_COUNT; ++r) {
+            long[] result = measure(decoder, ba, expected);
+            if (result[0] < best[0]) {
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    // nanoseconds and bytes allocated for PASS_COUNT passes over the buffer
+    private static long[] measure(Decoder decoder, ByteArray ba, long expected) {
+        long startBytes = allocatedBytes();
+        long startTime = System.nanoTime();
+        for (int p = 0; p < PASS_COUNT; ++p) {
+            if (decoder.decode(ba) != expected) {
+                throw new AssertionError("decode failed");
+            }
+        }
+        long time = System.nanoTime() - startTime;
+        long endBytes = allocatedBytes();
+        return new long[]{time, startBytes < 0 ? -1 : endBytes - startBytes};
+    }
+
+    // bytes allocated so far by the current thread, -1 if the jvm does not count them,
+    // looked up by reflection since unit tests compile against android.jar, which has no java.lang.management
+    private static long allocatedBytes() {
+        try {
+            if (null == mAllocatedBytes) {
+                mThreadBean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+                mAllocatedBytes = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+            }
+            return (Long)mAllocatedBytes.invoke(mThreadBean, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
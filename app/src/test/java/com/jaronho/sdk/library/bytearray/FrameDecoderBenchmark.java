@@ -0,0 +1,226 @@
+package com.jaronho.sdk.library.bytearray;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Random;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   FrameDecoderBenchmark, decodes a stream of length-prefixed frames that arrives in fragments,
+ *          FrameDecoder reading from an InputStream and from a channel against the hand-written reader it replaces
+ *          (DataInputStream.readFully of the length then of a new byte[] per frame),
+ *          each source is split into 1-byte reads, random reads of 1..MAX_SPLIT bytes and whole reads,
+ *          not run as part of the unit tests, run on a desktop jvm:
+ *              ./gradlew :app:compileDebugUnitTestJavaWithJavac
+ *              java -cp <test classes>:<classes> com.jaronho.sdk.library.bytearray.FrameDecoderBenchmark
+ *          each variant is warmed up once, then measured ROUND_COUNT times, the best round is reported
+ *          sample run, openjdk 17 x86_64, 20000 frames of 16..512 bytes, MB/s:
+ *                              1-byte reads    random reads    whole reads
+ *              decoder stream         115.5          2844.0         4367.8
+ *              decoder channel         78.4          2863.2         4162.3
+ *              hand written           104.4          1810.4         2135.3
+ *          1-byte reads are bound by the per read call overhead, a channel read also moves the ByteBuffer position
+ */
+public class FrameDecoderBenchmark {
+    private static final int FRAME_COUNT = 20000;
+    private static final int MIN_FRAME_LENGTH = 16;
+    private static final int MAX_FRAME_LENGTH = 512;
+    private static final int MAX_SPLIT = 1500;              // about one tcp segment
+    private static final int ROUND_COUNT = 5;
+
+    private interface Reader {
+        // frame count and payload bytes of the whole stream, packed as count << 32 | bytes
+        long decode(byte[] data, int[] splits) throws IOException;
+    }
+
+    // returns at most splits[i] bytes from the i-th read, cycling through splits
+    private static class SplitInputStream extends InputStream {
+        private final byte[] mData;
+        private final int[] mSplits;
+        private int mPosition = 0;
+        private int mSplitIndex = 0;
+
+        public SplitInputStream(byte[] data, int[] splits) {
+            mData = data;
+            mSplits = splits;
+        }
+
+        @Override
+        public int read() {
+            return mPosition < mData.length ? mData[mPosition++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (mPosition >= mData.length) {
+                return -1;
+            }
+            int n = Math.min(Math.min(len, mSplits[mSplitIndex]), mData.length - mPosition);
+            mSplitIndex = (mSplitIndex + 1) % mSplits.length;
+            System.arraycopy(mData, mPosition, b, off, n);
+            mPosition += n;
+            return n;
+        }
+    }
+
+    private static class SplitChannel implements ReadableByteChannel {
+        private final byte[] mData;
+        private final int[] mSplits;
+        private int mPosition = 0;
+        private int mSplitIndex = 0;
+
+        public SplitChannel(byte[] data, int[] splits) {
+            mData = data;
+            mSplits = splits;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (mPosition >= mData.length) {
+                return -1;
+            }
+            int n = Math.min(Math.min(dst.remaining(), mSplits[mSplitIndex]), mData.length - mPosition);
+            mSplitIndex = (mSplitIndex + 1) % mSplits.length;
+            dst.put(mData, mPosition, n);
+            mPosition += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class CountHandler extends FrameDecoder.Handler {
+        public long frameCount = 0;
+        public long byteCount = 0;
+
+        @Override
+        public void onFrame(ByteArray frame) {
+            ++frameCount;
+            byteCount += frame.getCurrentLength();
+        }
+    }
+
+    private static final Reader DECODER_STREAM = new Reader() {
+        @Override
+        public long decode(byte[] data, int[] splits) throws IOException {
+            FrameDecoder decoder = new FrameDecoder();
+            CountHandler handler = new CountHandler();
+            InputStream in = new SplitInputStream(data, splits);
+            while (decoder.read(in, handler) >= 0) {
+            }
+            return handler.frameCount << 32 | handler.byteCount;
+        }
+    };
+
+    private static final Reader DECODER_CHANNEL = new Reader() {
+        @Override
+        public long decode(byte[] data, int[] splits) throws IOException {
+            FrameDecoder decoder = new FrameDecoder();
+            CountHandler handler = new CountHandler();
+            ReadableByteChannel channel = new SplitChannel(data, splits);
+            while (decoder.read(channel, handler) >= 0) {
+            }
+            return handler.frameCount << 32 | handler.byteCount;
+        }
+    };
+
+    // what the tcp reader did before FrameDecoder: block until the length and then the whole body arrived
+    private static final Reader HAND_WRITTEN = new Reader() {
+        @Override
+        public long decode(byte[] data, int[] splits) throws IOException {
+            DataInputStream in = new DataInputStream(new SplitInputStream(data, splits));
+            byte[] header = new byte[4];
+            long frameCount = 0;
+            long byteCount = 0;
+            while (true) {
+                try {
+                    in.readFully(header);
+                } catch (EOFException e) {
+                    break;
+                }
+                int len = (header[0] & 0xFF) | (header[1] & 0xFF) << 8 | (header[2] & 0xFF) << 16 | (header[3] & 0xFF) << 24;
+                byte[] body = new byte[len];
+                in.readFully(body);
+                ByteArray frame = new ByteArray(len);
+                frame.setContent(body, len);
+                ++frameCount;
+                byteCount += frame.getCurrentLength();
+            }
+            return frameCount << 32 | byteCount;
+        }
+    };
+
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FrameEncoder encoder = new FrameEncoder();
+        long payloadBytes = 0;
+        for (int i = 0; i < FRAME_COUNT; ++i) {
+            int len = MIN_FRAME_LENGTH + random.nextInt(MAX_FRAME_LENGTH - MIN_FRAME_LENGTH + 1);
+            byte[] body = new byte[len];
+            random.nextBytes(body);
+            ByteArray frame = new ByteArray(len);
+            frame.setContent(body, len);
+            encoder.write(frame, out);
+            payloadBytes += len;
+        }
+        byte[] data = out.toByteArray();
+        long expected = (long)FRAME_COUNT << 32 | payloadBytes;
+        int[] oneByte = {1};
+        int[] randomSplits = new int[4096];
+        for (int i = 0; i < randomSplits.length; ++i) {
+            randomSplits[i] = 1 + random.nextInt(MAX_SPLIT);
+        }
+        int[] whole = {Integer.MAX_VALUE};
+        System.out.println(String.format("%d frames, %d bytes", FRAME_COUNT, data.length));
+        report("decoder stream,  1-byte reads", DECODER_STREAM, data, oneByte, expected);
+        report("decoder channel, 1-byte reads", DECODER_CHANNEL, data, oneByte, expected);
+        report("hand written,    1-byte reads", HAND_WRITTEN, data, oneByte, expected);
+        report("decoder stream,  random reads", DECODER_STREAM, data, randomSplits, expected);
+        report("decoder channel, random reads", DECODER_CHANNEL, data, randomSplits, expected);
+        report("hand written,    random reads", HAND_WRITTEN, data, randomSplits, expected);
+        report("decoder stream,  whole reads ", DECODER_STREAM, data, whole, expected);
+        report("decoder channel, whole reads ", DECODER_CHANNEL, data, whole, expected);
+        report("hand written,    whole reads ", HAND_WRITTEN, data, whole, expected);
+    }
+
+    private static void report(String name, Reader reader, byte[] data, int[] splits, long expected) throws IOException {
+        long time = best(reader, data, splits, expected);
+        System.out.println(String.format("%s: %7.1f MB/s, %6.1f ns/frame",
+                name, data.length * 1000.0 / time, (double)time / FRAME_COUNT));
+    }
+
+    private static long best(Reader reader, byte[] data, int[] splits, long expected) throws IOException {
+        measure(reader, data, splits, expected);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < ROUND_COUNT; ++r) {
+            best = Math.min(best, measure(reader, data, splits, expected));
+        }
+        return best;
+    }
+
+    // nanoseconds to decode the whole stream
+    private static long measure(Reader reader, byte[] data, int[] splits, long expected) throws IOException {
+        long startTime = System.nanoTime();
+        long result = reader.decode(data, splits);
+        long time = System.nanoTime() - startTime;
+        if (result != expected) {
+            throw new AssertionError("decoded " + (result >>> 32) + " frames of " + (result & 0xFFFFFFFFL)
+                    + " bytes, expected " + (expected >>> 32) + " frames of " + (expected & 0xFFFFFFFFL) + " bytes");
+        }
+        return time;
+    }
+}
@@ -0,0 +1,228 @@
+package com.jaronho.sdk.library.bytearray;
+
+import com.jaronho.sdk.library.bytearray.annotation.ProtoField;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   ProtoCodecTest, the codecs ProtoCodecProcessor generates write the bytes of ReflectiveMessageSerializer,
+ *          both keep null apart from "" and empty arrays, and both report every truncated input as an error
+ */
+public class ProtoCodecTest {
+    public static class Base {
+        @ProtoField(index = 100)
+        public long baseId;
+        @ProtoField(index = 0)
+        String tag;
+    }
+
+    public static class AllTypes extends Base {
+        @ProtoField(index = 1)
+        public boolean b;
+        @ProtoField(index = 2)
+        public byte by;
+        @ProtoField(index = 3)
+        public char c;
+        @ProtoField(index = 4)
+        public short s;
+        @ProtoField(index = 5)
+        public int i;
+        @ProtoField(index = 6, varint = true)
+        public int vi;
+        @ProtoField(index = 7, varint = true, zigzag = true)
+        public int zi;
+        @ProtoField(index = 8)
+        public long l;
+        @ProtoField(index = 9, varint = true)
+        public long vl;
+        @ProtoField(index = 10, varint = true, zigzag = true)
+        public long zl;
+        @ProtoField(index = 11)
+        public float f;
+        @ProtoField(index = 12)
+        public double d;
+        @ProtoField(index = 13)
+        public String str;
+        @ProtoField(index = 14)
+        public int[] ints;
+        @ProtoField(index = 15, varint = true, zigzag = true)
+        public int[] varints;
+        @ProtoField(index = 16)
+        public long[] longs;
+        @ProtoField(index = 17, varint = true)
+        public long[] varlongs;
+        @ProtoField(index = 18)
+        public float[] floats;
+        @ProtoField(index = 19)
+        public double[] doubles;
+        // the base class has a field of this name too, the codec must reach both
+        @ProtoField(index = 20)
+        public String tag;
+    }
+
+    private static AllTypes full() {
+        AllTypes msg = new AllTypes();
+        msg.baseId = 0x123456789ABCL;
+        ((Base)msg).tag = "base";
+        msg.b = true;
+        msg.by = -7;
+        msg.c = '\u4E2D';
+        msg.s = -1234;
+        msg.i = 0x7FFFFFFF;
+        msg.vi = 300;
+        msg.zi = -5;
+        msg.l = Long.MIN_VALUE;
+        msg.vl = 1L << 40;
+        msg.zl = -123456789L;
+        msg.f = 1.5f;
+        msg.d = -Math.PI;
+        msg.str = "h\u00E9llo \uD83D\uDE00";
+        msg.ints = new int[]{1, -2, 3};
+        msg.varints = new int[]{-1, 0, 1, Integer.MIN_VALUE};
+        msg.longs = new long[]{Long.MAX_VALUE};
+        msg.varlongs = new long[]{0, 127, 128};
+        msg.floats = new float[]{0.25f};
+        msg.doubles = new double[]{1e300, -0.0};
+        msg.tag = "sub";
+        return msg;
+    }
+
+    private static AllTypes empty() {
+        AllTypes msg = new AllTypes();
+        ((Base)msg).tag = "";
+        msg.str = "";
+        msg.ints = new int[0];
+        msg.varints = new int[0];
+        msg.longs = new long[0];
+        msg.varlongs = new long[0];
+        msg.floats = new float[0];
+        msg.doubles = new double[0];
+        msg.tag = "";
+        return msg;
+    }
+
+    private static byte[] bytes(ByteArray ba) {
+        return Arrays.copyOf(ba.getContent(), ba.getCurrentLength());
+    }
+
+    private static byte[] writeGenerated(AllTypes msg) {
+        ByteArray ba = new ByteArray(1024);
+        assertTrue(ProtoCodecTest_AllTypesCodec.write(msg, ba));
+        return bytes(ba);
+    }
+
+    private static byte[] writeReflective(AllTypes msg) {
+        ByteArray ba = new ByteArray(1024);
+        assertTrue(ReflectiveMessageSerializer.get(AllTypes.class).write(msg, ba));
+        return bytes(ba);
+    }
+
+    private static void assertSame(AllTypes expected, AllTypes actual) {
+        assertEquals(expected.baseId, actual.baseId);
+        assertEquals(((Base)expected).tag, ((Base)actual).tag);
+        assertEquals(expected.b, actual.b);
+        assertEquals(expected.by, actual.by);
+        assertEquals(expected.c, actual.c);
+        assertEquals(expected.s, actual.s);
+        assertEquals(expected.i, actual.i);
+        assertEquals(expected.vi, actual.vi);
+        assertEquals(expected.zi, actual.zi);
+        assertEquals(expected.l, actual.l);
+        assertEquals(expected.vl, actual.vl);
+        assertEquals(expected.zl, actual.zl);
+        assertEquals(expected.f, actual.f, 0.0f);
+        assertEquals(expected.d, actual.d, 0.0);
+        assertEquals(expected.str, actual.str);
+        assertArrayEquals(expected.ints, actual.ints);
+        assertArrayEquals(expected.varints, actual.varints);
+        assertArrayEquals(expected.longs, actual.longs);
+        assertArrayEquals(expected.varlongs, actual.varlongs);
+        assertArrayEquals(expected.floats, actual.floats, 0.0f);
+        assertArrayEquals(expected.doubles, actual.doubles, 0.0);
+        assertEquals(expected.tag, actual.tag);
+    }
+
+    @Test
+    public void generatedMatchesReflective() {
+        AllTypes[] messages = {full(), empty(), new AllTypes()};
+        for (AllTypes msg : messages) {
+            byte[] data = writeGenerated(msg);
+            assertArrayEquals(writeReflective(msg), data);
+            AllTypes generated = ProtoCodecTest_AllTypesCodec.read(ByteArray.wrap(data, 0, data.length));
+            AllTypes reflective = ReflectiveMessageSerializer.get(AllTypes.class).read(ByteArray.wrap(data, 0, data.length));
+            assertSame(msg, generated);
+            assertSame(msg, reflective);
+        }
+    }
+
+    @Test
+    public void nullStaysApartFromEmpty() {
+        byte[] nulls = writeGenerated(new AllTypes());
+        byte[] empties = writeGenerated(empty());
+        assertFalse(Arrays.equals(nulls, empties));
+        AllTypes msg = ProtoCodecTest_AllTypesCodec.read(ByteArray.wrap(nulls, 0, nulls.length));
+        assertNull(msg.str);
+        assertNull(msg.ints);
+        assertNull(msg.doubles);
+        assertNull(((Base)msg).tag);
+        msg = ReflectiveMessageSerializer.get(AllTypes.class).read(ByteArray.wrap(empties, 0, empties.length));
+        assertEquals("", msg.str);
+        assertEquals(0, msg.ints.length);
+        assertEquals(0, msg.doubles.length);
+        assertEquals("", ((Base)msg).tag);
+    }
+
+    @Test
+    public void truncatedInputIsAnError() {
+        AllTypes[] messages = {full(), empty(), new AllTypes()};
+        for (AllTypes expected : messages) {
+            byte[] data = writeGenerated(expected);
+            for (int len = 0; len < data.length; ++len) {
+                assertFalse("generated, " + len + " of " + data.length + " bytes",
+                        ProtoCodecTest_AllTypesCodec.read(ByteArray.wrap(data, 0, len), new AllTypes()));
+                assertNull("generated, " + len + " of " + data.length + " bytes",
+                        ProtoCodecTest_AllTypesCodec.read(ByteArray.wrap(data, 0, len)));
+                assertNull("reflective, " + len + " of " + data.length + " bytes",
+                        ReflectiveMessageSerializer.get(AllTypes.class).read(ByteArray.wrap(data, 0, len)));
+            }
+            // bytes after the message are left for the next read
+            byte[] longer = Arrays.copyOf(data, data.length + 3);
+            ByteArray ba = ByteArray.wrap(longer, 0, longer.length);
+            assertSame(expected, ProtoCodecTest_AllTypesCodec.read(ba));
+            assertEquals(3, ba.getCurrentLength());
+        }
+    }
+
+    @Test
+    public void readPastWrittenContentIsAnError() {
+        // the buffer is larger than what was written, the bytes past the write position do not count
+        ByteArray ba = new ByteArray(1024);
+        ProtoCodecTest_AllTypesCodec.write(full(), ba);
+        assertTrue(ProtoCodecTest_AllTypesCodec.read(ba, new AllTypes()));
+        assertFalse(ba.isReadOverflow());
+        assertFalse(ProtoCodecTest_AllTypesCodec.read(ba, new AllTypes()));
+        // the flag stays until the buffer is reused
+        ba.read_bool();
+        assertTrue(ba.isReadOverflow());
+        ba.reuse();
+        assertFalse(ba.isReadOverflow());
+        ProtoCodecTest_AllTypesCodec.write(full(), ba);
+        assertSame(full(), ProtoCodecTest_AllTypesCodec.read(ba));
+        // a length prefix longer than the rest of the input
+        ByteArray lying = new ByteArray(64);
+        lying.write_varint(1000);
+        lying.write_int(1);
+        lying.read_varint_array(false);
+        assertTrue(lying.isReadOverflow());
+    }
+}
@@ -0,0 +1,90 @@
+package com.jaronho.sdk.library.eventdispatcher;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   EventDispatcherBenchmark, sync post throughput with 1, 4 and 16 posting threads while a
+ *          background thread keeps subscribing and unsubscribing, not run as part of the unit tests,
+ *          run on a desktop jvm:
+ *              ./gradlew :app:compileDebugUnitTestJavaWithJavac
+ *              java -cp <test classes>:<classes> com.jaronho.sdk.library.eventdispatcher.EventDispatcherBenchmark
+ *          each thread count is warmed up once, then measured ROUND_COUNT times, the best round is reported
+ */
+public class EventDispatcherBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 4, 16};
+    private static final int HANDLER_COUNT = 8;
+    private static final int POST_COUNT = 1000000;          // posts per thread per round
+    private static final int ROUND_COUNT = 5;
+
+    private static class CountHandler extends EventDispatcher.Handler {
+        public long count = 0;                              // racy on purpose, only keeps the call from being optimized away
+
+        @Override
+        public void onCallback(Object param) {
+            ++count;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        final EventDispatcher dispatcher = new EventDispatcher();
+        for (int i = 0; i < HANDLER_COUNT; ++i) {
+            dispatcher.subscribe("event", new CountHandler());
+        }
+        final AtomicLong churnCount = new AtomicLong(0);
+        Thread churn = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                CountHandler handler = new CountHandler();
+                while (!Thread.currentThread().isInterrupted()) {
+                    dispatcher.subscribe("event", handler);
+                    dispatcher.unsubscribe("event", handler);
+                    churnCount.incrementAndGet();
+                    Thread.yield();
+                }
+            }
+        }, "churn");
+        churn.setDaemon(true);
+        churn.start();
+        for (int threadCount : THREAD_COUNTS) {
+            measure(dispatcher, threadCount);
+            long best = Long.MAX_VALUE;
+            for (int r = 0; r < ROUND_COUNT; ++r) {
+                best = Math.min(best, measure(dispatcher, threadCount));
+            }
+            double postsPerSecond = (double)threadCount * POST_COUNT * 1000000000L / best;
+            System.out.println(String.format("threads=%2d  %,.0f posts/s  %.1f ns/post/thread", threadCount, postsPerSecond, (double)best / POST_COUNT));
+        }
+        churn.interrupt();
+        System.out.println("subscribe/unsubscribe pairs during run: " + churnCount.get());
+    }
+
+    // nanoseconds until all threads finished their posts
+    private static long measure(final EventDispatcher dispatcher, int threadCount) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; ++t) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < POST_COUNT; ++i) {
+                            dispatcher.post("event", null);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - startTime;
+    }
+}
@@ -0,0 +1,187 @@
+package com.jaronho.sdk.library.eventdispatcher;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   EventDispatcherStressTest, concurrent subscribe/unsubscribe/post, checks that no post throws
+ *          ConcurrentModificationException and that churn on an event id never loses another handler
+ */
+public class EventDispatcherStressTest {
+    private static final int THREAD_COUNT = 8;
+    private static final int EVENT_COUNT = 4;
+    private static final int ROUND_COUNT = 20000;
+
+    private static class CountHandler extends EventDispatcher.Handler {
+        public final AtomicLong count = new AtomicLong(0);
+
+        @Override
+        public void onCallback(Object param) {
+            count.incrementAndGet();
+        }
+    }
+
+    private static class Token {
+        public final Object owner;
+
+        public Token(Object owner) {
+            this.owner = owner;
+        }
+    }
+
+    // subscribed by one churn thread, remembers the last token that thread posted to it,
+    // posts of other threads may still reach it through the snapshot they took before an unsubscribe
+    private static class ChurnHandler extends EventDispatcher.Handler {
+        public volatile Token lastToken = null;
+
+        @Override
+        public void onCallback(Object param) {
+            if (param instanceof Token && this == ((Token)param).owner) {
+                lastToken = (Token)param;
+            }
+        }
+    }
+
+    @Test
+    public void syncChurn() throws Exception {
+        final EventDispatcher dispatcher = new EventDispatcher();
+        final CountHandler[] stable = subscribeStable(dispatcher);
+        final AtomicLong postCount = new AtomicLong(0);
+        List<Throwable> errors = runThreads(new Body() {
+            @Override
+            public void run(int threadIndex, Random random) {
+                ChurnHandler churn = new ChurnHandler();
+                for (int i = 0; i < ROUND_COUNT; ++i) {
+                    Object eventId = random.nextInt(EVENT_COUNT);
+                    Token token = new Token(churn);
+                    dispatcher.subscribe(eventId, churn);
+                    dispatcher.post(eventId, token);
+                    postCount.incrementAndGet();
+                    // sync mode: a handler subscribed before the post must have seen it
+                    assertTrue("subscribed handler missed a post", token == churn.lastToken);
+                    dispatcher.unsubscribe(eventId, churn);
+                    dispatcher.post(eventId, new Token(churn));
+                    postCount.incrementAndGet();
+                    assertTrue("unsubscribed handler still called", token == churn.lastToken);
+                }
+            }
+        });
+        assertTrue(errors.toString(), errors.isEmpty());
+        long total = 0;
+        for (CountHandler handler : stable) {
+            total += handler.count.get();
+        }
+        assertEquals("stable handlers lost posts", postCount.get(), total);
+        assertStableSubscribed(dispatcher, stable);
+    }
+
+    @Test
+    public void asyncChurn() throws Exception {
+        final EventDispatcher dispatcher = new EventDispatcher();
+        dispatcher.setAsync(4, 64, EventDispatcher.OVERFLOW_BLOCK);
+        final CountHandler[] stable = subscribeStable(dispatcher);
+        final AtomicLong postCount = new AtomicLong(0);
+        List<Throwable> errors = runThreads(new Body() {
+            @Override
+            public void run(int threadIndex, Random random) {
+                CountHandler churn = new CountHandler();
+                for (int i = 0; i < ROUND_COUNT; ++i) {
+                    Object eventId = random.nextInt(EVENT_COUNT);
+                    if (random.nextBoolean()) {
+                        dispatcher.subscribe(eventId, churn);
+                    } else {
+                        dispatcher.unsubscribe(eventId, churn);
+                    }
+                    dispatcher.post(eventId, i, random.nextInt(EventDispatcher.PRIORITY_LOW + 1));
+                    postCount.incrementAndGet();
+                }
+            }
+        });
+        assertTrue(errors.toString(), errors.isEmpty());
+        // OVERFLOW_BLOCK never drops, wait until the workers caught up
+        long deadline = System.currentTimeMillis() + 10000;
+        long total = 0;
+        while (System.currentTimeMillis() < deadline) {
+            total = 0;
+            for (CountHandler handler : stable) {
+                total += handler.count.get();
+            }
+            if (total >= postCount.get()) {
+                break;
+            }
+            Thread.sleep(10);
+        }
+        assertEquals("stable handlers lost posts", postCount.get(), total);
+        long failed = 0;
+        for (int i = 0; i < EVENT_COUNT; ++i) {
+            EventDispatcher.Metrics metrics = dispatcher.getMetrics(i);
+            assertEquals(0, metrics.droppedCount);
+            failed += metrics.failedCount;
+        }
+        assertEquals(0, failed);
+        dispatcher.setSync();
+        assertStableSubscribed(dispatcher, stable);
+    }
+
+    private interface Body {
+        void run(int threadIndex, Random random);
+    }
+
+    // runs body on THREAD_COUNT threads started together, returns everything they threw
+    private static List<Throwable> runThreads(final Body body) throws InterruptedException {
+        final List<Throwable> errors = new ArrayList<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(THREAD_COUNT);
+        for (int t = 0; t < THREAD_COUNT; ++t) {
+            final int threadIndex = t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        body.run(threadIndex, new Random(threadIndex));
+                    } catch (Throwable e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }, "stress-" + t).start();
+        }
+        start.countDown();
+        assertTrue("stress threads timed out", done.await(60, TimeUnit.SECONDS));
+        return errors;
+    }
+
+    // one handler per event id that stays subscribed for the whole run
+    private static CountHandler[] subscribeStable(EventDispatcher dispatcher) {
+        CountHandler[] stable = new CountHandler[EVENT_COUNT];
+        for (int i = 0; i < EVENT_COUNT; ++i) {
+            stable[i] = new CountHandler();
+            dispatcher.subscribe(i, stable[i]);
+        }
+        return stable;
+    }
+
+    private static void assertStableSubscribed(EventDispatcher dispatcher, CountHandler[] stable) {
+        for (int i = 0; i < EVENT_COUNT; ++i) {
+            long before = stable[i].count.get();
+            dispatcher.post(i, null);
+            assertEquals("stable handler of event " + i + " was lost", before + 1, stable[i].count.get());
+        }
+    }
+}
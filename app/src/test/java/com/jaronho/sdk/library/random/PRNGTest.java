@@ -0,0 +1,270 @@
+package com.jaronho.sdk.library.random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   PRNGTest, the generators reproduce the published reference outputs of SplitMix64, xoshiro256** and PCG32,
+ *          and pass statistical sanity checks: chi-square of nextInt(bound), balance of every output bit,
+ *          mean and serial correlation of nextDouble, and no correlation between a generator and its split() stream,
+ *          every check is seeded, the bounds are at about p = 0.001 so a failure means a broken generator
+ */
+public class PRNGTest {
+    private static final int SAMPLE_COUNT = 1000000;
+
+    private static PRNG[] generators(long seed) {
+        return new PRNG[]{new SplitMix64(seed), new Xoshiro256(seed), new PCG32(seed)};
+    }
+
+    @Test
+    public void splitMix64Reference() {
+        // splitmix64.c by Sebastiano Vigna, x = 0
+        SplitMix64 sm = new SplitMix64(0);
+        assertEquals(0xE220A8397B1DCDAFL, sm.nextLong());
+        assertEquals(0x6E789E6AA1B965F4L, sm.nextLong());
+        assertEquals(0x06C45D188009454FL, sm.nextLong());
+        assertEquals(0xF88BB8A8724C81ECL, sm.nextLong());
+    }
+
+    @Test
+    public void xoshiro256Reference() {
+        // xoshiro256starstar.c by David Blackman and Sebastiano Vigna, s = {1, 2, 3, 4}
+        Xoshiro256 x = new Xoshiro256(1, 2, 3, 4);
+        assertEquals(11520L, x.nextLong());
+        assertEquals(0L, x.nextLong());
+        assertEquals(1509978240L, x.nextLong());
+        assertEquals(1215971899390074240L, x.nextLong());
+        // seeding from a long expands it through SplitMix64
+        SplitMix64 sm = new SplitMix64(99);
+        Xoshiro256 expanded = new Xoshiro256(sm.nextLong(), sm.nextLong(), sm.nextLong(), sm.nextLong());
+        Xoshiro256 seeded = new Xoshiro256(99);
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(expanded.nextLong(), seeded.nextLong());
+        }
+    }
+
+    @Test
+    public void pcg32Reference() {
+        // pcg32-demo.c of the PCG basic C library, pcg32_srandom_r(&rng, 42, 54)
+        PCG32 pcg = new PCG32(42, 54);
+        int[] expected = {0xA15C02B7, 0x7B47F409, 0xBA1D3330, 0x83D2F293, 0xBFA4784B, 0xCBED606E};
+        for (int value : expected) {
+            assertEquals(value, pcg.nextInt());
+        }
+        // nextLong is two outputs, the first one in the high half
+        PCG32 a = new PCG32(42, 54);
+        PCG32 b = new PCG32(42, 54);
+        long high = b.nextInt() & 0xFFFFFFFFL;
+        long low = b.nextInt() & 0xFFFFFFFFL;
+        assertEquals(high << 32 | low, a.nextLong());
+    }
+
+    @Test
+    public void reproducibleFromSeed() {
+        PRNG[] first = generators(12345);
+        PRNG[] second = generators(12345);
+        PRNG[] other = generators(12346);
+        for (int g = 0; g < first.length; ++g) {
+            long[] a = new long[1000];
+            long[] b = new long[1000];
+            long[] c = new long[1000];
+            first[g].fill(a);
+            second[g].fill(b);
+            other[g].fill(c);
+            assertArrayEquals(a, b);
+            int same = 0;
+            for (int i = 0; i < a.length; ++i) {
+                same += a[i] == c[i] ? 1 : 0;
+            }
+            assertEquals(0, same);
+        }
+    }
+
+    @Test
+    public void fillMatchesSingleValues() {
+        for (int g = 0; g < 3; ++g) {
+            PRNG single = generators(7)[g];
+            PRNG bulk = generators(7)[g];
+            double[] doubles = new double[1001];
+            bulk.fill(doubles, 1, 1000);
+            assertEquals(0.0, doubles[0], 0.0);
+            for (int i = 1; i <= 1000; ++i) {
+                assertEquals(single.nextDouble(), doubles[i], 0.0);
+            }
+            int[] ints = new int[1000];
+            bulk.fill(ints);
+            for (int value : ints) {
+                assertEquals(single.nextInt(), value);
+            }
+        }
+    }
+
+    @Test
+    public void boundedIntsAreUniform() {
+        int[] bounds = {2, 100, 1000, 0x40000001};      // the last one rejects almost half of the draws
+        for (PRNG prng : generators(1)) {
+            for (int bound : bounds) {
+                int bucketCount = Math.min(bound, 1000);
+                long[] counts = new long[bucketCount];
+                for (int i = 0; i < SAMPLE_COUNT; ++i) {
+                    int value = prng.nextInt(bound);
+                    assertTrue(value >= 0 && value < bound);
+                    ++counts[(int)((long)value * bucketCount / bound)];
+                }
+                double chi = chiSquare(counts, SAMPLE_COUNT);
+                assertTrue(prng.getClass().getSimpleName() + " nextInt(" + bound + ") chi-square " + chi,
+                        chi < chiSquareLimit(bucketCount - 1));
+            }
+            assertEquals(0, prng.nextInt(1));
+            for (int i = 0; i < 1000; ++i) {
+                int value = prng.nextInt(-5, 5);
+                assertTrue(value >= -5 && value < 5);
+            }
+            try {
+                prng.nextInt(0);
+                fail("nextInt(0) must throw");
+            } catch (AssertionError e) {
+            }
+        }
+    }
+
+    @Test
+    public void bitsAreBalanced() {
+        // every bit of nextLong is set in half of the draws, within 5 standard deviations
+        double limit = 5 * Math.sqrt(SAMPLE_COUNT * 0.25);
+        for (PRNG prng : generators(2)) {
+            long[] ones = new long[64];
+            long[] flips = new long[64];
+            long previous = prng.nextLong();
+            for (int i = 0; i < SAMPLE_COUNT; ++i) {
+                long value = prng.nextLong();
+                long changed = value ^ previous;
+                for (int b = 0; b < 64; ++b) {
+                    ones[b] += (value >>> b) & 1;
+                    flips[b] += (changed >>> b) & 1;
+                }
+                previous = value;
+            }
+            for (int b = 0; b < 64; ++b) {
+                String name = prng.getClass().getSimpleName() + " bit " + b;
+                assertTrue(name + " set " + ones[b] + " times", Math.abs(ones[b] - SAMPLE_COUNT / 2) < limit);
+                assertTrue(name + " changed " + flips[b] + " times", Math.abs(flips[b] - SAMPLE_COUNT / 2) < limit);
+            }
+        }
+    }
+
+    @Test
+    public void doublesAreUniform() {
+        for (PRNG prng : generators(3)) {
+            String name = prng.getClass().getSimpleName();
+            double[] values = new double[SAMPLE_COUNT];
+            prng.fill(values);
+            long[] counts = new long[100];
+            double sum = 0;
+            double lagSum = 0;
+            for (int i = 0; i < values.length; ++i) {
+                assertTrue(values[i] >= 0 && values[i] < 1);
+                ++counts[(int)(values[i] * 100)];
+                sum += values[i];
+                if (i > 0) {
+                    lagSum += (values[i] - 0.5) * (values[i - 1] - 0.5);
+                }
+            }
+            double chi = chiSquare(counts, SAMPLE_COUNT);
+            assertTrue(name + " chi-square " + chi, chi < chiSquareLimit(99));
+            // mean 1/2 with standard deviation sqrt(1/12n), lag 1 covariance 0 with standard deviation 1/12 / sqrt(n)
+            assertTrue(name + " mean " + sum / SAMPLE_COUNT, Math.abs(sum / SAMPLE_COUNT - 0.5) < 5 * Math.sqrt(1.0 / 12 / SAMPLE_COUNT));
+            double correlation = lagSum / (SAMPLE_COUNT - 1) * 12;
+            assertTrue(name + " serial correlation " + correlation, Math.abs(correlation) < 5 / Math.sqrt(SAMPLE_COUNT));
+            for (int i = 0; i < 1000; ++i) {
+                float f = prng.nextFloat();
+                assertTrue(f >= 0 && f < 1);
+            }
+        }
+    }
+
+    @Test
+    public void splitStreamsAreIndependent() {
+        for (PRNG parent : generators(4)) {
+            String name = parent.getClass().getSimpleName();
+            PRNG child = parent.split();
+            PRNG grandChild = child.split();
+            PRNG[] streams = {parent, child, grandChild};
+            double[][] values = new double[3][SAMPLE_COUNT];
+            for (int s = 0; s < 3; ++s) {
+                streams[s].fill(values[s]);
+            }
+            for (int s = 0; s < 3; ++s) {
+                for (int t = s + 1; t < 3; ++t) {
+                    double covariance = 0;
+                    int equal = 0;
+                    for (int i = 0; i < SAMPLE_COUNT; ++i) {
+                        covariance += (values[s][i] - 0.5) * (values[t][i] - 0.5);
+                        equal += values[s][i] == values[t][i] ? 1 : 0;
+                    }
+                    double correlation = covariance / SAMPLE_COUNT * 12;
+                    assertTrue(name + " streams " + s + " and " + t + " correlation " + correlation,
+                            Math.abs(correlation) < 5 / Math.sqrt(SAMPLE_COUNT));
+                    assertTrue(name + " streams " + s + " and " + t + " repeat " + equal + " values", equal < 3);
+                }
+            }
+        }
+        // splitting is reproducible
+        for (int g = 0; g < 3; ++g) {
+            PRNG a = generators(6)[g].split().split();
+            PRNG b = generators(6)[g].split().split();
+            for (int i = 0; i < 100; ++i) {
+                assertEquals(a.nextLong(), b.nextLong());
+            }
+        }
+    }
+
+    @Test
+    public void jumpedStreamsAreIndependent() {
+        // jump() is the same linear map whichever state it starts from, so jumping commutes with stepping
+        Xoshiro256 stepThenJump = new Xoshiro256(8);
+        Xoshiro256 jumpThenStep = new Xoshiro256(8);
+        for (int i = 0; i < 10; ++i) {
+            stepThenJump.nextLong();
+        }
+        stepThenJump.jump();
+        jumpThenStep.jump();
+        for (int i = 0; i < 10; ++i) {
+            jumpThenStep.nextLong();
+        }
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(jumpThenStep.nextLong(), stepThenJump.nextLong());
+        }
+        Xoshiro256 base = new Xoshiro256(9);
+        Xoshiro256 jumped = new Xoshiro256(9);
+        jumped.jump();
+        double covariance = 0;
+        for (int i = 0; i < SAMPLE_COUNT; ++i) {
+            covariance += (base.nextDouble() - 0.5) * (jumped.nextDouble() - 0.5);
+        }
+        double correlation = covariance / SAMPLE_COUNT * 12;
+        assertTrue("correlation " + correlation, Math.abs(correlation) < 5 / Math.sqrt(SAMPLE_COUNT));
+    }
+
+    private static double chiSquare(long[] counts, long total) {
+        double expected = (double)total / counts.length;
+        double chi = 0;
+        for (long count : counts) {
+            chi += (count - expected) * (count - expected) / expected;
+        }
+        return chi;
+    }
+
+    // chi-square value exceeded with probability 0.001 for df degrees of freedom (Wilson-Hilferty)
+    private static double chiSquareLimit(int df) {
+        double a = 2.0 / (9 * df);
+        double b = 1 - a + 3.09 * Math.sqrt(a);
+        return df * b * b * b;
+    }
+}
@@ -0,0 +1,233 @@
+package com.jaronho.sdk.library.timer;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   VirtualTimerExecutorTest, the scheduling TimerManager runs on its worker thread, driven on virtual time:
+ *          fire times keep the phase of the schedule, slack rounds deadlines without drift, batch dispatch sends one task
+ *          per tick to main, callbacks go to their executor one at a time, stop, replace and clear cancel the right timer
+ */
+public class VirtualTimerExecutorTest {
+    // holds tasks until the test runs them, stands in for the main thread or a pool
+    private static class QueueExecutor implements Executor {
+        final ArrayDeque<Runnable> mTaskQueue = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            mTaskQueue.offer(command);
+        }
+
+        int runAll() {
+            int count = 0;
+            for (Runnable task = mTaskQueue.poll(); null != task; task = mTaskQueue.poll()) {
+                task.run();
+                ++count;
+            }
+            return count;
+        }
+    }
+
+    private static class Recorder extends Timer.RunHandler {
+        final VirtualTimerExecutor mExecutor;
+        final String mName;
+        final List<String> mLog;
+        Recorder(VirtualTimerExecutor executor, String name, List<String> log) {
+            mExecutor = executor;
+            mName = name;
+            mLog = log;
+        }
+
+        @Override
+        public void onCallback(Timer tm, int runCount, Object param) {
+            mLog.add(mName + "@" + mExecutor.now() + "x" + runCount);
+        }
+    }
+
+    @Test
+    public void timersKeepTheirPhase() {
+        final VirtualTimerExecutor executor = new VirtualTimerExecutor(1000);
+        final List<String> log = new ArrayList<>();
+        executor.run(100, 3, new Recorder(executor, "a", log), new Timer.OverHandler() {
+            @Override
+            public void onCallback(Timer tm, Object param) {
+                log.add("a over@" + executor.now());
+            }
+        }, null, true, "a");
+        executor.run(70, 0, new Recorder(executor, "b", log), null, null, false, "b");
+        assertEquals(2, executor.size());
+        executor.advanceTo(1250);
+        assertEquals(Arrays.asList("a@1000x0", "b@1070x1", "a@1100x1", "b@1140x1", "a@1200x1", "b@1210x1"), log);
+        log.clear();
+        // the last run leaves the timer due at once, it is over on the next tick
+        executor.advanceBy(100);
+        assertEquals(Arrays.asList("b@1280x1", "a@1300x1", "a over@1301", "b@1350x1"), log);
+        assertEquals(1350, executor.now());
+        assertEquals(1, executor.size());
+        executor.clear(false);
+        assertEquals(0, executor.size());
+    }
+
+    @Test
+    public void slackRoundsWithoutDrift() {
+        final VirtualTimerExecutor executor = new VirtualTimerExecutor();
+        final long slack = 16;
+        executor.setBatchDispatch(false, slack);
+        final List<long[]> fires = new ArrayList<>();
+        executor.run(10, 0, new Timer.RunHandler() {
+            @Override
+            public void onCallback(Timer tm, int runCount, Object param) {
+                fires.add(new long[]{executor.now(), tm.getCurrentCount(), runCount});
+            }
+        }, null, null, false, "t");
+        executor.advanceTo(10000);
+        long previousCount = 0;
+        for (long[] fire : fires) {
+            long time = fire[0];
+            assertEquals(0, time % slack);
+            // the count follows the original schedule, so rounding never accumulates
+            assertEquals(time / 10, fire[1]);
+            // fired less than slack after the first interval it reports
+            assertTrue(time - (previousCount + 1) * 10 < slack);
+            assertEquals(fire[1] - previousCount, fire[2]);
+            previousCount = fire[1];
+        }
+        assertEquals(1000, previousCount);
+        // fewer wake ups than intervals
+        assertEquals(10000 / slack, fires.size());
+    }
+
+    @Test
+    public void batchDispatchSendsOneTaskPerTick() {
+        QueueExecutor main = new QueueExecutor();
+        final VirtualTimerExecutor executor = new VirtualTimerExecutor(0, main);
+        final List<String> log = new ArrayList<>();
+        executor.setBatchDispatch(true, 16);
+        String[] names = {"a", "b", "c"};
+        long[] intervals = {16, 30, 45};
+        for (int i = 0; i < names.length; ++i) {
+            final String name = names[i];
+            executor.run(intervals[i], 0, new Timer.RunHandler() {
+                @Override
+                public void onCallback(Timer tm, int runCount, Object param) {
+                    log.add(name);
+                }
+            }, null, null, false, name);
+        }
+        executor.advanceTo(96);
+        // b and c are rounded up to the ticks of a: 32, 64, 96 and 48, 96
+        assertEquals(0, log.size());
+        assertEquals(11, executor.getCallbackCount());
+        assertEquals(6, executor.getMessageCount());
+        assertEquals(5, executor.getSavedMessageCount());
+        String[] batches = {"a", "ab", "ac", "ab", "a", "abc"};
+        for (String batch : batches) {
+            main.mTaskQueue.poll().run();
+            char[] delivered = new char[log.size()];
+            for (int i = 0; i < delivered.length; ++i) {
+                delivered[i] = log.get(i).charAt(0);
+            }
+            Arrays.sort(delivered);
+            assertEquals(batch, new String(delivered));
+            log.clear();
+        }
+        assertEquals(0, main.mTaskQueue.size());
+        // without batching each callback is its own task
+        executor.resetCounters();
+        executor.setBatchDispatch(false, 16);
+        executor.advanceTo(192);
+        assertEquals(11, executor.getCallbackCount());
+        assertEquals(11, executor.getMessageCount());
+        assertEquals(11, main.runAll());
+    }
+
+    @Test
+    public void callbacksGoToTheirExecutorInOrder() {
+        QueueExecutor main = new QueueExecutor();
+        QueueExecutor pool = new QueueExecutor();
+        final VirtualTimerExecutor executor = new VirtualTimerExecutor(0, main);
+        final List<String> log = new ArrayList<>();
+        executor.setBatchDispatch(true, 0);
+        executor.run(10, 3, new Recorder(executor, "p", log), new Timer.OverHandler() {
+            @Override
+            public void onCallback(Timer tm, Object param) {
+                log.add("p over");
+            }
+        }, null, false, "p", pool);
+        final Thread thread = Thread.currentThread();
+        executor.run(25, 2, new Timer.RunHandler() {
+            @Override
+            public void onCallback(Timer tm, int runCount, Object param) {
+                assertEquals(thread, Thread.currentThread());
+                log.add("i@" + executor.now());
+            }
+        }, null, null, false, "i", TimerManager.INLINE);
+        executor.advanceTo(100);
+        // inline callbacks ran during advanceTo, nothing went to main
+        assertEquals(Arrays.asList("i@25", "i@50"), log);
+        assertEquals(0, main.mTaskQueue.size());
+        assertEquals(0, executor.getMessageCount());
+        // the pool gets one callback of a timer at a time, the next one once the previous has run
+        assertEquals(1, pool.mTaskQueue.size());
+        log.clear();
+        assertEquals(4, pool.runAll());
+        assertEquals(Arrays.asList("p@100x1", "p@100x1", "p@100x1", "p over"), log);
+        assertEquals(0, executor.size());
+    }
+
+    @Test
+    public void stopReplaceAndClearCancelTheRightTimer() {
+        final VirtualTimerExecutor executor = new VirtualTimerExecutor();
+        final List<String> log = new ArrayList<>();
+        Timer.OverHandler over = new Timer.OverHandler() {
+            @Override
+            public void onCallback(Timer tm, Object param) {
+                log.add(param + " over");
+            }
+        };
+        executor.run(10, 0, new Recorder(executor, "old", log), over, "old", false, "x");
+        executor.advanceTo(15);
+        executor.run(10, 0, new Recorder(executor, "new", log), over, "new", false, "x");
+        executor.advanceTo(40);
+        assertEquals(Arrays.asList("old@10x1", "new@25x1", "new@35x1"), log);
+        log.clear();
+        executor.stop("x", true);
+        executor.stop("x", true);
+        executor.advanceTo(100);
+        assertEquals(Arrays.asList("new over"), log);
+        log.clear();
+        // a timer stopped by its own inline start callback is never scheduled
+        executor.run(10, 0, new Timer.RunHandler() {
+            @Override
+            public void onCallback(Timer tm, int runCount, Object param) {
+                log.add("start");
+                executor.stop("s", false);
+            }
+        }, null, null, true, "s");
+        assertEquals(0, executor.size());
+        executor.run(10, 0, new Recorder(executor, "c1", log), over, "c1", false, "c1");
+        executor.run(20, 0, new Recorder(executor, "c2", log), over, "c2", false, "c2");
+        executor.clear(true);
+        executor.advanceTo(1000);
+        assertEquals(Arrays.asList("start", "c1 over", "c2 over"), sortedOver(log));
+        assertEquals(0, executor.size());
+    }
+
+    // clear stops the timers in map order, sort the over entries so the check does not depend on it
+    private static List<String> sortedOver(List<String> log) {
+        List<String> result = new ArrayList<>(log);
+        Collections.sort(result.subList(1, result.size()));
+        return result;
+    }
+}
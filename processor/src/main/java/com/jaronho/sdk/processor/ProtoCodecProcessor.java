@@ -0,0 +1,336 @@
+package com.jaronho.sdk.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Author:  jaron.ho
+ * Date:    2026-10-17
+ * Brief:   ProtoCodecProcessor, generates one XxxCodec per class with @ProtoField fields, next to the class:
+ *          static write(msg, ba), read(ba, msg) and read(ba) that call ByteArray.write_xxx/read_xxx on the fields directly,
+ *          same wire format as ReflectiveMessageSerializer, nested classes are named after their outer classes,
+ *          Outer.Message gets Outer_MessageCodec, fields must not be private, static or final
+ */
+public class ProtoCodecProcessor extends AbstractProcessor {
+    private static final String PROTO_FIELD = "com.jaronho.sdk.library.bytearray.annotation.ProtoField";
+    private static final String BYTE_ARRAY = "com.jaronho.sdk.library.bytearray.ByteArray";
+
+    private static class FieldInfo {
+        public final VariableElement field;
+        public final int index;
+        public final boolean varint;
+        public final boolean zigzag;
+        public FieldInfo(VariableElement field, int index, boolean varint, boolean zigzag) {
+            this.field = field;
+            this.index = index;
+            this.varint = varint;
+            this.zigzag = zigzag;
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(PROTO_FIELD);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement protoField = processingEnv.getElementUtils().getTypeElement(PROTO_FIELD);
+        if (null == protoField) {
+            return false;
+        }
+        // classes in the order their first field was found, each is generated once
+        Map<TypeElement, Boolean> classMap = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(protoField)) {
+            if (ElementKind.FIELD == element.getKind()) {
+                classMap.put((TypeElement)element.getEnclosingElement(), Boolean.TRUE);
+            }
+        }
+        for (TypeElement cls : classMap.keySet()) {
+            List<FieldInfo> fields = collectFields(cls);
+            if (null != fields) {
+                generate(cls, fields);
+            }
+        }
+        return true;
+    }
+
+    // @ProtoField fields of the class and its superclasses sorted by index, null after an error was reported
+    private List<FieldInfo> collectFields(TypeElement cls) {
+        boolean ok = checkClass(cls);
+        List<FieldInfo> fields = new ArrayList<>();
+        String packageName = packageName(cls);
+        for (TypeElement c = cls; null != c && !"java.lang.Object".equals(c.getQualifiedName().toString()); c = superclass(c)) {
+            for (VariableElement field : ElementFilter.fieldsIn(c.getEnclosedElements())) {
+                AnnotationMirror mirror = findProtoField(field);
+                if (null == mirror) {
+                    continue;
+                }
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+                    ok = error(field, "field " + name(field) + " can not be static or final");
+                } else if (modifiers.contains(Modifier.PRIVATE)) {
+                    ok = error(field, "field " + name(field) + " can not be private, the generated codec accesses it directly");
+                } else if (!modifiers.contains(Modifier.PUBLIC) && !packageName.equals(packageName(c))) {
+                    ok = error(field, "field " + name(field) + " must be public, it is in another package than " + cls.getQualifiedName());
+                }
+                int index = 0;
+                boolean varint = false;
+                boolean zigzag = false;
+                Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+                    String key = entry.getKey().getSimpleName().toString();
+                    Object value = entry.getValue().getValue();
+                    if ("index".equals(key)) {
+                        index = (Integer)value;
+                    } else if ("varint".equals(key)) {
+                        varint = (Boolean)value;
+                    } else if ("zigzag".equals(key)) {
+                        zigzag = (Boolean)value;
+                    }
+                }
+                fields.add(new FieldInfo(field, index, varint, zigzag));
+            }
+        }
+        Collections.sort(fields, new Comparator<FieldInfo>() {
+            @Override
+            public int compare(FieldInfo f1, FieldInfo f2) {
+                return f1.index < f2.index ? -1 : (f1.index == f2.index ? 0 : 1);
+            }
+        });
+        for (int i = 0, len = fields.size(); i < len; ++i) {
+            FieldInfo info = fields.get(i);
+            if (i > 0 && info.index == fields.get(i - 1).index) {
+                ok = error(info.field, "field " + name(info.field) + " has duplicate index " + info.index);
+            }
+            if (null == writeExpression(info, "v")) {
+                ok = error(info.field, "field " + name(info.field) + " of type " + info.field.asType() + " not support");
+            } else if (info.varint && !isVarintType(info.field.asType())) {
+                ok = error(info.field, "field " + name(info.field) + " of type " + info.field.asType() + " not support varint");
+            } else if (info.zigzag && !info.varint) {
+                ok = error(info.field, "field " + name(info.field) + " zigzag must be used with varint");
+            }
+        }
+        return ok ? fields : null;
+    }
+
+    private boolean checkClass(TypeElement cls) {
+        if (!cls.getTypeParameters().isEmpty()) {
+            return error(cls, "class " + cls.getQualifiedName() + " can not be generic");
+        }
+        for (Element e = cls; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return error(cls, "class " + cls.getQualifiedName() + " can not be private or nested in a private class");
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement cls, List<FieldInfo> fields) {
+        String packageName = packageName(cls);
+        String binaryName = processingEnv.getElementUtils().getBinaryName(cls).toString();
+        String codecName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + "Codec";
+        String className = cls.getQualifiedName().toString();
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("// generated by ProtoCodecProcessor from the @ProtoField fields of ").append(className).append(", do not edit\n");
+        sb.append("public final class ").append(codecName).append(" {\n");
+        sb.append("    private ").append(codecName).append("() {\n    }\n\n");
+        // write: fields in index order, stops at the first write that does not fit
+        sb.append("    public static boolean write(").append(className).append(" msg, ").append(BYTE_ARRAY).append(" ba) {\n");
+        for (FieldInfo info : fields) {
+            sb.append("        if (!").append(writeExpression(info, access(cls, info.field))).append(") {\n");
+            sb.append("            return false;\n");
+            sb.append("        }\n");
+        }
+        sb.append("        return true;\n    }\n\n");
+        // read into an existing object, false when the input was truncated
+        sb.append("    public static boolean read(").append(BYTE_ARRAY).append(" ba, ").append(className).append(" msg) {\n");
+        for (FieldInfo info : fields) {
+            sb.append("        ").append(access(cls, info.field)).append(" = ").append(readExpression(info)).append(";\n");
+        }
+        sb.append("        return !ba.isReadOverflow();\n    }\n");
+        if (hasNoArgConstructor(cls)) {
+            sb.append("\n    public static ").append(className).append(" read(").append(BYTE_ARRAY).append(" ba) {\n");
+            sb.append("        ").append(className).append(" msg = new ").append(className).append("();\n");
+            sb.append("        return read(ba, msg) ? msg : null;\n    }\n");
+        }
+        sb.append("}\n");
+        try {
+            Writer writer = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? codecName : packageName + "." + codecName, cls).openWriter();
+            try {
+                writer.write(sb.toString());
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            error(cls, "can not write " + codecName + ": " + e.getMessage());
+        }
+    }
+
+    // a field of a superclass is reached through a cast, so a field of the same name in the subclass does not hide it
+    private static String access(TypeElement cls, VariableElement field) {
+        TypeElement owner = (TypeElement)field.getEnclosingElement();
+        if (owner.equals(cls)) {
+            return "msg." + field.getSimpleName();
+        }
+        return "((" + owner.getQualifiedName() + ")msg)." + field.getSimpleName();
+    }
+
+    // expression writing value v, null for an unsupported type
+    private static String writeExpression(FieldInfo info, String v) {
+        TypeMirror type = info.field.asType();
+        switch (type.getKind()) {
+            case BOOLEAN: return "ba.write_bool(" + v + ")";
+            case BYTE: return "ba.write_byte(" + v + ")";
+            case CHAR: return "ba.write_char(" + v + ")";
+            case SHORT: return "ba.write_int16(" + v + ")";
+            case INT: return (info.zigzag ? "ba.write_svarint(" : (info.varint ? "ba.write_varint(" : "ba.write_int(")) + v + ")";
+            case LONG: return (info.zigzag ? "ba.write_svarlong(" : (info.varint ? "ba.write_varlong(" : "ba.write_long(")) + v + ")";
+            case FLOAT: return "ba.write_float(" + v + ")";
+            case DOUBLE: return "ba.write_double(" + v + ")";
+            default: break;
+        }
+        String write = null;
+        if (isString(type)) {
+            write = "ba.write_utf8(" + v + ")";
+        } else if (TypeKind.ARRAY == type.getKind()) {
+            switch (((ArrayType)type).getComponentType().getKind()) {
+                case INT: write = info.varint ? "ba.write_varint_array(" + v + ", " + info.zigzag + ")" : "ba.write_int_array(" + v + ")"; break;
+                case LONG: write = info.varint ? "ba.write_varlong_array(" + v + ", " + info.zigzag + ")" : "ba.write_long_array(" + v + ")"; break;
+                case FLOAT: write = "ba.write_float_array(" + v + ")"; break;
+                case DOUBLE: write = "ba.write_double_array(" + v + ")"; break;
+                default: break;
+            }
+        }
+        if (null == write) {
+            return null;
+        }
+        // non-null flag first, so null and "" or an empty array stay apart
+        return "(ba.write_bool(null != " + v + ") && (null == " + v + " || " + write + "))";
+    }
+
+    private static String readExpression(FieldInfo info) {
+        TypeMirror type = info.field.asType();
+        switch (type.getKind()) {
+            case BOOLEAN: return "ba.read_bool()";
+            case BYTE: return "ba.read_byte()";
+            case CHAR: return "ba.read_char()";
+            case SHORT: return "ba.read_int16()";
+            case INT: return info.zigzag ? "ba.read_svarint()" : (info.varint ? "ba.read_varint()" : "ba.read_int()");
+            case LONG: return info.zigzag ? "ba.read_svarlong()" : (info.varint ? "ba.read_varlong()" : "ba.read_long()");
+            case FLOAT: return "ba.read_float()";
+            case DOUBLE: return "ba.read_double()";
+            default: break;
+        }
+        String read;
+        if (isString(type)) {
+            read = "ba.read_utf8()";
+        } else {
+            switch (((ArrayType)type).getComponentType().getKind()) {
+                case INT: read = info.varint ? "ba.read_varint_array(" + info.zigzag + ")" : "ba.read_int_array()"; break;
+                case LONG: read = info.varint ? "ba.read_varlong_array(" + info.zigzag + ")" : "ba.read_long_array()"; break;
+                case FLOAT: read = "ba.read_float_array()"; break;
+                default: read = "ba.read_double_array()"; break;
+            }
+        }
+        return "ba.read_bool() ? " + read + " : null";
+    }
+
+    private static boolean isVarintType(TypeMirror type) {
+        if (TypeKind.INT == type.getKind() || TypeKind.LONG == type.getKind()) {
+            return true;
+        }
+        if (TypeKind.ARRAY == type.getKind()) {
+            TypeKind component = ((ArrayType)type).getComponentType().getKind();
+            return TypeKind.INT == component || TypeKind.LONG == component;
+        }
+        return false;
+    }
+
+    private static boolean isString(TypeMirror type) {
+        return TypeKind.DECLARED == type.getKind()
+                && "java.lang.String".equals(((TypeElement)((DeclaredType)type).asElement()).getQualifiedName().toString());
+    }
+
+    // read(ba) needs a concrete, non inner class with a no-arg constructor the codec can call
+    private static boolean hasNoArgConstructor(TypeElement cls) {
+        if (cls.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        if (NestingKind.MEMBER == cls.getNestingKind() && !cls.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(cls.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AnnotationMirror findProtoField(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement)mirror.getAnnotationType().asElement();
+            if (PROTO_FIELD.equals(type.getQualifiedName().toString())) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private TypeElement superclass(TypeElement cls) {
+        TypeMirror superclass = cls.getSuperclass();
+        if (TypeKind.DECLARED != superclass.getKind()) {
+            return null;
+        }
+        return (TypeElement)((DeclaredType)superclass).asElement();
+    }
+
+    private String packageName(TypeElement cls) {
+        return processingEnv.getElementUtils().getPackageOf(cls).getQualifiedName().toString();
+    }
+
+    private static String name(VariableElement field) {
+        return ((TypeElement)field.getEnclosingElement()).getQualifiedName() + "." + field.getSimpleName();
+    }
+
+    // reports the error on the element, returns false so it can be assigned to the result
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+}